@@ -0,0 +1,91 @@
+package com.musalasoft.drones.benchmark;
+
+import com.musalasoft.drones.charging.ChargeProgress;
+import com.musalasoft.drones.charging.ChargingScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling decisions with {@code fleetSize} drones waiting for {@value #SLOTS} charging slots: a telemetry reading
+ * moving a waiting drone, a load attempt raising its demand, a slot being taken and given back, and a tick of the
+ * charging simulation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChargingSchedulerBenchmark {
+
+    private static final int SLOTS = 64;
+    private static final int READINGS = 1 << 16;
+
+    @Param({"1000", "100000"})
+    private int fleetSize;
+
+    private ChargingScheduler scheduler;
+    private String[] serialNumbers;
+    private int[] batteries;
+    private int next;
+    private String charging;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        scheduler = new ChargingScheduler(SLOTS, 1, 100, 5);
+        serialNumbers = new String[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            serialNumbers[i] = "DRONE" + i;
+            scheduler.enqueue(serialNumbers[i], random.nextInt(26));
+        }
+        batteries = new int[READINGS];
+        for (int i = 0; i < READINGS; i++) {
+            batteries[i] = random.nextInt(26);
+        }
+        String serialNumber;
+        while ((serialNumber = scheduler.nextToCharge()) != null) {
+            charging = serialNumber;
+        }
+    }
+
+    @Benchmark
+    public void rebalance() {
+        var i = next++ & (READINGS - 1);
+        scheduler.updateBattery(serialNumbers[i % fleetSize], batteries[i]);
+    }
+
+    @Benchmark
+    public void recordDemand() {
+        scheduler.recordDemand(serialNumbers[next++ % fleetSize]);
+    }
+
+    @Benchmark
+    public String takeAndGiveBackASlot() {
+        var battery = scheduler.release(charging);
+        var serialNumber = scheduler.nextToCharge();
+        scheduler.enqueue(charging, battery);
+        charging = serialNumber;
+        return serialNumber;
+    }
+
+    @Benchmark
+    public List<ChargeProgress> tick() {
+        return scheduler.advance(1);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.musalasoft.drones.benchmark;
+
+import com.musalasoft.drones.dispatch.DispatchPlan;
+import com.musalasoft.drones.dispatch.DispatchPlanner;
+import com.musalasoft.drones.dispatch.PackingStrategy;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneType.Lightweight;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+/**
+ * Compares the packing heuristics on planning time. The capacity utilization, the drones used and the orders left
+ * behind by the last plan of every iteration are reported as secondary results ({@link PlanCounters}), so both sides
+ * of the trade-off show up in the same run and in the {@code -rf json} results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchPlannerBenchmark {
+
+    @Param({"1000", "5000"})
+    private int fleetSize;
+
+    @Param({"1000", "10000"})
+    private int orders;
+
+    @Param({"FIRST_FIT_DECREASING", "BEST_FIT_DECREASING"})
+    private PackingStrategy strategy;
+
+    private final DispatchPlanner planner = new DispatchPlanner();
+    private List<DroneSummary> drones;
+    private List<Medication> medications;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        drones = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            drones.add(new DroneSummary("DRONE" + i, Lightweight, random.nextInt(DRONE_WEIGHT_LIMIT), 25 + random.nextInt(76), IDLE));
+        }
+        medications = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            medications.add(new Medication(i, "MEDICATION" + i, 1 + random.nextInt(250), "CODE" + i, null));
+        }
+    }
+
+    @Benchmark
+    public DispatchPlan plan(PlanCounters counters) {
+        var plan = planner.plan(drones, medications, strategy);
+        counters.record(plan);
+        return plan;
+    }
+
+    /**
+     * Outcome of the last plan of the iteration, the same on every invocation since the inputs don't change.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PlanCounters extends IterationMeans {
+        public double utilization;
+        public double dronesUsed;
+        public double unassigned;
+
+        void record(DispatchPlan plan) {
+            utilization = share(plan.getCapacityUtilization());
+            dronesUsed = share(plan.getAssignments().size());
+            unassigned = share(plan.getUnassignedMedicationIds().size());
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.musalasoft.drones.benchmark;
+
+import com.musalasoft.drones.DronesApplication;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.repository.DroneRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+/**
+ * Compares listing drones as entities whose medications get loaded (what the EAGER mapping used to do on every
+ * query) against the scalar projection used by the listing endpoints now. Run with {@code -prof gc} to get the
+ * allocation rate; the number of SQL statements per operation of every iteration is reported as a secondary result
+ * ({@link StatementCounters}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DroneListingBenchmark {
+
+    private static final int MEDICATIONS = 50;
+
+    @Param({"100", "1000"})
+    private int fleetSize;
+
+    @Param({"3"})
+    private int medicationsPerDrone;
+
+    private ConfigurableApplicationContext context;
+    private DroneRepository droneRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(DronesApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:listing-benchmark",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN");
+        droneRepository = context.getBean(DroneRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int entitiesWithMedications(StatementCounters counters) {
+        counters.operations++;
+        return transactionTemplate.execute(status -> {
+            var medications = 0;
+            for (Drone drone : droneRepository.findAll()) {
+                medications += drone.getMedications().size();
+            }
+            return medications;
+        });
+    }
+
+    @Benchmark
+    public List<DroneSummary> summaries(StatementCounters counters) {
+        counters.operations++;
+        return droneRepository.findByWeightIsLessThan(DRONE_WEIGHT_LIMIT);
+    }
+
+    /**
+     * SQL statements per operation over the iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounters extends IterationMeans {
+        public double statementsPerOp;
+        private long operations;
+        private long statements;
+
+        @Setup(Level.Iteration)
+        public void startCounting(DroneListingBenchmark benchmark) {
+            operations = 0;
+            statements = benchmark.statistics.getPrepareStatementCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stopCounting(DroneListingBenchmark benchmark) {
+            statementsPerOp = share((double) (benchmark.statistics.getPrepareStatementCount() - statements) / operations);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        var medications = new ArrayList<Object[]>();
+        for (long id = 1000; id < 1000 + MEDICATIONS; id++) {
+            medications.add(new Object[]{id, "MEDICATION" + id, 10, "CODE" + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO medications (id, name, weight, code) VALUES (?, ?, ?, ?)", medications);
+        var drones = new ArrayList<Object[]>();
+        var loads = new ArrayList<Object[]>();
+        for (int i = 0; i < fleetSize; i++) {
+            var serialNumber = "BENCH" + i;
+            drones.add(new Object[]{serialNumber, 0, 10 * medicationsPerDrone, 100, 0});
+            for (int m = 0; m < medicationsPerDrone; m++) {
+                loads.add(new Object[]{serialNumber, 1000L + (i + m) % MEDICATIONS, 10});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO drones (serial_number, model, weight, battery, state) VALUES (?, ?, ?, ?, ?)", drones);
+        jdbcTemplate.batchUpdate("INSERT INTO medications_drones (serial_number, medication_id, weight) VALUES (?, ?, ?)", loads);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.musalasoft.drones.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.IterationParams;
+
+/**
+ * Base of the {@code @AuxCounters(EVENTS)} states whose counters are a value per iteration or per operation
+ * (capacity utilization, statements per load, payload bytes) rather than a count of events. JMH sums EVENTS
+ * counters over the measurement iterations, so every iteration records its share of the value with
+ * {@link #share} and the score is the mean of the iterations.
+ */
+public abstract class IterationMeans {
+
+    private double share;
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        share = 1.0 / iteration.getCount();
+    }
+
+    protected double share(double value) {
+        return value * share;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.musalasoft.drones.benchmark;
+
+import com.musalasoft.drones.DronesApplication;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.service.DroneService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a single {@code loadDrone} call, round-robin over a fleet of empty drones with a 1gr medication so
+ * no load is ever rejected. The SQL statements and entity updates per load of every iteration are reported as
+ * secondary results ({@link LoadCounters}).
+ * <p>
+ * {@code logLevel} and {@code profile} select how the application logs, run with {@code -prof gc} to compare the
+ * allocation of each setup, e.g. {@code -p logLevel=INFO -p profile=default,prod}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadDroneBenchmark {
+
+    private static final int FLEET_SIZE = 2000;
+    private static final long MEDICATION_ID = 1000;
+
+    @Param({"WARN"})
+    private String logLevel;
+
+    @Param({"default"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private DroneService droneService;
+    private Statistics statistics;
+    private List<Long> medicationIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(DronesApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:load-benchmark",
+                "--spring.profiles.active=" + profile,
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.musalasoft.drones=" + logLevel);
+        droneService = context.getBean(DroneService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        medicationIds = List.of(MEDICATION_ID);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Drone loadDrone(LoadCounters counters) {
+        var serialNumber = "BENCH" + next;
+        next = (next + 1) % FLEET_SIZE;
+        counters.loads++;
+        return droneService.loadDrone(serialNumber, medicationIds);
+    }
+
+    /**
+     * Hibernate statements and entity updates per load over the iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoadCounters extends IterationMeans {
+        public double statementsPerLoad;
+        public double entityUpdatesPerLoad;
+        private long loads;
+        private long statements;
+        private long entityUpdates;
+
+        @Setup(Level.Iteration)
+        public void startCounting(LoadDroneBenchmark benchmark) {
+            loads = 0;
+            statements = benchmark.statistics.getPrepareStatementCount();
+            entityUpdates = benchmark.statistics.getEntityUpdateCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stopCounting(LoadDroneBenchmark benchmark) {
+            statementsPerLoad = share((double) (benchmark.statistics.getPrepareStatementCount() - statements) / loads);
+            entityUpdatesPerLoad = share((double) (benchmark.statistics.getEntityUpdateCount() - entityUpdates) / loads);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO medications (id, name, weight, code) VALUES (?, ?, ?, ?)", MEDICATION_ID, "BENCHMARK", 1, "BENCH");
+        var drones = new ArrayList<Object[]>();
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            drones.add(new Object[]{"BENCH" + i, 0, 0, 100, 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO drones (serial_number, model, weight, battery, state) VALUES (?, ?, ?, ?, ?)", drones);
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.musalasoft.drones.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.DronesApplication;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.CursorPage;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import com.musalasoft.drones.service.DroneService;
+import com.musalasoft.drones.service.MedicationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+/**
+ * Hot paths of the services over a fleet and a medication catalogue of {@code fleetSize} entries each. Every
+ * drone carries {@value #MEDICATIONS_PER_DRONE} medications, every fourth one has a low battery and every tenth
+ * one is full, so each listing returns a share of the fleet proportional to its size.
+ * <p>
+ * {@code loadDrone} goes round-robin over the drones that can be loaded, adding a 1gr medication; the loads are
+ * undone after every iteration. The catalogue is read the way {@code /api/medications} serves it: whole as
+ * summaries, and in keyset pages of {@value #PAGE_SIZE} (the default limit of {@code /api/medications/page}) that
+ * walk the catalogue and start over from the first page after the last one. The JSON benchmark writes the fleet with its medications through the
+ * application's {@link ObjectMapper} into a discarding stream, so only serialization is measured.
+ * <p>
+ * The largest fleets take a while to seed, narrow the sizes with {@code -p fleetSize=10,1000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ServiceHotPathsBenchmark {
+
+    private static final int MEDICATIONS_PER_DRONE = 3;
+    private static final int MEDICATION_WEIGHT = 10;
+    private static final long LOAD_MEDICATION_ID = 999;
+    private static final long FIRST_MEDICATION_ID = 1000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int fleetSize;
+
+    private ConfigurableApplicationContext context;
+    private DroneService droneService;
+    private MedicationService medicationService;
+    private ObjectMapper objectMapper;
+    private JdbcTemplate jdbcTemplate;
+    private List<Drone> fleet;
+    private List<Long> loadMedicationIds;
+    private int next;
+    private int loads;
+    private long pageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(DronesApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:hot-paths-benchmark",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        droneService = context.getBean(DroneService.class);
+        medicationService = context.getBean(MedicationService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        loadMedicationIds = List.of(LOAD_MEDICATION_ID);
+        fleet = seed();
+    }
+
+    @TearDown(Level.Iteration)
+    public void undoLoads() {
+        if (loads == 0) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM medications_drones WHERE medication_id = ?", LOAD_MEDICATION_ID);
+        jdbcTemplate.update("UPDATE drones SET weight = ?, state = ? WHERE weight < ?",
+                MEDICATIONS_PER_DRONE * MEDICATION_WEIGHT, DroneState.IDLE.ordinal(), DRONE_WEIGHT_LIMIT);
+        loads = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Drone loadDrone() {
+        do {
+            next = (next + 1) % fleetSize;
+        } while (!isLoadable(next));
+        loads++;
+        return droneService.loadDrone(serialNumberOf(next), loadMedicationIds);
+    }
+
+    @Benchmark
+    public List<DroneSummary> availableDronesToBeLoaded() {
+        return droneService.availableDronesToBeLoaded();
+    }
+
+    @Benchmark
+    public List<DroneSummary> dronesThatNeedEnergy() {
+        return droneService.dronesThatNeedEnergy();
+    }
+
+    @Benchmark
+    public List<MedicationSummary> getAllMedicationSummaries() {
+        return medicationService.getAllSummaries();
+    }
+
+    @Benchmark
+    public CursorPage<MedicationSummary> getMedicationsPage() {
+        var page = medicationService.getPage(pageCursor, PAGE_SIZE);
+        pageCursor = page.getNextCursor() == null ? 0 : page.getNextCursor();
+        return page;
+    }
+
+    @Benchmark
+    public void serializeDronesWithMedications() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), fleet);
+    }
+
+    private List<Drone> seed() {
+        jdbcTemplate.update("INSERT INTO medications (id, name, weight, code) VALUES (?, ?, ?, ?)", LOAD_MEDICATION_ID, "LOAD", 1, "LOAD");
+        var catalogue = new ArrayList<Medication>(fleetSize);
+        var medications = new ArrayList<Object[]>();
+        for (long id = FIRST_MEDICATION_ID; id < FIRST_MEDICATION_ID + fleetSize; id++) {
+            catalogue.add(new Medication(id, "MEDICATION" + id, MEDICATION_WEIGHT, "CODE" + id, null));
+            medications.add(new Object[]{id, "MEDICATION" + id, MEDICATION_WEIGHT, "CODE" + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO medications (id, name, weight, code) VALUES (?, ?, ?, ?)", medications);
+
+        var fleet = new ArrayList<Drone>(fleetSize);
+        var drones = new ArrayList<Object[]>();
+        var loads = new ArrayList<Object[]>();
+        for (int i = 0; i < fleetSize; i++) {
+            var serialNumber = serialNumberOf(i);
+            var battery = i % 4 == 0 ? 10 : 100;
+            var weight = i % 10 == 0 ? DRONE_WEIGHT_LIMIT : MEDICATIONS_PER_DRONE * MEDICATION_WEIGHT;
+            var loaded = new ArrayList<Medication>(MEDICATIONS_PER_DRONE);
+            for (int m = 0; m < MEDICATIONS_PER_DRONE; m++) {
+                var medication = catalogue.get((i + m) % fleetSize);
+                loaded.add(medication);
+                loads.add(new Object[]{serialNumber, medication.getId(), medication.getWeight()});
+            }
+            fleet.add(new Drone(serialNumber, DroneType.Lightweight, weight, battery, DroneState.IDLE, loaded));
+            drones.add(new Object[]{serialNumber, DroneType.Lightweight.ordinal(), weight, battery, DroneState.IDLE.ordinal()});
+            if (drones.size() == 10_000) {
+                insertDrones(drones, loads);
+            }
+        }
+        insertDrones(drones, loads);
+        return fleet;
+    }
+
+    private void insertDrones(List<Object[]> drones, List<Object[]> loads) {
+        jdbcTemplate.batchUpdate("INSERT INTO drones (serial_number, model, weight, battery, state) VALUES (?, ?, ?, ?, ?)", drones);
+        jdbcTemplate.batchUpdate("INSERT INTO medications_drones (serial_number, medication_id, weight) VALUES (?, ?, ?)", loads);
+        drones.clear();
+        loads.clear();
+    }
+
+    private static boolean isLoadable(int index) {
+        return index % 4 != 0 && index % 10 != 0;
+    }
+
+    private static String serialNumberOf(int index) {
+        return "BENCH" + index;
+    }
+
+}
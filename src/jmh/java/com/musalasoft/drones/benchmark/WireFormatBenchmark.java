@@ -0,0 +1,171 @@
+package com.musalasoft.drones.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.config.WireFormatConfiguration;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.telemetry.TelemetryCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization CPU of the payloads the API sends most, in JSON and in the binary formats negotiated by
+ * {@link WireFormatConfiguration}, through the same mappers the endpoints use: drones with
+ * {@value #MEDICATIONS_PER_DRONE} medications (loads and medication listings), drone summaries (the listing
+ * endpoints, read back as maps since only clients read them) and telemetry batches. The encoded size of every
+ * payload, and of the telemetry batch in the {@link TelemetryCodec} format, is reported as a secondary result
+ * ({@link PayloadSizes}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int MEDICATIONS_PER_DRONE = 3;
+
+    public enum Format {JSON, CBOR, SMILE}
+
+    public enum Payload {DRONES, SUMMARIES, TELEMETRY}
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    @Param({"DRONES", "SUMMARIES", "TELEMETRY"})
+    private Payload payload;
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private Object value;
+    private Class<?> type;
+    private byte[] encoded;
+    private int codecSize;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = mapperOf(format);
+        var random = new SplittableRandom(42);
+        switch (payload) {
+            case DRONES -> {
+                value = drones(random);
+                type = Drone[].class;
+            }
+            case SUMMARIES -> {
+                value = summaries(random);
+                type = Map[].class;
+            }
+            case TELEMETRY -> {
+                value = telemetry(random);
+                type = TelemetryReading[].class;
+            }
+        }
+        encoded = mapper.writeValueAsBytes(value);
+        if (payload == Payload.TELEMETRY) {
+            @SuppressWarnings("unchecked")
+            var readings = (List<TelemetryReading>) value;
+            var codec = new ByteArrayOutputStream();
+            TelemetryCodec.encode(readings, codec);
+            codecSize = codec.size();
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSizes sizes) throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserialize(PayloadSizes sizes) throws IOException {
+        return mapper.readValue(encoded, type);
+    }
+
+    /**
+     * Encoded bytes of the payload in the benchmarked format and, for telemetry batches, in the
+     * {@link TelemetryCodec} format ({@code codecBytes} is 0 for the other payloads).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSizes extends IterationMeans {
+        public double encodedBytes;
+        public double codecBytes;
+
+        @TearDown(Level.Iteration)
+        public void record(WireFormatBenchmark benchmark) {
+            encodedBytes = share(benchmark.encoded.length);
+            codecBytes = share(benchmark.codecSize);
+        }
+    }
+
+    private static ObjectMapper mapperOf(Format format) {
+        var configuration = new WireFormatConfiguration();
+        return switch (format) {
+            case JSON -> Jackson2ObjectMapperBuilder.json().build();
+            case CBOR -> configuration.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            case SMILE -> configuration.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        };
+    }
+
+    private List<Drone> drones(SplittableRandom random) {
+        var drones = new ArrayList<Drone>(size);
+        for (int i = 0; i < size; i++) {
+            var medications = new ArrayList<Medication>(MEDICATIONS_PER_DRONE);
+            for (int m = 0; m < MEDICATIONS_PER_DRONE; m++) {
+                var id = random.nextInt(10_000);
+                medications.add(new Medication(id, "MEDICATION_" + id, 1 + random.nextInt(100), "CODE_" + id,
+                        UUID.nameUUIDFromBytes(("image" + id).getBytes()).toString()));
+            }
+            drones.add(new Drone("DRONE" + i, DroneType.values()[i % DroneType.values().length],
+                    random.nextInt(500), random.nextInt(101), DroneState.LOADED, medications));
+        }
+        return drones;
+    }
+
+    private List<DroneSummary> summaries(SplittableRandom random) {
+        var summaries = new ArrayList<DroneSummary>(size);
+        for (int i = 0; i < size; i++) {
+            summaries.add(new DroneSummary("DRONE" + i, DroneType.values()[i % DroneType.values().length],
+                    random.nextInt(500), 25 + random.nextInt(76), DroneState.IDLE));
+        }
+        return summaries;
+    }
+
+    private List<TelemetryReading> telemetry(SplittableRandom random) {
+        var readings = new ArrayList<TelemetryReading>(size);
+        for (int i = 0; i < size; i++) {
+            readings.add(new TelemetryReading("DRONE" + i, random.nextInt(101), -90 + 180 * random.nextDouble(),
+                    -180 + 360 * random.nextDouble(), System.currentTimeMillis()));
+        }
+        return readings;
+    }
+
+}
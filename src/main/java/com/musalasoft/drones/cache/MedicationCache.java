@@ -0,0 +1,121 @@
+package com.musalasoft.drones.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.repository.MedicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded read-through cache of the medication catalogue in front of {@link MedicationRepository}. Entries are
+ * weighed by their approximate footprint in bytes (the image bytes live in the image store, only their id is
+ * cached), evicted when {@code drones.medication-cache.max-weight} is reached and expire
+ * {@code drones.medication-cache.ttl} after being loaded, which also bounds how stale an entry can get when it is
+ * changed outside {@link com.musalasoft.drones.service.MedicationService}. A load checks and stores the weight it
+ * got from here, so a stale entry is loaded with that weight and its delivery releases that same weight.
+ * <p>
+ * Callers get copies, so changing a returned medication never changes the cached one. Unknown ids aren't cached.
+ * Its statistics are also published as the {@code cache.*} metrics of the {@code medications} cache.
+ */
+@Component
+public class MedicationCache implements MeterBinder {
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final MedicationRepository repository;
+    private final LoadingCache<Long, Medication> cache;
+
+    public MedicationCache(MedicationRepository medicationRepository,
+                           @Value("${drones.medication-cache.max-weight:16777216}") long maxWeight,
+                           @Value("${drones.medication-cache.ttl:10m}") Duration ttl) {
+        this.repository = medicationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, Medication medication) -> weightOf(medication))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Medication load(Long id) {
+                        return repository.findById(id).map(MedicationCache::copyOf).orElse(null);
+                    }
+
+                    @Override
+                    public Map<Long, Medication> loadAll(Set<? extends Long> ids) {
+                        var loaded = new HashMap<Long, Medication>();
+                        repository.findAllById(List.copyOf(ids)).forEach(medication -> loaded.put(medication.getId(), copyOf(medication)));
+                        return loaded;
+                    }
+                });
+    }
+
+    public Optional<Medication> get(long id) {
+        return Optional.ofNullable(cache.get(id)).map(MedicationCache::copyOf);
+    }
+
+    /**
+     * The known medications among the given ids, in the order of the ids and without duplicates. All the misses
+     * are loaded with a single query.
+     */
+    public List<Medication> getAllById(Collection<Long> ids) {
+        var uniqueIds = new LinkedHashSet<>(ids);
+        var found = cache.getAll(uniqueIds);
+        var medications = new ArrayList<Medication>(found.size());
+        for (Long id : uniqueIds) {
+            var medication = found.get(id);
+            if (medication != null) {
+                medications.add(copyOf(medication));
+            }
+        }
+        return medications;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "medications");
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static Medication copyOf(Medication medication) {
+        return new Medication(medication.getId(), medication.getName(), medication.getWeight(), medication.getCode(), medication.getImageId());
+    }
+
+    static int weightOf(Medication medication) {
+        return ENTRY_OVERHEAD + 2 * (length(medication.getName()) + length(medication.getCode()) + length(medication.getImageId()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+}
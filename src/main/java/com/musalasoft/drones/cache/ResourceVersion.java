@@ -0,0 +1,15 @@
+package com.musalasoft.drones.cache;
+
+import lombok.Value;
+
+/**
+ * Version of a resource or collection as sent to clients: a weak ETag, since the same version is served as JSON,
+ * CBOR or Smile. There is no {@code Last-Modified}, whole seconds can't tell apart two changes within a second.
+ */
+@Value
+public class ResourceVersion {
+
+    long version;
+    String eTag;
+
+}
@@ -0,0 +1,86 @@
+package com.musalasoft.drones.cache;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.musalasoft.drones.service.Transactions.afterCommit;
+
+/**
+ * In-memory versions of every drone and medication and of the fleet and the catalogue as a whole, so the read
+ * endpoints can answer a conditional GET with 304 Not Modified without touching the database or the serializer.
+ * Writers report their changes here the same way they evict the {@link MedicationCache}.
+ * <p>
+ * Every change takes the next value of a single counter. Resources that didn't change since startup share the
+ * baseline taken once the application is ready, after the sample data is seeded, and the ETags carry the startup
+ * time so the ones of a previous run never match. Inside a transaction the version only moves after commit: a
+ * reader that sees the new version also sees the new data, one that read the version just before the commit gets
+ * the new data under the old ETag and downloads it once more. Versions only know about the changes made through
+ * this process.
+ */
+@Component
+public class ResourceVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong counter = new AtomicLong();
+    private final Map<String, ResourceVersion> drones = new ConcurrentHashMap<>();
+    private final Map<Long, ResourceVersion> medications = new ConcurrentHashMap<>();
+    private volatile ResourceVersion baseline = next();
+    private volatile ResourceVersion fleet = baseline;
+    private volatile ResourceVersion catalogue = baseline;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        var ready = next();
+        baseline = ready;
+        fleet = ready;
+        catalogue = ready;
+    }
+
+    public ResourceVersion drone(String serialNumber) {
+        return newest(drones.get(serialNumber));
+    }
+
+    public ResourceVersion fleet() {
+        return fleet;
+    }
+
+    public ResourceVersion medication(long id) {
+        return newest(medications.get(id));
+    }
+
+    public ResourceVersion catalogue() {
+        return catalogue;
+    }
+
+    public void droneChanged(String serialNumber) {
+        afterCommit(() -> {
+            var version = next();
+            drones.put(serialNumber, version);
+            fleet = version;
+        });
+    }
+
+    public void medicationChanged(long id) {
+        afterCommit(() -> {
+            var version = next();
+            medications.put(id, version);
+            catalogue = version;
+        });
+    }
+
+    private ResourceVersion newest(ResourceVersion version) {
+        var current = baseline;
+        return version == null || version.getVersion() < current.getVersion() ? current : version;
+    }
+
+    private ResourceVersion next() {
+        var version = counter.incrementAndGet();
+        return new ResourceVersion(version, "W/\"" + epoch + "-" + Long.toString(version, Character.MAX_RADIX) + "\"");
+    }
+
+}
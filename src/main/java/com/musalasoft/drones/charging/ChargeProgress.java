@@ -0,0 +1,19 @@
+package com.musalasoft.drones.charging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Battery of a drone in a charging slot, {@code finished} once it reached the target and left the slot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargeProgress {
+
+    private String serialNumber;
+    private int battery;
+    private boolean finished;
+
+}
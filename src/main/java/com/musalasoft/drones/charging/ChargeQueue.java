@@ -0,0 +1,179 @@
+package com.musalasoft.drones.charging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Binary min-heap of the drones waiting to be charged, kept in parallel arrays with the heap position of every
+ * serial number, so a drone can be re-prioritized or removed in O(log n) when a new reading arrives instead of the
+ * O(n) removal of a {@link PriorityQueue}. Ties are broken by arrival, so drones with the same priority are charged
+ * in the order they started waiting.
+ */
+final class ChargeQueue {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> positions = new HashMap<>();
+    private String[] serialNumbers = new String[INITIAL_CAPACITY];
+    private int[] batteries = new int[INITIAL_CAPACITY];
+    private double[] priorities = new double[INITIAL_CAPACITY];
+    private long[] arrivals = new long[INITIAL_CAPACITY];
+    private int size;
+    private long nextArrival;
+
+    /**
+     * Adds the drone or, if it is already waiting, moves it to its new priority keeping its arrival.
+     */
+    void put(String serialNumber, int battery, double priority) {
+        var position = positions.get(serialNumber);
+        if (position == null) {
+            ensureCapacity(size + 1);
+            position = size++;
+            serialNumbers[position] = serialNumber;
+            arrivals[position] = nextArrival++;
+            positions.put(serialNumber, position);
+        }
+        batteries[position] = battery;
+        priorities[position] = priority;
+        if (!siftUp(position)) {
+            siftDown(position);
+        }
+    }
+
+    boolean remove(String serialNumber) {
+        var position = positions.remove(serialNumber);
+        if (position == null) {
+            return false;
+        }
+        var last = --size;
+        if (position != last) {
+            move(last, position);
+            if (!siftUp(position)) {
+                siftDown(position);
+            }
+        }
+        serialNumbers[last] = null;
+        return true;
+    }
+
+    boolean contains(String serialNumber) {
+        return positions.containsKey(serialNumber);
+    }
+
+    int battery(String serialNumber) {
+        return batteries[positions.get(serialNumber)];
+    }
+
+    /**
+     * The drone to charge first, or null when nobody is waiting.
+     */
+    String peek() {
+        return size == 0 ? null : serialNumbers[0];
+    }
+
+    String poll() {
+        var first = peek();
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The first {@code limit} drones in charging order without touching the heap, walking it with a small frontier
+     * queue in O(limit log limit).
+     */
+    List<String> peek(int limit) {
+        var next = new ArrayList<String>(Math.min(limit, size));
+        if (size == 0 || limit <= 0) {
+            return next;
+        }
+        var frontier = new PriorityQueue<Integer>(this::compare);
+        frontier.add(0);
+        while (!frontier.isEmpty() && next.size() < limit) {
+            int position = frontier.poll();
+            next.add(serialNumbers[position]);
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return next;
+    }
+
+    private boolean siftUp(int position) {
+        var start = position;
+        while (position > 0) {
+            var parent = (position - 1) / 2;
+            if (compare(position, parent) >= 0) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position != start;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            var smallest = position;
+            var left = 2 * position + 1;
+            var right = left + 1;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(right, smallest) < 0) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private int compare(int first, int second) {
+        var byPriority = Double.compare(priorities[first], priorities[second]);
+        return byPriority != 0 ? byPriority : Long.compare(arrivals[first], arrivals[second]);
+    }
+
+    private void swap(int first, int second) {
+        var serialNumber = serialNumbers[first];
+        var battery = batteries[first];
+        var priority = priorities[first];
+        var arrival = arrivals[first];
+        move(second, first);
+        serialNumbers[second] = serialNumber;
+        batteries[second] = battery;
+        priorities[second] = priority;
+        arrivals[second] = arrival;
+        positions.put(serialNumber, second);
+    }
+
+    private void move(int from, int to) {
+        serialNumbers[to] = serialNumbers[from];
+        batteries[to] = batteries[from];
+        priorities[to] = priorities[from];
+        arrivals[to] = arrivals[from];
+        positions.put(serialNumbers[to], to);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= serialNumbers.length) {
+            return;
+        }
+        var newCapacity = Math.max(capacity, serialNumbers.length * 2);
+        serialNumbers = Arrays.copyOf(serialNumbers, newCapacity);
+        batteries = Arrays.copyOf(batteries, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        arrivals = Arrays.copyOf(arrivals, newCapacity);
+    }
+
+}
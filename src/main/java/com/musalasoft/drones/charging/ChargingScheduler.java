@@ -0,0 +1,159 @@
+package com.musalasoft.drones.charging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which drones take the charging slots. Waiting drones are ordered by battery minus
+ * {@code demandWeight} points for every load attempted on them since their last charge, so a drone that keeps being
+ * asked for is charged before an idle one with a bit less battery. Every operation is O(log n) on the number of
+ * waiting drones, readings re-prioritize a drone in place.
+ * <p>
+ * Charging is simulated: {@link #advance} adds {@code ratePerSecond} battery points per elapsed second to every
+ * drone in a slot and frees the slot once the drone reaches {@code targetBattery}. The scheduler only holds the
+ * decisions, applying them to the drones is up to the caller, outside of its monitor.
+ */
+public class ChargingScheduler {
+
+    private final ChargeQueue queue = new ChargeQueue();
+    private final Map<String, Integer> demand = new HashMap<>();
+    private final Map<String, Integer> slotOf = new HashMap<>();
+    private final String[] slotSerialNumbers;
+    private final double[] slotBatteries;
+    private final int[] freeSlots;
+    private final double ratePerSecond;
+    private final int targetBattery;
+    private final double demandWeight;
+    private int free;
+
+    public ChargingScheduler(int slots, double ratePerSecond, int targetBattery, double demandWeight) {
+        if (slots <= 0 || ratePerSecond <= 0 || targetBattery <= 0 || targetBattery > 100) {
+            throw new IllegalArgumentException("Charging needs at least one slot, a positive rate and a target battery between 1 and 100%");
+        }
+        this.slotSerialNumbers = new String[slots];
+        this.slotBatteries = new double[slots];
+        this.freeSlots = new int[slots];
+        this.ratePerSecond = ratePerSecond;
+        this.targetBattery = targetBattery;
+        this.demandWeight = demandWeight;
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            freeSlots[free++] = slot;
+        }
+    }
+
+    /**
+     * Puts the drone in line, or moves it to its new place if it was already waiting. Drones being charged are left
+     * alone.
+     */
+    public synchronized void enqueue(String serialNumber, int battery) {
+        if (!slotOf.containsKey(serialNumber)) {
+            queue.put(serialNumber, battery, priority(serialNumber, battery));
+        }
+    }
+
+    /**
+     * A new reading of a waiting drone changes its place in line, other drones are ignored.
+     */
+    public synchronized void updateBattery(String serialNumber, int battery) {
+        if (queue.contains(serialNumber)) {
+            queue.put(serialNumber, battery, priority(serialNumber, battery));
+        }
+    }
+
+    public synchronized boolean remove(String serialNumber) {
+        return queue.remove(serialNumber);
+    }
+
+    public synchronized void recordDemand(String serialNumber) {
+        demand.merge(serialNumber, 1, Integer::sum);
+        if (queue.contains(serialNumber)) {
+            var battery = queue.battery(serialNumber);
+            queue.put(serialNumber, battery, priority(serialNumber, battery));
+        }
+    }
+
+    /**
+     * Takes a free slot for the first drone in line and returns it, or null when every slot is taken or nobody is
+     * waiting.
+     */
+    public synchronized String nextToCharge() {
+        if (free == 0 || queue.size() == 0) {
+            return null;
+        }
+        var serialNumber = queue.peek();
+        var battery = queue.battery(serialNumber);
+        queue.poll();
+        var slot = freeSlots[--free];
+        slotSerialNumbers[slot] = serialNumber;
+        slotBatteries[slot] = battery;
+        slotOf.put(serialNumber, slot);
+        return serialNumber;
+    }
+
+    /**
+     * Frees the slot of a drone that couldn't start charging, it isn't put back in line. Returns the battery it
+     * had, or -1 if it wasn't in a slot.
+     */
+    public synchronized int release(String serialNumber) {
+        var slot = slotOf.remove(serialNumber);
+        if (slot == null) {
+            return -1;
+        }
+        slotSerialNumbers[slot] = null;
+        freeSlots[free++] = slot;
+        return (int) slotBatteries[slot];
+    }
+
+    public synchronized boolean isCharging(String serialNumber) {
+        return slotOf.containsKey(serialNumber);
+    }
+
+    /**
+     * Charges every drone in a slot for the elapsed time. Drones that reached the target battery leave their slot
+     * and start over with no demand.
+     */
+    public synchronized List<ChargeProgress> advance(long elapsedNanos) {
+        var charged = ratePerSecond * elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+        var progress = new ArrayList<ChargeProgress>(slotOf.size());
+        for (int slot = 0; slot < slotSerialNumbers.length; slot++) {
+            var serialNumber = slotSerialNumbers[slot];
+            if (serialNumber == null) {
+                continue;
+            }
+            slotBatteries[slot] = Math.min(targetBattery, slotBatteries[slot] + charged);
+            var finished = slotBatteries[slot] >= targetBattery;
+            progress.add(new ChargeProgress(serialNumber, (int) slotBatteries[slot], finished));
+            if (finished) {
+                release(serialNumber);
+                demand.remove(serialNumber);
+            }
+        }
+        return progress;
+    }
+
+    public synchronized int waiting() {
+        return queue.size();
+    }
+
+    public synchronized int charging() {
+        return slotOf.size();
+    }
+
+    public synchronized ChargingStatus status(int nextInLine) {
+        var charging = new ArrayList<ChargeProgress>(slotOf.size());
+        for (int slot = 0; slot < slotSerialNumbers.length; slot++) {
+            if (slotSerialNumbers[slot] != null) {
+                charging.add(new ChargeProgress(slotSerialNumbers[slot], (int) slotBatteries[slot], false));
+            }
+        }
+        return new ChargingStatus(slotSerialNumbers.length, charging, queue.size(), queue.peek(nextInLine));
+    }
+
+    private double priority(String serialNumber, int battery) {
+        return battery - demandWeight * demand.getOrDefault(serialNumber, 0);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.musalasoft.drones.charging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargingStatus {
+
+    private int slots;
+    private List<ChargeProgress> charging;
+    private int waiting;
+    private List<String> nextInLine;
+
+}
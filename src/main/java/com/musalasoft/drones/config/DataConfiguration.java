@@ -9,6 +9,7 @@ import com.musalasoft.drones.repository.MedicationRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.util.List;
 
@@ -21,7 +22,11 @@ import static com.musalasoft.drones.model.Enum.DroneType.Middleweight;
 @Configuration
 public class DataConfiguration {
 
+    /**
+     * Sample fleet for the in-memory database, the prod profile keeps its data between restarts.
+     */
     @Bean
+    @Profile("!prod")
     public CommandLineRunner loadData(DroneRepository droneRepository, MedicationRepository medicationRepository) {
         return (args) -> {
             droneRepository.save(new Drone("EWO567", Lightweight, 80, 80, IDLE, List.of()));
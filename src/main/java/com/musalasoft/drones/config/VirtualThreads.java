@@ -0,0 +1,51 @@
+package com.musalasoft.drones.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads through reflection, the project still targets Java 17 and they are only available
+ * when running on Java 21 or later.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return factory("probe-").isPresent();
+    }
+
+    /**
+     * A factory of virtual threads named with the given prefix and a counter, empty when the runtime has none.
+     */
+    public static Optional<ThreadFactory> factory(String prefix) {
+        try {
+            var builderType = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * An executor starting a new virtual thread per task, empty when the runtime has no virtual threads.
+     */
+    public static Optional<ExecutorService> perTaskExecutor(String prefix) {
+        var factory = factory(prefix);
+        if (factory.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            var executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory.get());
+            return Optional.of((ExecutorService) executor);
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.musalasoft.drones.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Opt-in ({@code drones.virtual-threads.enabled=true}) execution of Tomcat requests, MVC async work (the
+ * medication stream) and the scheduled tasks on virtual threads. It falls back to the default platform thread
+ * pools, with a warning, when the runtime has no virtual threads.
+ * <p>
+ * Virtual threads remove the limit of Tomcat's worker pool but not the one of the connection pool: requests block
+ * on Hikari when all its connections are in use, so {@code spring.datasource.hikari.maximum-pool-size} keeps
+ * bounding the concurrency that reaches the database and {@code connection-timeout} how long a request queues.
+ */
+@Configuration
+@ConditionalOnProperty(name = "drones.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration implements WebMvcConfigurer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    public VirtualThreadsConfiguration() {
+        if (VirtualThreads.isSupported()) {
+            LOGGER.info("Requests and scheduled tasks run on virtual threads");
+        } else {
+            LOGGER.warn("Virtual threads were enabled but Java {} doesn't support them, using platform threads", Runtime.version().feature());
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> VirtualThreads.perTaskExecutor("http-vt-").ifPresent(protocolHandler::setExecutor);
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        VirtualThreads.factory("scheduling-vt-").ifPresent(scheduler::setThreadFactory);
+        return scheduler;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        VirtualThreads.perTaskExecutor("mvc-vt-")
+                .ifPresent(executor -> configurer.setTaskExecutor(new TaskExecutorAdapter(executor)));
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.musalasoft.drones.controller;
+
+import com.musalasoft.drones.charging.ChargingStatus;
+import com.musalasoft.drones.service.ChargingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/charging")
+public class ChargingController {
+
+    private final ChargingService service;
+
+    @Autowired
+    public ChargingController(ChargingService chargingService) {
+        this.service = chargingService;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<ChargingStatus> status() {
+        try {
+            return new ResponseEntity<>(service.status(), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.musalasoft.drones.controller;
+
+import com.musalasoft.drones.cache.ResourceVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GETs on a {@link ResourceVersion}: the ETag is only sent with 200 and 304 responses.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Whether the client already has this version, checked without writing any header to the response.
+     */
+    static boolean isNotModified(NativeWebRequest request, ResourceVersion version) {
+        return new ServletWebRequest(request.getNativeRequest(HttpServletRequest.class)).checkNotModified(version.getETag());
+    }
+
+    static <T> ResponseEntity<T> notModified(ResourceVersion version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.getETag()).build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body, ResourceVersion version) {
+        return ResponseEntity.ok().eTag(version.getETag()).body(body);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.musalasoft.drones.controller;
+
+import com.musalasoft.drones.dispatch.DispatchResult;
+import com.musalasoft.drones.dispatch.PackingStrategy;
+import com.musalasoft.drones.service.DispatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dispatch")
+public class DispatchController {
+
+    private final DispatchService service;
+
+    @Autowired
+    public DispatchController(DispatchService dispatchService) {
+        this.service = dispatchService;
+    }
+
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<DispatchResult> dispatch(@RequestBody List<Long> medicationIds,
+                                                   @RequestParam(defaultValue = "FIRST_FIT_DECREASING") PackingStrategy strategy) {
+        try {
+            return new ResponseEntity<>(service.dispatch(medicationIds, strategy), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+}
@@ -1,32 +1,59 @@
 package com.musalasoft.drones.controller;
 
+import com.musalasoft.drones.cache.ResourceVersions;
 import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.feed.ChangeFilter;
+import com.musalasoft.drones.feed.DroneChangeFeed;
+import com.musalasoft.drones.model.Delivery;
 import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneChangeType;
+import com.musalasoft.drones.model.Enum.DroneState;
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.ImportReport;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.service.DroneImportService;
 import com.musalasoft.drones.service.DroneService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/drones")
 public class DroneController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final DroneService service;
+    private final DroneImportService importService;
+    private final ResourceVersions versions;
+    private final DroneChangeFeed changeFeed;
 
     @Autowired
-    public DroneController(DroneService droneService) {
+    public DroneController(DroneService droneService, DroneImportService droneImportService, ResourceVersions resourceVersions,
+                           DroneChangeFeed droneChangeFeed) {
         this.service = droneService;
+        this.importService = droneImportService;
+        this.versions = resourceVersions;
+        this.changeFeed = droneChangeFeed;
     }
 
     @PostMapping
@@ -34,6 +61,8 @@ public class DroneController {
     public ResponseEntity<Drone> registerDrone(@RequestBody Drone drone) {
         try {
             return new ResponseEntity<>(service.registerDrone(drone), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -46,6 +75,114 @@ public class DroneController {
             return new ResponseEntity<>(service.loadDrone(serialNumber, medicationIds), HttpStatus.OK);
         } catch (NotFoundException e) {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @ResponseBody
+    public ResponseEntity<ImportReport> importCsv(InputStream body) {
+        try {
+            return new ResponseEntity<>(importService.importCsv(body), HttpStatus.OK);
+        } catch (IOException | IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<ImportReport> importNdjson(InputStream body) {
+        try {
+            return new ResponseEntity<>(importService.importNdjson(body), HttpStatus.OK);
+        } catch (IOException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/load")
+    @ResponseBody
+    public ResponseEntity<List<LoadResult>> loadDrones(@RequestBody List<LoadRequest> requests) {
+        try {
+            return new ResponseEntity<>(service.loadDrones(requests), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/deliver/{serialNumber}/{medicationId}")
+    @ResponseBody
+    public ResponseEntity<DroneSummary> deliverMedication(@PathVariable String serialNumber, @PathVariable long medicationId) {
+        try {
+            return new ResponseEntity<>(service.deliverMedication(serialNumber, medicationId), HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/deliver/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<DroneSummary> deliverAll(@PathVariable String serialNumber) {
+        try {
+            return new ResponseEntity<>(service.deliverAll(serialNumber), HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/return/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<DroneSummary> returnDrone(@PathVariable String serialNumber) {
+        try {
+            return new ResponseEntity<>(service.returnDrone(serialNumber), HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/arrive/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<DroneSummary> arriveDrone(@PathVariable String serialNumber) {
+        try {
+            return new ResponseEntity<>(service.arriveDrone(serialNumber), HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/deliveries/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<List<Delivery>> deliveries(@PathVariable String serialNumber) {
+        try {
+            var deliveries = service.deliveries(serialNumber);
+            if (deliveries.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(deliveries, HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -67,30 +204,91 @@ public class DroneController {
         }
     }
 
+    /**
+     * Conditional on the version of the whole fleet.
+     */
     @GetMapping("/available")
     @ResponseBody
-    public ResponseEntity<List<Drone>> availableDronesToBeLoaded() {
+    public ResponseEntity<List<DroneSummary>> availableDronesToBeLoaded(NativeWebRequest request) {
+        var version = versions.fleet();
+        if (ConditionalResponses.isNotModified(request, version)) {
+            return ConditionalResponses.notModified(version);
+        }
         try {
             var drones = service.availableDronesToBeLoaded();
             if (drones.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
+            return ConditionalResponses.ok(drones, version);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/candidates")
+    @ResponseBody
+    public ResponseEntity<List<DroneSummary>> loadCandidates(@RequestParam(defaultValue = "0") int minBattery,
+                                                      @RequestParam(defaultValue = "1") int minCapacity,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        try {
+            var drones = service.loadCandidates(minBattery, minCapacity, limit);
+            if (drones.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
             return new ResponseEntity<>(drones, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Conditional on the version of the drone.
+     */
     @GetMapping("/batteryCheck/{serialNumber}")
     @ResponseBody
-    public ResponseEntity<Integer> droneBatteryLevel(@PathVariable String serialNumber) {
+    public ResponseEntity<Integer> droneBatteryLevel(@PathVariable String serialNumber, NativeWebRequest request) {
+        var version = versions.drone(serialNumber);
+        if (ConditionalResponses.isNotModified(request, version)) {
+            return ConditionalResponses.notModified(version);
+        }
         try {
-            var drones = service.droneBatteryLevel(serialNumber);
-            return new ResponseEntity<>(drones, HttpStatus.OK);
+            return ConditionalResponses.ok(service.droneBatteryLevel(serialNumber), version);
         } catch (NotFoundException e) {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    @PutMapping("/battery/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<Void> updateBattery(@PathVariable String serialNumber, @RequestParam int level) {
+        try {
+            service.updateBattery(serialNumber, level);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Server-sent events of the committed drone changes, 503 past {@code drones.feed.max-subscribers} subscribers.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> changes(@RequestParam(required = false) Set<String> serialNumber,
+                                              @RequestParam(required = false) Set<DroneChangeType> type,
+                                              @RequestParam(required = false) Set<DroneState> state,
+                                              @RequestParam(required = false) Integer maxBattery) {
+        try {
+            return new ResponseEntity<>(changeFeed.subscribe(new ChangeFilter(serialNumber, type, state, maxBattery)), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
 }
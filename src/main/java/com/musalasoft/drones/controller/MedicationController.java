@@ -1,10 +1,18 @@
 package com.musalasoft.drones.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.cache.ResourceVersions;
 import com.musalasoft.drones.exception.NotFoundException;
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.CacheStatistics;
+import com.musalasoft.drones.model.dto.CursorPage;
+import com.musalasoft.drones.model.dto.MedicationSummary;
 import com.musalasoft.drones.service.MedicationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +21,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -23,31 +37,120 @@ import java.util.List;
 public class MedicationController {
 
     private final MedicationService service;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions versions;
 
     @Autowired
-    public MedicationController(MedicationService medicationService) {
+    public MedicationController(MedicationService medicationService, ObjectMapper objectMapper, ResourceVersions resourceVersions) {
         this.service = medicationService;
+        this.objectMapper = objectMapper;
+        this.versions = resourceVersions;
     }
 
+    /**
+     * Conditional on the version of the whole catalogue.
+     */
     @GetMapping
     @ResponseBody
-    public ResponseEntity<List<Medication>> getAllMedications() {
+    public ResponseEntity<List<MedicationSummary>> getAllMedications(NativeWebRequest request) {
+        var version = versions.catalogue();
+        if (ConditionalResponses.isNotModified(request, version)) {
+            return ConditionalResponses.notModified(version);
+        }
         try {
-            var medications = service.getAll();
+            var medications = service.getAllSummaries();
             if (medications.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(medications, HttpStatus.OK);
+            return ConditionalResponses.ok(medications, version);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/page")
+    @ResponseBody
+    public ResponseEntity<CursorPage<MedicationSummary>> getMedicationsPage(@RequestParam(defaultValue = "0") long after,
+                                                                            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return new ResponseEntity<>(service.getPage(after, limit), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/cache")
+    @ResponseBody
+    public ResponseEntity<CacheStatistics> getCacheStatistics() {
+        try {
+            return new ResponseEntity<>(service.cacheStatistics(), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMedications() {
+        StreamingResponseBody body = out -> service.streamAll(medication -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(medication));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Conditional on the version of the medication.
+     */
     @GetMapping("/{id}")
     @ResponseBody
-    public ResponseEntity<Medication> getMedicationById(@PathVariable("id") long id) {
+    public ResponseEntity<Medication> getMedicationById(@PathVariable("id") long id, NativeWebRequest request) {
+        var version = versions.medication(id);
+        if (ConditionalResponses.isNotModified(request, version)) {
+            return ConditionalResponses.notModified(version);
+        }
+        try {
+            return ConditionalResponses.ok(service.getOneById(id), version);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The content id of the image is its ETag, Range requests get partial content.
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getMedicationImage(@PathVariable("id") long id, WebRequest request) {
+        try {
+            var imageId = service.getOneById(id).getImageId();
+            if (imageId == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (request.checkNotModified('"' + imageId + '"')) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(imageId)
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(service.getImage(imageId));
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping(value = "/{id}/image", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "image/*"})
+    @ResponseBody
+    public ResponseEntity<Medication> updateMedicationImage(@PathVariable("id") long id, @RequestBody byte[] image) {
         try {
-            return new ResponseEntity<>(service.getOneById(id), HttpStatus.OK);
+            return new ResponseEntity<>(service.updateImage(id, image), HttpStatus.OK);
         } catch (NotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
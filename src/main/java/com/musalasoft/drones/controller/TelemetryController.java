@@ -0,0 +1,72 @@
+package com.musalasoft.drones.controller;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.dto.TelemetryAck;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.service.TelemetryService;
+import com.musalasoft.drones.telemetry.TelemetryCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static com.musalasoft.drones.config.WireFormatConfiguration.APPLICATION_CBOR_VALUE;
+import static com.musalasoft.drones.config.WireFormatConfiguration.APPLICATION_SMILE_VALUE;
+
+@RestController
+@RequestMapping("/api/telemetry")
+public class TelemetryController {
+
+    private final TelemetryService service;
+
+    @Autowired
+    public TelemetryController(TelemetryService telemetryService) {
+        this.service = telemetryService;
+    }
+
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @ResponseBody
+    public ResponseEntity<TelemetryAck> ingest(@RequestBody List<TelemetryReading> readings) {
+        try {
+            return new ResponseEntity<>(service.ingest(readings), HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping(consumes = TelemetryCodec.MEDIA_TYPE)
+    @ResponseBody
+    public ResponseEntity<TelemetryAck> ingestBinary(InputStream body) {
+        try {
+            return new ResponseEntity<>(service.ingest(TelemetryCodec.decode(body)), HttpStatus.ACCEPTED);
+        } catch (IOException | IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{serialNumber}")
+    @ResponseBody
+    public ResponseEntity<TelemetryReading> latestReading(@PathVariable String serialNumber) {
+        try {
+            return new ResponseEntity<>(service.latestReading(serialNumber), HttpStatus.OK);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+}
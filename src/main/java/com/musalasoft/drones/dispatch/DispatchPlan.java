@@ -0,0 +1,28 @@
+package com.musalasoft.drones.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchPlan {
+
+    private PackingStrategy strategy;
+    private Map<String, List<Long>> assignments;
+    private List<Long> unassignedMedicationIds;
+    private long assignedWeight;
+    private long usedCapacity;
+
+    /**
+     * Share of the free capacity of the drones that received orders that is now taken by medications.
+     */
+    public double getCapacityUtilization() {
+        return usedCapacity == 0 ? 0 : (double) assignedWeight / usedCapacity;
+    }
+
+}
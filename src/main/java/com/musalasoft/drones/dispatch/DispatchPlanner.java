@@ -0,0 +1,186 @@
+package com.musalasoft.drones.dispatch;
+
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+/**
+ * Assigns medication orders to drones with a bin-packing heuristic. Orders are packed heaviest first and, when
+ * several drones could take an order, the one with more battery is preferred. Both heuristics run in
+ * O((drones + orders) log drones), so the planner stays in the millisecond range for thousands of each.
+ */
+@Component
+public class DispatchPlanner {
+
+    private static final int INDEX_BITS = 32;
+    private static final int BATTERY_BITS = 8;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    public DispatchPlan plan(List<DroneSummary> drones, List<Medication> orders, PackingStrategy strategy) {
+        var candidates = byBatteryDescending(drones);
+        var remaining = new int[candidates.size()];
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = DRONE_WEIGHT_LIMIT - candidates.get(i).getWeight();
+        }
+        var initialRemaining = remaining.clone();
+        var bins = strategy == PackingStrategy.BEST_FIT_DECREASING
+                ? new BestFit(candidates, remaining)
+                : new FirstFit(remaining);
+
+        var assigned = new int[orders.size()];
+        var unassigned = new ArrayList<Long>();
+        long assignedWeight = 0;
+        for (long packed : byWeightDescending(orders)) {
+            var order = (int) (packed & INDEX_MASK);
+            var medication = orders.get(order);
+            var drone = bins.take(medication.getWeight());
+            if (drone < 0) {
+                unassigned.add(medication.getId());
+                assigned[order] = -1;
+            } else {
+                assignedWeight += medication.getWeight();
+                assigned[order] = drone;
+            }
+        }
+
+        var assignments = new LinkedHashMap<String, List<Long>>();
+        for (int order = 0; order < assigned.length; order++) {
+            if (assigned[order] >= 0) {
+                assignments.computeIfAbsent(candidates.get(assigned[order]).getSerialNumber(), key -> new ArrayList<>())
+                        .add(orders.get(order).getId());
+            }
+        }
+        long usedCapacity = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] != initialRemaining[i]) {
+                usedCapacity += initialRemaining[i];
+            }
+        }
+        return new DispatchPlan(strategy, assignments, unassigned, assignedWeight, usedCapacity);
+    }
+
+    private static List<DroneSummary> byBatteryDescending(List<DroneSummary> drones) {
+        var sorted = new ArrayList<>(drones);
+        sorted.sort((d1, d2) -> Integer.compare(d2.getBattery(), d1.getBattery()));
+        return sorted;
+    }
+
+    private static long[] byWeightDescending(List<Medication> orders) {
+        var packed = new long[orders.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = ((long) orders.get(i).getWeight() << INDEX_BITS) | i;
+        }
+        Arrays.sort(packed);
+        for (int i = 0, j = packed.length - 1; i < j; i++, j--) {
+            var tmp = packed[i];
+            packed[i] = packed[j];
+            packed[j] = tmp;
+        }
+        return packed;
+    }
+
+    private interface Bins {
+
+        /**
+         * Reserves the weight in one of the drones and returns its index, or -1 when no drone can carry it.
+         */
+        int take(int weight);
+
+    }
+
+    /**
+     * First fit over a max segment tree, so the leftmost drone with enough room is found in O(log n).
+     */
+    private static final class FirstFit implements Bins {
+
+        private final int[] remaining;
+        private final int[] tree;
+        private final int leaves;
+
+        private FirstFit(int[] remaining) {
+            this.remaining = remaining;
+            this.leaves = Integer.highestOneBit(Math.max(1, remaining.length - 1)) << 1;
+            this.tree = new int[leaves * 2];
+            Arrays.fill(tree, Integer.MIN_VALUE);
+            for (int i = 0; i < remaining.length; i++) {
+                tree[leaves + i] = remaining[i];
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        @Override
+        public int take(int weight) {
+            if (tree[1] < weight) {
+                return -1;
+            }
+            var node = 1;
+            while (node < leaves) {
+                node = tree[2 * node] >= weight ? 2 * node : 2 * node + 1;
+            }
+            var drone = node - leaves;
+            remaining[drone] -= weight;
+            tree[node] = remaining[drone];
+            for (node >>= 1; node > 0; node >>= 1) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+            return drone;
+        }
+
+    }
+
+    /**
+     * Best fit over an ordered set of packed (remaining capacity, battery, index) keys, so the drone that is left
+     * with the least free room, and the most battery among those, is found in O(log n).
+     */
+    private static final class BestFit implements Bins {
+
+        private static final int SHIFT = INDEX_BITS + BATTERY_BITS;
+        private static final long BATTERY_MASK = (1L << BATTERY_BITS) - 1;
+
+        private final List<DroneSummary> drones;
+        private final int[] remaining;
+        private final TreeSet<Long> free = new TreeSet<>();
+
+        private BestFit(List<DroneSummary> drones, int[] remaining) {
+            this.drones = drones;
+            this.remaining = remaining;
+            for (int i = 0; i < remaining.length; i++) {
+                if (remaining[i] > 0) {
+                    free.add(key(i));
+                }
+            }
+        }
+
+        @Override
+        public int take(int weight) {
+            var key = free.ceiling((long) weight << SHIFT);
+            if (key == null) {
+                return -1;
+            }
+            free.remove(key);
+            var drone = (int) (key & INDEX_MASK);
+            remaining[drone] -= weight;
+            if (remaining[drone] > 0) {
+                free.add(key(drone));
+            }
+            return drone;
+        }
+
+        private long key(int drone) {
+            var batteryRank = (100 - drones.get(drone).getBattery()) & BATTERY_MASK;
+            return ((long) remaining[drone] << SHIFT) | (batteryRank << INDEX_BITS) | drone;
+        }
+
+    }
+
+}
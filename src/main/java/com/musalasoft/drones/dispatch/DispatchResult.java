@@ -0,0 +1,19 @@
+package com.musalasoft.drones.dispatch;
+
+import com.musalasoft.drones.model.dto.LoadResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchResult {
+
+    private DispatchPlan plan;
+    private List<LoadResult> loads;
+    private List<Long> unknownMedicationIds;
+
+}
@@ -0,0 +1,8 @@
+package com.musalasoft.drones.dispatch;
+
+public enum PackingStrategy {
+
+    FIRST_FIT_DECREASING,
+    BEST_FIT_DECREASING
+
+}
@@ -0,0 +1,15 @@
+package com.musalasoft.drones.event;
+
+import lombok.Value;
+
+/**
+ * Published every time a battery reading is applied to a drone.
+ */
+@Value
+public class BatteryChangedEvent {
+
+    String serialNumber;
+    int previousBattery;
+    int battery;
+
+}
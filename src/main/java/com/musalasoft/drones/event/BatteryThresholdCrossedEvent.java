@@ -0,0 +1,15 @@
+package com.musalasoft.drones.event;
+
+import lombok.Value;
+
+/**
+ * Published once when a drone goes down to the battery limit ({@code low} is true) and once when it gets back above.
+ */
+@Value
+public class BatteryThresholdCrossedEvent {
+
+    String serialNumber;
+    int battery;
+    boolean low;
+
+}
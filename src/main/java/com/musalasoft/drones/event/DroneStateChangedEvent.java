@@ -0,0 +1,17 @@
+package com.musalasoft.drones.event;
+
+import com.musalasoft.drones.model.Enum.DroneState;
+import lombok.Value;
+
+/**
+ * Published on every transition of the drone state machine, including the intermediate ones (LOADING) that are
+ * never written to the database. The previous state is null for newly registered drones.
+ */
+@Value
+public class DroneStateChangedEvent {
+
+    String serialNumber;
+    DroneState previousState;
+    DroneState state;
+
+}
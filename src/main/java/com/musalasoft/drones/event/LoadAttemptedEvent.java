@@ -0,0 +1,19 @@
+package com.musalasoft.drones.event;
+
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import lombok.Value;
+
+/**
+ * Published once per load of a drone, single or bulk, after the battery and weight rules were applied. Refused
+ * loads ({@code NEEDS_TO_BE_CHARGED}) and unknown drones of a bulk load ({@code NOT_FOUND}) carry no loaded nor
+ * rejected medications.
+ */
+@Value
+public class LoadAttemptedEvent {
+
+    String serialNumber;
+    LoadStatus status;
+    int loaded;
+    int rejected;
+
+}
@@ -0,0 +1,46 @@
+package com.musalasoft.drones.feed;
+
+import com.musalasoft.drones.model.Enum.DroneChangeType;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.dto.DroneChange;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * What a subscriber of the {@link DroneChangeFeed} wants to receive. Empty or null criteria match everything, and
+ * the state and battery criteria only narrow their own type of change: {@code states} keeps the transitions into
+ * one of them and {@code maxBattery} the battery updates at or below it, loads pass both.
+ */
+@Value
+public class ChangeFilter {
+
+    public static final ChangeFilter ALL = new ChangeFilter(null, null, null, null);
+
+    Set<String> serialNumbers;
+    Set<DroneChangeType> types;
+    Set<DroneState> states;
+    Integer maxBattery;
+
+    public boolean hasSerialNumbers() {
+        return serialNumbers != null && !serialNumbers.isEmpty();
+    }
+
+    public boolean accepts(DroneChange change) {
+        if (hasSerialNumbers() && !serialNumbers.contains(change.getSerialNumber())) {
+            return false;
+        }
+        if (types != null && !types.isEmpty() && !types.contains(change.getType())) {
+            return false;
+        }
+        switch (change.getType()) {
+            case STATE:
+                return states == null || states.isEmpty() || states.contains(change.getState());
+            case BATTERY:
+                return maxBattery == null || change.getBattery() <= maxBattery;
+            default:
+                return true;
+        }
+    }
+
+}
@@ -0,0 +1,344 @@
+package com.musalasoft.drones.feed;
+
+import com.musalasoft.drones.config.VirtualThreads;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.model.dto.DroneChange;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Fans the state transitions, battery updates and load results of the drones out to server-sent event subscribers.
+ * <p>
+ * The events are turned into {@link DroneChange}s once their transaction committed and put in a queue of
+ * {@code drones.feed.queue-size} changes, so the writers never wait for the subscribers; changes are dropped (and
+ * counted) if the queue is full. A single dispatcher thread hands every change to the subscribers of its drone and
+ * to the subscribers of the whole fleet, each with its own bounded buffer (see {@link FeedSubscription}), and the
+ * buffers are written by the writers executor: virtual threads when {@code drones.virtual-threads.enabled} and the
+ * runtime has them, {@code drones.feed.writer-threads} platform threads otherwise. Nothing is queued while nobody
+ * is subscribed.
+ * <p>
+ * A send blocks while the client doesn't read. Every {@code drones.feed.sweep-interval} milliseconds the subscribers
+ * stuck in a send for {@code drones.feed.send-timeout} are dropped, and the platform writers grow by one thread per
+ * writer still stuck (up to {@code drones.feed.max-writer-threads}), so slow clients can't hold every writer.
+ */
+@Component
+public class DroneChangeFeed implements MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DroneChangeFeed.class);
+    private static final int DISPATCH_BATCH = 1024;
+
+    private final BlockingQueue<DroneChange> queue;
+    private final ExecutorService writers;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int writerThreads;
+    private final int maxWriterThreads;
+    private final LongSupplier clock;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder queueDropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final Set<FeedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final List<FeedSubscription> fleetSubscriptions = new CopyOnWriteArrayList<>();
+    private final Map<String, List<FeedSubscription>> droneSubscriptions = new ConcurrentHashMap<>();
+    private final Set<FeedSubscription> abandoned = ConcurrentHashMap.newKeySet();
+    private Thread dispatcher;
+
+    @Autowired
+    public DroneChangeFeed(@Value("${drones.feed.queue-size:65536}") int queueSize,
+                           @Value("${drones.feed.buffer-size:256}") int bufferSize,
+                           @Value("${drones.feed.max-subscribers:8000}") int maxSubscribers,
+                           @Value("${drones.feed.timeout:30m}") Duration timeout,
+                           @Value("${drones.feed.send-timeout:10s}") Duration sendTimeout,
+                           @Value("${drones.feed.writer-threads:8}") int writerThreads,
+                           @Value("${drones.feed.max-writer-threads:64}") int maxWriterThreads,
+                           @Value("${drones.virtual-threads.enabled:false}") boolean virtualThreads) {
+        this(writersOf(virtualThreads, writerThreads), queueSize, bufferSize, maxSubscribers, timeout.toMillis(),
+                sendTimeout.toMillis(), maxWriterThreads, System::currentTimeMillis);
+    }
+
+    DroneChangeFeed(ExecutorService writers, int queueSize, int bufferSize, int maxSubscribers, long timeoutMillis,
+                    long sendTimeoutMillis, int maxWriterThreads, LongSupplier clock) {
+        if (queueSize <= 0 || bufferSize <= 0 || maxSubscribers <= 0 || sendTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("The change feed needs a positive queue size, buffer size, number of subscribers and send timeout");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writers = writers;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.writerThreads = writers instanceof ThreadPoolExecutor pool ? pool.getCorePoolSize() : 0;
+        this.maxWriterThreads = Math.max(writerThreads, maxWriterThreads);
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatchLoop, "feed-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        subscriptions.forEach(FeedSubscription::close);
+        writers.shutdown();
+    }
+
+    /**
+     * Subscribes to the changes accepted by the filter until the client goes away or {@code drones.feed.timeout}
+     * elapses, after which an EventSource reconnects on its own.
+     *
+     * @throws IllegalStateException when {@code drones.feed.max-subscribers} are already subscribed
+     */
+    public SseEmitter subscribe(ChangeFilter filter) {
+        return subscribe(filter, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(ChangeFilter filter, SseEmitter emitter) {
+        if (!reserve()) {
+            throw new IllegalStateException("The change feed already has " + maxSubscribers + " subscribers");
+        }
+        var subscription = new FeedSubscription(emitter, filter, bufferSize, writers, coalesced, dropped, this::unsubscribe, clock);
+        subscriptions.add(subscription);
+        if (filter.hasSerialNumbers()) {
+            filter.getSerialNumbers().forEach(serialNumber -> droneSubscriptions.compute(serialNumber, (key, subscribers) -> {
+                var updated = subscribers != null ? subscribers : new CopyOnWriteArrayList<FeedSubscription>();
+                updated.add(subscription);
+                return updated;
+            }));
+        } else {
+            fleetSubscriptions.add(subscription);
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        // Sends the headers right away, so the client knows it is subscribed before the first change
+        subscription.heartbeat();
+        return emitter;
+    }
+
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStateChanged(DroneStateChangedEvent event) {
+        if (!subscriptions.isEmpty()) {
+            publish(DroneChange.state(sequence.incrementAndGet(), event.getSerialNumber(), event.getPreviousState(),
+                    event.getState(), clock.getAsLong()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteryChanged(BatteryChangedEvent event) {
+        if (!subscriptions.isEmpty()) {
+            publish(DroneChange.battery(sequence.incrementAndGet(), event.getSerialNumber(), event.getPreviousBattery(),
+                    event.getBattery(), clock.getAsLong()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadAttempted(LoadAttemptedEvent event) {
+        if (!subscriptions.isEmpty()) {
+            publish(DroneChange.load(sequence.incrementAndGet(), event.getSerialNumber(), event.getStatus(),
+                    event.getLoaded(), event.getRejected(), clock.getAsLong()));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${drones.feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        subscriptions.forEach(FeedSubscription::heartbeat);
+    }
+
+    /**
+     * Drops the subscribers stuck in a send for {@code drones.feed.send-timeout} and sizes the platform writers for
+     * the ones still blocked, so the other subscribers keep {@code drones.feed.writer-threads} writers.
+     */
+    @Scheduled(fixedRateString = "${drones.feed.sweep-interval:1000}")
+    public void sweep() {
+        var now = clock.getAsLong();
+        for (FeedSubscription subscription : subscriptions) {
+            if (subscription.isStuck(now, sendTimeoutMillis)) {
+                LOGGER.warn("A change feed subscriber was stuck in a send for {}ms or more, it is dropped", sendTimeoutMillis);
+                abandoned.add(subscription);
+                subscription.abandon();
+                timedOut.increment();
+            }
+        }
+        abandoned.removeIf(subscription -> !subscription.isWriting());
+        if (writers instanceof ThreadPoolExecutor pool) {
+            resize(pool, Math.min(maxWriterThreads, writerThreads + abandoned.size()));
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("drones.feed.subscribers", subscriptions, Set::size)
+                .description("Subscribers of the drone change stream")
+                .register(registry);
+        Gauge.builder("drones.feed.queued", queue, BlockingQueue::size)
+                .description("Changes waiting to be dispatched to the subscribers")
+                .register(registry);
+        FunctionCounter.builder("drones.feed.dropped", queueDropped, LongAdder::sum)
+                .description("Changes dropped before reaching the subscribers or from the buffer of a slow one")
+                .tag("stage", "queue")
+                .register(registry);
+        FunctionCounter.builder("drones.feed.dropped", dropped, LongAdder::sum)
+                .description("Changes dropped before reaching the subscribers or from the buffer of a slow one")
+                .tag("stage", "subscriber")
+                .register(registry);
+        FunctionCounter.builder("drones.feed.timed-out", timedOut, LongAdder::sum)
+                .description("Subscribers dropped because a send to them was blocked for too long")
+                .register(registry);
+        FunctionCounter.builder("drones.feed.coalesced", coalesced, LongAdder::sum)
+                .description("Buffered changes replaced by a newer change of the same drone for a slow subscriber")
+                .register(registry);
+    }
+
+    /**
+     * Hands the queued changes to their subscribers and returns how many there were. Called by the dispatcher
+     * thread only.
+     */
+    int dispatchPending() {
+        var changes = new ArrayList<DroneChange>(DISPATCH_BATCH);
+        var dispatched = 0;
+        while (queue.drainTo(changes, DISPATCH_BATCH) > 0) {
+            changes.forEach(this::dispatch);
+            dispatched += changes.size();
+            changes.clear();
+        }
+        return dispatched;
+    }
+
+    private void publish(DroneChange change) {
+        if (!queue.offer(change)) {
+            queueDropped.increment();
+        }
+    }
+
+    private void dispatch(DroneChange change) {
+        for (FeedSubscription subscription : fleetSubscriptions) {
+            subscription.offer(change);
+        }
+        var subscribers = droneSubscriptions.get(change.getSerialNumber());
+        if (subscribers != null) {
+            for (FeedSubscription subscription : subscribers) {
+                subscription.offer(change);
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                dispatch(queue.take());
+                dispatchPending();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.error("The change feed failed to dispatch a change", e);
+            }
+        }
+    }
+
+    /**
+     * Takes one of the {@code drones.feed.max-subscribers} places, given back when the subscription is removed.
+     */
+    private boolean reserve() {
+        while (true) {
+            var taken = reserved.get();
+            if (taken >= maxSubscribers) {
+                return false;
+            }
+            if (reserved.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void unsubscribe(FeedSubscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        reserved.decrementAndGet();
+        var filter = subscription.getFilter();
+        if (filter.hasSerialNumbers()) {
+            filter.getSerialNumbers().forEach(serialNumber -> droneSubscriptions.computeIfPresent(serialNumber, (key, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            }));
+        } else {
+            fleetSubscriptions.remove(subscription);
+        }
+    }
+
+    private static void resize(ThreadPoolExecutor pool, int threads) {
+        if (threads == pool.getCorePoolSize()) {
+            return;
+        }
+        if (threads > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        } else {
+            pool.setCorePoolSize(threads);
+            pool.setMaximumPoolSize(threads);
+        }
+        LOGGER.info("The change feed writes with {} platform threads", threads);
+    }
+
+    private static ExecutorService writersOf(boolean virtualThreads, int writerThreads) {
+        if (virtualThreads) {
+            var executor = VirtualThreads.perTaskExecutor("feed-vt-");
+            if (executor.isPresent()) {
+                return executor.get();
+            }
+            LOGGER.warn("Virtual threads are not available in this runtime, the change feed writes with platform threads");
+        }
+        var threadFactory = new CustomizableThreadFactory("feed-writer-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(writerThreads, writerThreads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.musalasoft.drones.feed;
+
+import com.musalasoft.drones.model.Enum.DroneChangeType;
+import com.musalasoft.drones.model.dto.DroneChange;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * One subscriber of the {@link DroneChangeFeed}: its filter, its connection and a buffer of at most
+ * {@code capacity} changes not written yet. Offering never blocks the dispatcher, the buffer is drained by one task
+ * at a time on the writers executor.
+ * <p>
+ * A subscriber that keeps up receives every change. One that falls behind until its buffer is full gets the pending
+ * state or battery change of the same drone replaced by the newer one (only the latest state or battery matters to
+ * it), or loses the oldest pending change when there is none. Load attempts are separate facts, a newer one never
+ * replaces a pending one, so they only make room by dropping the oldest change. What was lost is reported in a {@code dropped} event before
+ * the next changes, so the client knows it should re-read the fleet.
+ * <p>
+ * Each drain writes one batch and hands the writer back, so a busy subscriber takes turns with the others. A send
+ * can block on a client that doesn't read, {@link #isStuck} tells for how long so the feed can give up on it.
+ */
+final class FeedSubscription {
+    private static final long NOT_WRITING = -1;
+
+    private final SseEmitter emitter;
+    private final ChangeFilter filter;
+    private final int capacity;
+    private final Executor writers;
+    private final LongAdder coalesced;
+    private final LongAdder dropped;
+    private final Consumer<FeedSubscription> onClose;
+    private final LongSupplier clock;
+    private final ArrayDeque<DroneChange> pending = new ArrayDeque<>();
+    private long lost;
+    private boolean heartbeatDue;
+    private boolean draining;
+    private volatile boolean closed;
+    private volatile long writingSince = NOT_WRITING;
+
+    FeedSubscription(SseEmitter emitter, ChangeFilter filter, int capacity, Executor writers,
+                     LongAdder coalesced, LongAdder dropped, Consumer<FeedSubscription> onClose, LongSupplier clock) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.capacity = capacity;
+        this.writers = writers;
+        this.coalesced = coalesced;
+        this.dropped = dropped;
+        this.onClose = onClose;
+        this.clock = clock;
+    }
+
+    ChangeFilter getFilter() {
+        return filter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean isWriting() {
+        return writingSince != NOT_WRITING;
+    }
+
+    /**
+     * True when a send has been blocked for {@code timeoutMillis} or more.
+     */
+    boolean isStuck(long now, long timeoutMillis) {
+        var since = writingSince;
+        return since != NOT_WRITING && now - since >= timeoutMillis;
+    }
+
+    /**
+     * Buffers the change if the filter accepts it and makes sure a drain is on its way.
+     */
+    void offer(DroneChange change) {
+        if (closed || !filter.accepts(change)) {
+            return;
+        }
+        synchronized (this) {
+            if (pending.size() >= capacity) {
+                if (replace(change)) {
+                    coalesced.increment();
+                    return;
+                }
+                pending.poll();
+                lost++;
+                dropped.increment();
+            }
+            pending.add(change);
+        }
+        schedule();
+    }
+
+    /**
+     * Writes an SSE comment if nothing else is waiting to be written, so proxies keep the connection open and dead
+     * clients are noticed.
+     */
+    void heartbeat() {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            heartbeatDue = true;
+        }
+        schedule();
+    }
+
+    void close() {
+        abandon();
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            // The connection is already gone
+        }
+    }
+
+    /**
+     * Closes the subscription without touching the connection. The emitter stays locked by a send that is stuck,
+     * so the writer completes it once that send returns or fails.
+     */
+    void abandon() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onClose.accept(this);
+    }
+
+    /**
+     * Removes the buffered state or battery change of the same drone and queues the newer one at the end, so event
+     * ids keep growing on the wire. Load changes are never replaced.
+     */
+    private boolean replace(DroneChange change) {
+        if (change.getType() == DroneChangeType.LOAD) {
+            return false;
+        }
+        for (Iterator<DroneChange> iterator = pending.descendingIterator(); iterator.hasNext(); ) {
+            var buffered = iterator.next();
+            if (buffered.getType() == change.getType() && buffered.getSerialNumber().equals(change.getSerialNumber())) {
+                iterator.remove();
+                pending.add(change);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void schedule() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        submit();
+    }
+
+    private void submit() {
+        try {
+            writers.execute(this::drain);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                draining = false;
+            }
+            close();
+        }
+    }
+
+    private void drain() {
+        DroneChange[] changes;
+        long lostNow;
+        boolean heartbeat;
+        synchronized (this) {
+            if (closed || (pending.isEmpty() && lost == 0 && !heartbeatDue)) {
+                draining = false;
+                return;
+            }
+            changes = pending.toArray(new DroneChange[0]);
+            pending.clear();
+            lostNow = lost;
+            lost = 0;
+            heartbeat = heartbeatDue && changes.length == 0 && lostNow == 0;
+            heartbeatDue = false;
+        }
+        writingSince = clock.getAsLong();
+        try {
+            write(changes, lostNow, heartbeat);
+        } catch (IOException | IllegalStateException e) {
+            close();
+            return;
+        } finally {
+            writingSince = NOT_WRITING;
+        }
+        if (closed) {
+            close();
+            return;
+        }
+        synchronized (this) {
+            if (pending.isEmpty() && lost == 0 && !heartbeatDue) {
+                draining = false;
+                return;
+            }
+        }
+        submit();
+    }
+
+    private void write(DroneChange[] changes, long lostNow, boolean heartbeat) throws IOException {
+        if (lostNow > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(lostNow));
+        }
+        for (DroneChange change : changes) {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(change.getSequence()))
+                    .name(change.getType().name().toLowerCase())
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+        if (heartbeat) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+package com.musalasoft.drones.fleet;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.repository.DroneRepository;
+import com.musalasoft.drones.service.DroneLocks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static com.musalasoft.drones.service.Transactions.afterCommit;
+
+/**
+ * In-process copy of the scalar state of every drone (model, weight, battery and state), kept in parallel primitive
+ * arrays indexed by a slot per serial number. When {@code drones.fleet-state.enabled} is on, battery, availability
+ * and existence reads are answered from here without touching the database.
+ * <p>
+ * Batteries recorded with {@link #updateBattery} are the only values written behind: the dirty ones, and only those,
+ * are flushed in one batch every {@code drones.fleet-state.flush-interval} milliseconds and on shutdown, so a crash
+ * can lose at most one flush interval of those readings. States, weights and new drones are written by the
+ * repository in their own transaction and recorded with {@link #put}, which keeps a battery that is still waiting
+ * to be written since it is newer than the one read with the entity. Both reach the store only once their
+ * transaction commits. The flush holds the {@link DroneLocks} of the drones it writes, so it never interleaves with a load,
+ * a delivery or a battery update of the same drone.
+ */
+@Component
+public class FleetStateStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetStateStore.class);
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte NONE = -1;
+    private static final DroneType[] MODELS = DroneType.values();
+    private static final DroneState[] STATES = DroneState.values();
+    public static final String UPDATE_BATTERY_SQL = "update drones set battery = ? where serial_number = ?";
+    public static final int[] UPDATE_BATTERY_TYPES = {Types.INTEGER, Types.VARCHAR};
+
+    private final DroneRepository droneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DroneLocks locks;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final BitSet dirtyBatteries = new BitSet();
+    private volatile boolean ready;
+    private String[] serialNumbers = new String[INITIAL_CAPACITY];
+    private byte[] models = new byte[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int[] batteries = new int[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    public FleetStateStore(DroneRepository droneRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           DroneLocks locks, @Value("${drones.fleet-state.enabled:false}") boolean enabled) {
+        this.droneRepository = droneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.locks = locks;
+        this.enabled = enabled;
+    }
+
+    /**
+     * True once the store is enabled and has been filled from the database, so it can answer reads on its own.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        var drones = droneRepository.findSummariesBy();
+        lock.writeLock().lock();
+        try {
+            for (DroneSummary drone : drones) {
+                record(drone.getSerialNumber(), drone.getModel(), drone.getWeight(), drone.getBattery(), drone.getState());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        LOGGER.info("Fleet state store loaded with {} drones", drones.size());
+    }
+
+    /**
+     * Records a drone written through the repository. Its state is the one being committed, but a battery reading
+     * that is still dirty here wins over the battery of the entity. Inside a transaction the drone is only recorded
+     * once it commits, as it is when this is called, so a rolled back change never reaches the store.
+     */
+    public void put(Drone drone) {
+        if (!enabled) {
+            return;
+        }
+        var serialNumber = drone.getSerialNumber();
+        var model = drone.getModel();
+        var weight = drone.getWeight();
+        var battery = drone.getBattery();
+        var state = drone.getState();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                var slot = slots.get(serialNumber);
+                record(serialNumber, model, weight, slot != null && dirtyBatteries.get(slot) ? batteries[slot] : battery, state);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public boolean contains(String serialNumber) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(serialNumber);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OptionalInt battery(String serialNumber) {
+        lock.readLock().lock();
+        try {
+            var slot = slots.get(serialNumber);
+            return slot == null ? OptionalInt.empty() : OptionalInt.of(batteries[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<DroneSummary> availableDrones() {
+        return select(slot -> weights[slot] < DRONE_WEIGHT_LIMIT);
+    }
+
+    public List<DroneSummary> dronesWithBatteryAtMost(int batteryLimit) {
+        return select(slot -> batteries[slot] <= batteryLimit);
+    }
+
+    /**
+     * Records a battery reading of a drone in the store, to be written behind by the next flush. False when the
+     * drone isn't in the store. Like {@link #put}, inside a transaction the reading is only recorded once it commits.
+     */
+    public boolean updateBattery(String serialNumber, int battery) {
+        if (!ready || !contains(serialNumber)) {
+            return false;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int slot = slots.get(serialNumber);
+                batteries[slot] = battery;
+                dirtyBatteries.set(slot);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Writes the dirty batteries back to the database in a single transaction with one JDBC batch. The values are
+     * read once the drones are locked, so what is written is the latest reading. A failed write leaves the drones
+     * dirty for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${drones.fleet-state.flush-interval:1000}")
+    @PreDestroy
+    public void flush() {
+        if (!ready) {
+            return;
+        }
+        var serialNumbers = dirtySerialNumbers();
+        if (serialNumbers.isEmpty()) {
+            return;
+        }
+        var batteryArgs = new ArrayList<Object[]>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> locks.withLocks(serialNumbers, () -> {
+                takeDirty(serialNumbers, batteryArgs);
+                return jdbcTemplate.batchUpdate(UPDATE_BATTERY_SQL, batteryArgs, UPDATE_BATTERY_TYPES);
+            }));
+        } catch (RuntimeException e) {
+            LOGGER.error("The fleet state store couldn't flush {} drones, they will be retried", serialNumbers.size(), e);
+            markDirty(batteryArgs);
+            return;
+        }
+        LOGGER.info("Fleet state store flushed {} batteries", batteryArgs.size());
+    }
+
+    private List<String> dirtySerialNumbers() {
+        lock.readLock().lock();
+        try {
+            var serialNumbers = new ArrayList<String>();
+            for (int slot = dirtyBatteries.nextSetBit(0); slot >= 0; slot = dirtyBatteries.nextSetBit(slot + 1)) {
+                serialNumbers.add(this.serialNumbers[slot]);
+            }
+            return serialNumbers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void takeDirty(Collection<String> serialNumbers, List<Object[]> batteryArgs) {
+        lock.writeLock().lock();
+        try {
+            for (String serialNumber : serialNumbers) {
+                int slot = slots.get(serialNumber);
+                if (dirtyBatteries.get(slot)) {
+                    batteryArgs.add(new Object[]{batteries[slot], serialNumber});
+                    dirtyBatteries.clear(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDirty(List<Object[]> batteryArgs) {
+        lock.writeLock().lock();
+        try {
+            batteryArgs.forEach(arg -> dirtyBatteries.set(slots.get((String) arg[1])));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<DroneSummary> select(IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            var drones = new ArrayList<DroneSummary>();
+            for (int slot = 0; slot < size; slot++) {
+                if (filter.test(slot)) {
+                    drones.add(snapshot(slot));
+                }
+            }
+            return drones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private DroneSummary snapshot(int slot) {
+        var state = states[slot] == NONE ? null : STATES[states[slot]];
+        var model = models[slot] == NONE ? null : MODELS[models[slot]];
+        return new DroneSummary(serialNumbers[slot], model, weights[slot], batteries[slot], state);
+    }
+
+    private int record(String serialNumber, DroneType model, int weight, int battery, DroneState state) {
+        var slot = slots.get(serialNumber);
+        if (slot == null) {
+            slot = size++;
+            ensureCapacity(size);
+            slots.put(serialNumber, slot);
+            serialNumbers[slot] = serialNumber;
+        }
+        models[slot] = model == null ? NONE : (byte) model.ordinal();
+        weights[slot] = weight;
+        batteries[slot] = battery;
+        states[slot] = state == null ? NONE : (byte) state.ordinal();
+        return slot;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= serialNumbers.length) {
+            return;
+        }
+        var newCapacity = Math.max(capacity, serialNumbers.length * 2);
+        serialNumbers = Arrays.copyOf(serialNumbers, newCapacity);
+        models = Arrays.copyOf(models, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+        batteries = Arrays.copyOf(batteries, newCapacity);
+        states = Arrays.copyOf(states, newCapacity);
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.musalasoft.drones.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets through at most {@code permitsPerSecond} events per message template and second, so a hot log line (one per
+ * load, one per telemetry batch...) can't flood the appenders under load. Turbo filters run before the event is
+ * created, so dropped events never format their arguments. Errors, and events below the level of their logger that
+ * would be discarded anyway, are never counted.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private int permitsPerSecond = 100;
+    private int maxTemplates = 1024;
+
+    public RateLimitingTurboFilter() {
+        this(System::nanoTime);
+    }
+
+    RateLimitingTurboFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setMaxTemplates(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.ERROR) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (windows.size() >= maxTemplates && !windows.containsKey(format)) {
+            windows.clear();
+        }
+        var window = windows.computeIfAbsent(format, key -> new Window());
+        return window.tryAcquire(clock.getAsLong(), permitsPerSecond) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private static final class Window {
+        private final AtomicLong start = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong count = new AtomicLong();
+
+        boolean tryAcquire(long now, int permits) {
+            var windowStart = start.get();
+            if (windowStart == Long.MIN_VALUE || now - windowStart >= WINDOW) {
+                if (start.compareAndSet(windowStart, now)) {
+                    count.set(0);
+                }
+            }
+            return count.incrementAndGet() <= permits;
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.musalasoft.drones.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A delivered medication, archived out of {@code medications_drones}.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "deliveries", indexes = @Index(name = "idx_deliveries_serial_number", columnList = "serial_number"))
+public class Delivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+    @Column(name = "serial_number")
+    private String serialNumber;
+    @Column(name = "medication_id")
+    private long medicationId;
+    @Column(name = "weight")
+    private int weight;
+    @Column(name = "delivered_at")
+    private Instant deliveredAt;
+
+}
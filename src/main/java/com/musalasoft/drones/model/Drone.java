@@ -6,6 +6,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -13,14 +14,23 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
+/**
+ * Updates only write the changed columns; {@link #medications} is read-only, the service writes its rows.
+ */
 @Data
 @Entity
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "drones")
+@Table(name = "drones", indexes = {
+        @Index(name = "idx_drones_weight", columnList = "weight"),
+        @Index(name = "idx_drones_battery", columnList = "battery"),
+        @Index(name = "idx_drones_state_battery_weight", columnList = "state, battery, weight")
+})
 public class Drone {
 
     @Id
@@ -34,7 +44,7 @@ public class Drone {
     private int battery;
     @Column(name = "state")
     private DroneState state;
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "medications_drones",
             joinColumns = @JoinColumn(name = "serialNumber"),
@@ -42,16 +52,4 @@ public class Drone {
     )
     private List<Medication> medications;
 
-    public void addMedication(Medication medication) {
-        this.medications.add(medication);
-        this.weight += medication.getWeight();
-    }
-
-    public void setBattery(int battery) {
-        if (battery > 100) {
-            throw new IllegalArgumentException("Battery value is a percentage, can't be more than 100%");
-        }
-        this.battery = battery;
-    }
-
 }
@@ -0,0 +1,9 @@
+package com.musalasoft.drones.model.Enum;
+
+public enum DroneChangeType {
+
+    STATE,
+    BATTERY,
+    LOAD
+
+}
@@ -8,6 +8,7 @@ public enum DroneState {
     NEEDS_TO_BE_CHARGED,
     DELIVERING,
     DELIVERED,
-    RETURNING
+    RETURNING,
+    CHARGING
 
 }
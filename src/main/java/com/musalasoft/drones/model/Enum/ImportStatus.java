@@ -0,0 +1,11 @@
+package com.musalasoft.drones.model.Enum;
+
+public enum ImportStatus {
+
+    CREATED,
+    EXISTING,
+    DUPLICATED,
+    INVALID,
+    REJECTED
+
+}
@@ -0,0 +1,10 @@
+package com.musalasoft.drones.model.Enum;
+
+public enum LoadStatus {
+
+    LOADED,
+    NEEDS_TO_BE_CHARGED,
+    UNAVAILABLE,
+    NOT_FOUND
+
+}
@@ -26,7 +26,7 @@ public class Medication {
     private int weight;
     @Column(name = "code")
     private String code;
-    @Column(name = "image")
-    private byte[] image;
+    @Column(name = "image_id")
+    private String imageId;
 
 }
@@ -0,0 +1,14 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.Value;
+
+@Value
+public class CacheStatistics {
+
+    long size;
+    long hitCount;
+    long missCount;
+    double hitRate;
+    long evictionCount;
+
+}
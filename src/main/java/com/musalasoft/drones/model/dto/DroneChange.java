@@ -0,0 +1,40 @@
+package com.musalasoft.drones.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.musalasoft.drones.model.Enum.DroneChangeType;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import lombok.Value;
+
+/**
+ * One change of the change feed, only the fields of its type are set; gaps in the sequence are dropped changes.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DroneChange {
+
+    long sequence;
+    DroneChangeType type;
+    String serialNumber;
+    DroneState previousState;
+    DroneState state;
+    Integer previousBattery;
+    Integer battery;
+    LoadStatus loadStatus;
+    Integer loaded;
+    Integer rejected;
+    long timestamp;
+
+    public static DroneChange state(long sequence, String serialNumber, DroneState previousState, DroneState state, long timestamp) {
+        return new DroneChange(sequence, DroneChangeType.STATE, serialNumber, previousState, state, null, null, null, null, null, timestamp);
+    }
+
+    public static DroneChange battery(long sequence, String serialNumber, int previousBattery, int battery, long timestamp) {
+        return new DroneChange(sequence, DroneChangeType.BATTERY, serialNumber, null, null, previousBattery, battery, null, null, null, timestamp);
+    }
+
+    public static DroneChange load(long sequence, String serialNumber, LoadStatus status, int loaded, int rejected, long timestamp) {
+        return new DroneChange(sequence, DroneChangeType.LOAD, serialNumber, null, null, null, null, status, loaded, rejected, timestamp);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.musalasoft.drones.model.dto;
+
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import lombok.Value;
+
+/**
+ * Scalar columns of a drone, used by the listing queries so they don't have to load the medications.
+ */
+@Value
+public class DroneSummary {
+
+    String serialNumber;
+    DroneType model;
+    int weight;
+    int battery;
+    DroneState state;
+
+}
@@ -0,0 +1,17 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ImportReport {
+
+    int created;
+    int existing;
+    int duplicated;
+    int invalid;
+    int rejected;
+    List<ImportResult> results;
+
+}
@@ -0,0 +1,17 @@
+package com.musalasoft.drones.model.dto;
+
+import com.musalasoft.drones.model.Enum.ImportStatus;
+import lombok.Value;
+
+/**
+ * Outcome of one record of an import, {@code line} is its line in the file (the CSV header is line 1).
+ */
+@Value
+public class ImportResult {
+
+    long line;
+    String serialNumber;
+    ImportStatus status;
+    String message;
+
+}
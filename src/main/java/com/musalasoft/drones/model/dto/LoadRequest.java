@@ -0,0 +1,17 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadRequest {
+
+    private String serialNumber;
+    private List<Long> medicationIds;
+
+}
@@ -0,0 +1,28 @@
+package com.musalasoft.drones.model.dto;
+
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadResult {
+
+    private String serialNumber;
+    private LoadStatus status;
+    private DroneState state;
+    private int weight;
+    private List<Long> loadedMedicationIds;
+    private List<Long> rejectedMedicationIds;
+    private List<Long> unknownMedicationIds;
+
+    public static LoadResult notFound(String serialNumber) {
+        return new LoadResult(serialNumber, LoadStatus.NOT_FOUND, null, 0, List.of(), List.of(), List.of());
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.Value;
+
+/**
+ * A row of {@code medications_drones}, with the weight its delivery releases.
+ */
+@Value
+public class LoadedCopy implements LoadedMedication {
+
+    String serialNumber;
+    long medicationId;
+    int weight;
+
+}
@@ -0,0 +1,12 @@
+package com.musalasoft.drones.model.dto;
+
+/**
+ * A copy of a medication loaded to a drone, with the weight it had when it was loaded.
+ */
+public interface LoadedMedication {
+
+    long getMedicationId();
+
+    int getWeight();
+
+}
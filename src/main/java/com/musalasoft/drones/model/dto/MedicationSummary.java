@@ -0,0 +1,17 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.Value;
+
+/**
+ * Scalar columns of a medication, used by the catalogue listings.
+ */
+@Value
+public class MedicationSummary {
+
+    long id;
+    String name;
+    int weight;
+    String code;
+    String imageId;
+
+}
@@ -0,0 +1,11 @@
+package com.musalasoft.drones.model.dto;
+
+import lombok.Value;
+
+@Value
+public class TelemetryAck {
+
+    int accepted;
+    int rejected;
+
+}
@@ -0,0 +1,23 @@
+package com.musalasoft.drones.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A telemetry reading, every field but the serial number is optional; a state sent in JSON is ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TelemetryReading {
+
+    private String serialNumber;
+    private Integer battery;
+    private Double latitude;
+    private Double longitude;
+    private Long timestamp;
+
+}
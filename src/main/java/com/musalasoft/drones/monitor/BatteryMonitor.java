@@ -0,0 +1,108 @@
+package com.musalasoft.drones.monitor;
+
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.BatteryThresholdCrossedEvent;
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
+
+/**
+ * Detects crossings of {@code DRONE_BATTERY_LIMIT} as battery readings arrive, so each drone raises one alert when
+ * it gets low and one when it recovers, instead of being reported on every sweep. Readings are only observed once
+ * their transaction commits, so a rolled back battery update never raises or clears an alert.
+ */
+@Component
+public class BatteryMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatteryMonitor.class);
+
+    private final ApplicationEventPublisher publisher;
+    private final Map<String, Boolean> lowBattery = new ConcurrentHashMap<>();
+
+    public BatteryMonitor(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteryChanged(BatteryChangedEvent event) {
+        if (observe(event.getSerialNumber(), event.getBattery(), isLow(event.getPreviousBattery()))) {
+            if (isLow(event.getBattery())) {
+                LOGGER.info("{} drone needs to be charged, it has {}% of battery", event.getSerialNumber(), event.getBattery());
+            } else {
+                LOGGER.info("{} drone is charged again, it has {}% of battery", event.getSerialNumber(), event.getBattery());
+            }
+        }
+    }
+
+    /**
+     * Safety net for readings that never went through a {@link BatteryChangedEvent}. A drone found low by the sweep
+     * is only reported if the monitor didn't already know it was low. Drones the monitor thought were low but the
+     * sweep didn't find have their battery read with {@code batteryLevel}, and those that did recover raise their
+     * recovery like a reading would, so the charging line forgets them too. Returns how many new low battery alerts
+     * were raised, the caller reports them as a whole and each drone is only logged at debug level.
+     */
+    public int reconcile(List<DroneSummary> lowDrones, ToIntFunction<String> batteryLevel) {
+        var alerts = 0;
+        var serialNumbers = new HashSet<String>();
+        for (DroneSummary drone : lowDrones) {
+            serialNumbers.add(drone.getSerialNumber());
+            if (observe(drone.getSerialNumber(), drone.getBattery(), false)) {
+                LOGGER.debug("{} drone needs to be charged, it has {}% of battery", drone.getSerialNumber(), drone.getBattery());
+                alerts++;
+            }
+        }
+        for (Map.Entry<String, Boolean> entry : lowBattery.entrySet()) {
+            if (entry.getValue() && !serialNumbers.contains(entry.getKey())) {
+                recover(entry.getKey(), batteryLevel);
+            }
+        }
+        return alerts;
+    }
+
+    private void recover(String serialNumber, ToIntFunction<String> batteryLevel) {
+        int battery;
+        try {
+            battery = batteryLevel.applyAsInt(serialNumber);
+        } catch (NotFoundException e) {
+            lowBattery.remove(serialNumber);
+            return;
+        }
+        if (observe(serialNumber, battery, true)) {
+            LOGGER.debug("{} drone is charged again, it has {}% of battery", serialNumber, battery);
+        }
+    }
+
+    /**
+     * Records the new status and reports whether it is a transition. {@code unknownWasLow} is only used the first
+     * time a drone is seen.
+     */
+    private boolean observe(String serialNumber, int battery, boolean unknownWasLow) {
+        var low = isLow(battery);
+        var crossed = new boolean[1];
+        lowBattery.compute(serialNumber, (key, wasLow) -> {
+            crossed[0] = low != (wasLow == null ? unknownWasLow : wasLow);
+            return low;
+        });
+        if (!crossed[0]) {
+            return false;
+        }
+        publisher.publishEvent(new BatteryThresholdCrossedEvent(serialNumber, battery, low));
+        return true;
+    }
+
+    private static boolean isLow(int battery) {
+        return battery <= DRONE_BATTERY_LIMIT;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.musalasoft.drones.monitor;
+
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Turns the load and state machine events into counters: loads by outcome, loaded and rejected medications and
+ * transitions by target state, counted once their transaction commits so rolled back loads and transitions don't
+ * show up. Rates (loads per second) are left to the monitoring system.
+ */
+@Component
+public class DroneMetrics {
+
+    private final Map<LoadStatus, Counter> loads = new EnumMap<>(LoadStatus.class);
+    private final Map<DroneState, Counter> transitions = new EnumMap<>(DroneState.class);
+    private final Counter loadedMedications;
+    private final Counter rejectedMedications;
+
+    public DroneMetrics(MeterRegistry registry) {
+        for (LoadStatus status : LoadStatus.values()) {
+            loads.put(status, Counter.builder("drones.loads")
+                    .description("Loads of a drone by outcome")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+        for (DroneState state : DroneState.values()) {
+            transitions.put(state, Counter.builder("drones.state.transitions")
+                    .description("Transitions of the drone state machine by target state")
+                    .tag("state", state.name())
+                    .register(registry));
+        }
+        loadedMedications = Counter.builder("drones.medications.loaded")
+                .description("Medications loaded into a drone")
+                .register(registry);
+        rejectedMedications = Counter.builder("drones.medications.rejected")
+                .description("Medications rejected because they exceeded the available weight of the drone")
+                .register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadAttempted(LoadAttemptedEvent event) {
+        loads.get(event.getStatus()).increment();
+        loadedMedications.increment(event.getLoaded());
+        rejectedMedications.increment(event.getRejected());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStateChanged(DroneStateChangedEvent event) {
+        transitions.get(event.getState()).increment();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.musalasoft.drones.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@code /api/drones} and {@code /api/medications} contracts on WebFlux and R2DBC, a separate application
+ * from {@code DronesApplication} over the same schema and the same rules ({@code DroneRules} and the paging of
+ * {@code MedicationService}). It reads {@code reactive.properties} instead of {@code application.properties} and
+ * has no JDBC data source, the schema is migrated by Flyway over its own connection to the same database.
+ * It isn't a {@code @SpringBootConfiguration}, so tests of the servlet stack keep finding only one.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration(exclude = DataSourceAutoConfiguration.class)
+@ComponentScan
+public class ReactiveDronesApplication {
+
+    public static final String CONFIG_NAME = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveDronesApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=" + CONFIG_NAME)
+                .run(args);
+    }
+
+}
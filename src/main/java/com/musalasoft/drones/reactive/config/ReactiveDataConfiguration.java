@@ -0,0 +1,53 @@
+package com.musalasoft.drones.reactive.config;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.reactive.repository.ReactiveMedicationRepository;
+import com.musalasoft.drones.reactive.service.ReactiveDroneService;
+import com.musalasoft.drones.reactive.service.ReactiveMedicationService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneType.Cruiserweight;
+import static com.musalasoft.drones.model.Enum.DroneType.Heavyweight;
+import static com.musalasoft.drones.model.Enum.DroneType.Lightweight;
+import static com.musalasoft.drones.model.Enum.DroneType.Middleweight;
+
+@Configuration
+public class ReactiveDataConfiguration {
+
+    /**
+     * The sample fleet of the servlet stack, so both stacks are compared on the same data. Medications are only
+     * added to an empty catalogue, which gives them the same ids (1 to 5).
+     */
+    @Bean
+    @Profile("!prod")
+    public CommandLineRunner loadReactiveData(ReactiveDroneService droneService, ReactiveMedicationService medicationService,
+                                              ReactiveMedicationRepository medicationRepository) {
+        return (args) -> {
+            Flux.just(new Drone("EWO567", Lightweight, 80, 80, IDLE, List.of()),
+                            new Drone("POR212", Middleweight, 150, 50, IDLE, List.of()),
+                            new Drone("MVO285", Heavyweight, 220, 20, IDLE, List.of()),
+                            new Drone("QPZ193", Cruiserweight, 300, 10, IDLE, List.of()))
+                    .concatMap(droneService::registerDrone)
+                    .blockLast();
+
+            medicationRepository.count()
+                    .filter(count -> count == 0)
+                    .flatMapMany(empty -> Flux.just(new Medication(1, "Lisinopril", 100, "TUY577", null),
+                            new Medication(2, "Amlodipine", 300, "WOT892", null),
+                            new Medication(3, "Atorvastatin", 20, "ITY246", null),
+                            new Medication(4, "Metformin", 210, "UWQ547", null),
+                            new Medication(5, "Omeprazole", 80, "FRT285", null)))
+                    .concatMap(medicationService::save)
+                    .blockLast();
+        };
+    }
+
+}
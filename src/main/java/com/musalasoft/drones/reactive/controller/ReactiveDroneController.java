@@ -0,0 +1,112 @@
+package com.musalasoft.drones.reactive.controller;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Delivery;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.reactive.service.ReactiveDroneService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.musalasoft.drones.reactive.controller.ReactiveResponses.list;
+import static com.musalasoft.drones.reactive.controller.ReactiveResponses.respond;
+
+/**
+ * {@code /api/drones} of the servlet stack on WebFlux, without the import, the change stream and the conditional
+ * requests. Lists are streamed as newline delimited JSON to clients that accept it.
+ */
+@RestController
+@RequestMapping("/api/drones")
+public class ReactiveDroneController {
+
+    private final ReactiveDroneService service;
+
+    public ReactiveDroneController(ReactiveDroneService droneService) {
+        this.service = droneService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Drone>> registerDrone(@RequestBody Drone drone) {
+        return respond(service.registerDrone(drone), HttpStatus.CREATED, IllegalArgumentException.class);
+    }
+
+    @GetMapping("/load/{serialNumber}")
+    public Mono<ResponseEntity<Drone>> loadDrone(@PathVariable String serialNumber, @RequestParam List<Long> medicationIds) {
+        return respond(service.loadDrone(serialNumber, medicationIds), HttpStatus.OK, NotFoundException.class, IllegalStateException.class);
+    }
+
+    @PostMapping("/load")
+    public Mono<ResponseEntity<List<LoadResult>>> loadDrones(@RequestBody List<LoadRequest> requests) {
+        return respond(service.loadDrones(requests), HttpStatus.OK);
+    }
+
+    @PutMapping("/deliver/{serialNumber}/{medicationId}")
+    public Mono<ResponseEntity<DroneSummary>> deliverMedication(@PathVariable String serialNumber, @PathVariable long medicationId) {
+        return respond(service.deliverMedication(serialNumber, medicationId), HttpStatus.OK, NotFoundException.class, IllegalStateException.class);
+    }
+
+    @PutMapping("/deliver/{serialNumber}")
+    public Mono<ResponseEntity<DroneSummary>> deliverAll(@PathVariable String serialNumber) {
+        return respond(service.deliverAll(serialNumber), HttpStatus.OK, NotFoundException.class, IllegalStateException.class);
+    }
+
+    @PutMapping("/return/{serialNumber}")
+    public Mono<ResponseEntity<DroneSummary>> returnDrone(@PathVariable String serialNumber) {
+        return respond(service.returnDrone(serialNumber), HttpStatus.OK, NotFoundException.class, IllegalStateException.class);
+    }
+
+    @PutMapping("/arrive/{serialNumber}")
+    public Mono<ResponseEntity<DroneSummary>> arriveDrone(@PathVariable String serialNumber) {
+        return respond(service.arriveDrone(serialNumber), HttpStatus.OK, NotFoundException.class, IllegalStateException.class);
+    }
+
+    @GetMapping("/deliveries/{serialNumber}")
+    public Mono<ResponseEntity<Flux<Delivery>>> deliveries(@PathVariable String serialNumber, ServerHttpRequest request) {
+        return list(request, service.deliveries(serialNumber), NotFoundException.class);
+    }
+
+    @GetMapping("/medications/{serialNumber}")
+    public Mono<ResponseEntity<Flux<Medication>>> loadedMedications(@PathVariable String serialNumber, ServerHttpRequest request) {
+        return list(request, service.loadedMedications(serialNumber), NotFoundException.class);
+    }
+
+    @GetMapping("/available")
+    public Mono<ResponseEntity<Flux<DroneSummary>>> availableDronesToBeLoaded(ServerHttpRequest request) {
+        return list(request, service.availableDronesToBeLoaded());
+    }
+
+    @GetMapping("/candidates")
+    public Mono<ResponseEntity<Flux<DroneSummary>>> loadCandidates(@RequestParam(defaultValue = "0") int minBattery,
+                                                                   @RequestParam(defaultValue = "1") int minCapacity,
+                                                                   @RequestParam(defaultValue = "20") int limit,
+                                                                   ServerHttpRequest request) {
+        return list(request, service.loadCandidates(minBattery, minCapacity, limit), IllegalArgumentException.class);
+    }
+
+    @GetMapping("/batteryCheck/{serialNumber}")
+    public Mono<ResponseEntity<Integer>> droneBatteryLevel(@PathVariable String serialNumber) {
+        return respond(service.droneBatteryLevel(serialNumber), HttpStatus.OK, NotFoundException.class);
+    }
+
+    @PutMapping("/battery/{serialNumber}")
+    public Mono<ResponseEntity<Void>> updateBattery(@PathVariable String serialNumber, @RequestParam int level) {
+        return respond(service.updateBattery(serialNumber, level), HttpStatus.NO_CONTENT, NotFoundException.class, IllegalArgumentException.class);
+    }
+
+}
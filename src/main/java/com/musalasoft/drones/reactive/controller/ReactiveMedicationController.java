@@ -0,0 +1,81 @@
+package com.musalasoft.drones.reactive.controller;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.CursorPage;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import com.musalasoft.drones.reactive.service.ReactiveMedicationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.musalasoft.drones.reactive.controller.ReactiveResponses.list;
+import static com.musalasoft.drones.reactive.controller.ReactiveResponses.respond;
+
+/**
+ * {@code /api/medications} of the servlet stack on WebFlux, without the images, the cache statistics and the
+ * conditional requests.
+ */
+@RestController
+@RequestMapping("/api/medications")
+public class ReactiveMedicationController {
+
+    private final ReactiveMedicationService service;
+
+    public ReactiveMedicationController(ReactiveMedicationService medicationService) {
+        this.service = medicationService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<MedicationSummary>>> getAllMedications(ServerHttpRequest request) {
+        return list(request, service.getAllSummaries());
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<CursorPage<MedicationSummary>>> getMedicationsPage(@RequestParam(defaultValue = "0") long after,
+                                                                                  @RequestParam(defaultValue = "100") int limit) {
+        return respond(service.getPage(after, limit), HttpStatus.OK);
+    }
+
+    /**
+     * The catalogue as newline delimited JSON, read from the database one keyset page at a time as the client
+     * consumes it.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<MedicationSummary>> streamMedications() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(service.streamAll());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Medication>> getMedicationById(@PathVariable("id") long id) {
+        return respond(service.getOneById(id), HttpStatus.OK, NotFoundException.class);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Medication>> createMedication(@RequestBody Medication medication) {
+        return respond(service.save(medication), HttpStatus.CREATED);
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Medication>> updateMedication(@RequestBody Medication medication) {
+        return respond(service.update(medication), HttpStatus.OK, NotFoundException.class);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteMedication(@PathVariable("id") long id) {
+        return respond(service.delete(id), HttpStatus.NO_CONTENT, NotFoundException.class);
+    }
+
+}
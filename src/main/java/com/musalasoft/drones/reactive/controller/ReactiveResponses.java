@@ -0,0 +1,79 @@
+package com.musalasoft.drones.reactive.controller;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Answers of the reactive controllers, with the statuses of the servlet ones. Each call lists the exceptions it
+ * answers as a client error ({@link NotFoundException} 404, {@link IllegalStateException} 409,
+ * {@link IllegalArgumentException} 400), like the catch blocks of its servlet twin, anything else answers 500.
+ */
+final class ReactiveResponses {
+
+    private static final Map<Class<? extends RuntimeException>, HttpStatus> CLIENT_ERRORS = Map.of(
+            NotFoundException.class, HttpStatus.NOT_FOUND,
+            IllegalStateException.class, HttpStatus.CONFLICT,
+            IllegalArgumentException.class, HttpStatus.BAD_REQUEST);
+
+    private ReactiveResponses() {
+    }
+
+    /**
+     * The value with the given status, or only the status when there is no value.
+     */
+    @SafeVarargs
+    static <T> Mono<ResponseEntity<T>> respond(Mono<T> body, HttpStatus status, Class<? extends RuntimeException>... clientErrors) {
+        return body.map(value -> new ResponseEntity<>(value, status))
+                .defaultIfEmpty(new ResponseEntity<>(status))
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(statusOf(e, clientErrors))));
+    }
+
+    /**
+     * A list answers 204 when it is empty. Clients that accept {@code application/x-ndjson} get it as newline
+     * delimited JSON written as they read it, with the backpressure of the connection reaching the query; the others
+     * get a JSON array once the whole list is read. Either way the status is only decided by the first item, so a
+     * list that fails before it still gets its error status.
+     */
+    @SafeVarargs
+    static <T> Mono<ResponseEntity<Flux<T>>> list(ServerHttpRequest request, Flux<T> items, Class<? extends RuntimeException>... clientErrors) {
+        Mono<ResponseEntity<Flux<T>>> response;
+        if (streams(request)) {
+            response = items.switchOnFirst((first, all) -> {
+                if (first.isOnError()) {
+                    return Mono.error(first.getThrowable());
+                }
+                if (!first.hasValue()) {
+                    return Mono.just(new ResponseEntity<Flux<T>>(HttpStatus.NO_CONTENT));
+                }
+                return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(all));
+            }, false).singleOrEmpty();
+        } else {
+            response = items.collectList().map(all -> all.isEmpty()
+                    ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                    : new ResponseEntity<>(Flux.fromIterable(all), HttpStatus.OK));
+        }
+        return response.onErrorResume(e -> Mono.just(new ResponseEntity<>(statusOf(e, clientErrors))));
+    }
+
+    private static boolean streams(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    @SafeVarargs
+    private static HttpStatus statusOf(Throwable error, Class<? extends RuntimeException>... clientErrors) {
+        for (Class<? extends RuntimeException> clientError : clientErrors) {
+            if (clientError.isInstance(error)) {
+                return CLIENT_ERRORS.get(clientError);
+            }
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+}
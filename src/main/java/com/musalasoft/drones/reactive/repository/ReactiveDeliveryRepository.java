@@ -0,0 +1,54 @@
+package com.musalasoft.drones.reactive.repository;
+
+import com.musalasoft.drones.model.Delivery;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The {@code deliveries} archive through R2DBC, with ids from {@code deliveries_seq} in blocks of 50 like
+ * Hibernate takes them on the servlet stack.
+ */
+@Repository
+public class ReactiveDeliveryRepository {
+
+    private final DatabaseClient client;
+    private final SequenceIds ids;
+
+    public ReactiveDeliveryRepository(DatabaseClient client) {
+        this.client = client;
+        this.ids = new SequenceIds(client, "deliveries_seq", 50);
+    }
+
+    public Flux<Delivery> findBySerialNumberOrderByIdAsc(String serialNumber) {
+        return client.sql("SELECT id, serial_number, medication_id, weight, delivered_at FROM deliveries WHERE serial_number = :serialNumber ORDER BY id")
+                .bind("serialNumber", serialNumber)
+                .map(row -> new Delivery(((Number) row.get("id")).longValue(), row.get("serial_number", String.class),
+                        ((Number) row.get("medication_id")).longValue(), ((Number) row.get("weight")).intValue(),
+                        row.get("delivered_at", OffsetDateTime.class).toInstant()))
+                .all();
+    }
+
+    /**
+     * Archives the delivery with a new id, which is set on it.
+     */
+    public Mono<Delivery> insert(Delivery delivery) {
+        return ids.next().flatMap(id -> {
+            delivery.setId(id);
+            return client.sql("INSERT INTO deliveries (id, serial_number, medication_id, weight, delivered_at) "
+                            + "VALUES (:id, :serialNumber, :medicationId, :weight, :deliveredAt)")
+                    .bind("id", id)
+                    .bind("serialNumber", delivery.getSerialNumber())
+                    .bind("medicationId", delivery.getMedicationId())
+                    .bind("weight", delivery.getWeight())
+                    .bind("deliveredAt", OffsetDateTime.ofInstant(delivery.getDeliveredAt(), ZoneOffset.UTC))
+                    .then()
+                    .thenReturn(delivery);
+        });
+    }
+
+}
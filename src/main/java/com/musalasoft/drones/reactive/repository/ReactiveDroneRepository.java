@@ -0,0 +1,219 @@
+package com.musalasoft.drones.reactive.repository;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+
+/**
+ * The {@code drones} table and the loads of {@code medications_drones}, through R2DBC. Model and state are stored as
+ * ordinals, like Hibernate does on the servlet stack. Reads that end with {@code ForUpdate} lock the rows until the
+ * transaction completes, which is what serializes the loads and deliveries of a drone.
+ */
+@Repository
+public class ReactiveDroneRepository {
+
+    private static final String COLUMNS = "serial_number, model, weight, battery, state";
+    private static final String LOAD_MEDICATION_SQL = "INSERT INTO medications_drones (serial_number, medication_id, weight) VALUES ($1, $2, $3)";
+
+    private final DatabaseClient client;
+
+    public ReactiveDroneRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Boolean> existsById(String serialNumber) {
+        return client.sql("SELECT COUNT(*) FROM drones WHERE serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .map(row -> ((Number) row.get(0)).longValue() > 0)
+                .one();
+    }
+
+    /**
+     * The drone without its medications.
+     */
+    public Mono<Drone> findById(String serialNumber) {
+        return client.sql("SELECT " + COLUMNS + " FROM drones WHERE serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .map(ReactiveDroneRepository::droneOf)
+                .one();
+    }
+
+    public Mono<Drone> findByIdForUpdate(String serialNumber) {
+        return client.sql("SELECT " + COLUMNS + " FROM drones WHERE serial_number = :serialNumber FOR UPDATE")
+                .bind("serialNumber", serialNumber)
+                .map(ReactiveDroneRepository::droneOf)
+                .one();
+    }
+
+    /**
+     * Locks the drones in the order of their serial numbers, so bulk loads of overlapping fleets can't deadlock.
+     */
+    public Flux<Drone> findAllByIdForUpdate(Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql("SELECT " + COLUMNS + " FROM drones WHERE serial_number IN (:serialNumbers) ORDER BY serial_number FOR UPDATE")
+                .bind("serialNumbers", List.copyOf(serialNumbers))
+                .map(ReactiveDroneRepository::droneOf)
+                .all();
+    }
+
+    public Mono<Integer> findBatteryBySerialNumber(String serialNumber) {
+        return client.sql("SELECT battery FROM drones WHERE serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .map(row -> ((Number) row.get("battery")).intValue())
+                .one();
+    }
+
+    public Flux<DroneSummary> findByWeightIsLessThan(int weight) {
+        return client.sql("SELECT " + COLUMNS + " FROM drones WHERE weight < :weight")
+                .bind("weight", weight)
+                .map(ReactiveDroneRepository::summaryOf)
+                .all();
+    }
+
+    /**
+     * IDLE drones with at least the given battery and at most the given weight, more battery and then less weight
+     * first, resolved by the (state, battery, weight) index.
+     */
+    public Flux<DroneSummary> findCandidates(int minBattery, int maxWeight, int limit) {
+        return client.sql("SELECT " + COLUMNS + " FROM drones WHERE state = :state AND battery >= :minBattery AND weight <= :maxWeight "
+                        + "ORDER BY battery DESC, weight ASC LIMIT :limit")
+                .bind("state", IDLE.ordinal())
+                .bind("minBattery", minBattery)
+                .bind("maxWeight", maxWeight)
+                .bind("limit", limit)
+                .map(ReactiveDroneRepository::summaryOf)
+                .all();
+    }
+
+    public Mono<Void> insert(Drone drone) {
+        var spec = client.sql("INSERT INTO drones (" + COLUMNS + ") VALUES (:serialNumber, :model, :weight, :battery, :state)")
+                .bind("serialNumber", drone.getSerialNumber())
+                .bind("weight", drone.getWeight())
+                .bind("battery", drone.getBattery())
+                .bind("state", drone.getState().ordinal());
+        spec = drone.getModel() == null ? spec.bindNull("model", Integer.class) : spec.bind("model", drone.getModel().ordinal());
+        return spec.then();
+    }
+
+    /**
+     * Writes the weight and state of the drone. The battery is only written by {@link #updateBattery}.
+     */
+    public Mono<Void> updateWeightAndState(Drone drone) {
+        return client.sql("UPDATE drones SET weight = :weight, state = :state WHERE serial_number = :serialNumber")
+                .bind("weight", drone.getWeight())
+                .bind("state", drone.getState().ordinal())
+                .bind("serialNumber", drone.getSerialNumber())
+                .then();
+    }
+
+    public Mono<Long> updateBattery(String serialNumber, int battery) {
+        return client.sql("UPDATE drones SET battery = :battery WHERE serial_number = :serialNumber")
+                .bind("battery", battery)
+                .bind("serialNumber", serialNumber)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * The medications loaded to the drone as they are in the catalogue, one per loaded copy.
+     */
+    public Flux<Medication> findMedications(String serialNumber) {
+        return client.sql("SELECT m.id, m.name, m.weight, m.code, m.image_id FROM medications_drones md "
+                        + "JOIN medications m ON m.id = md.medication_id WHERE md.serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .map(ReactiveMedicationRepository::medicationOf)
+                .all();
+    }
+
+    public Flux<LoadedCopy> findLoadedCopies(String serialNumber) {
+        return client.sql("SELECT serial_number, medication_id, weight FROM medications_drones WHERE serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .map(row -> new LoadedCopy(row.get("serial_number", String.class), ((Number) row.get("medication_id")).longValue(),
+                        ((Number) row.get("weight")).intValue()))
+                .all();
+    }
+
+    /**
+     * Writes the loaded copies in one batched statement. A row that isn't written fails the load, so a drone never
+     * keeps weight that no loaded copy would release.
+     */
+    public Mono<Void> insertLoads(List<LoadedCopy> loads) {
+        if (loads.isEmpty()) {
+            return Mono.empty();
+        }
+        return client.inConnectionMany(connection -> {
+                    var statement = connection.createStatement(LOAD_MEDICATION_SQL);
+                    for (int i = 0; i < loads.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        var load = loads.get(i);
+                        statement.bind(0, load.getSerialNumber()).bind(1, load.getMedicationId()).bind(2, load.getWeight());
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .doOnNext(count -> {
+                    if (count != 1) {
+                        throw new IncorrectUpdateSemanticsDataAccessException(LOAD_MEDICATION_SQL + " wrote " + count + " rows instead of 1");
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Removes every copy of the medication from the drone, the caller puts back the ones that stay loaded.
+     */
+    public Mono<Long> unloadMedication(String serialNumber, long medicationId) {
+        return client.sql("DELETE FROM medications_drones WHERE serial_number = :serialNumber AND medication_id = :medicationId")
+                .bind("serialNumber", serialNumber)
+                .bind("medicationId", medicationId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> unloadAll(String serialNumber) {
+        return client.sql("DELETE FROM medications_drones WHERE serial_number = :serialNumber")
+                .bind("serialNumber", serialNumber)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Drone droneOf(Readable row) {
+        return new Drone(row.get("serial_number", String.class), modelOf(row), ((Number) row.get("weight")).intValue(),
+                ((Number) row.get("battery")).intValue(), stateOf(row), new ArrayList<>());
+    }
+
+    private static DroneSummary summaryOf(Readable row) {
+        return new DroneSummary(row.get("serial_number", String.class), modelOf(row), ((Number) row.get("weight")).intValue(),
+                ((Number) row.get("battery")).intValue(), stateOf(row));
+    }
+
+    private static DroneType modelOf(Readable row) {
+        var model = (Number) row.get("model");
+        return model == null ? null : DroneType.values()[model.intValue()];
+    }
+
+    private static DroneState stateOf(Readable row) {
+        var state = (Number) row.get("state");
+        return state == null ? null : DroneState.values()[state.intValue()];
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.musalasoft.drones.reactive.repository;
+
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@code medications} catalogue through R2DBC. New ids come from {@code medications_seq} in blocks of 50, the
+ * allocation size Hibernate uses for it on the servlet stack.
+ */
+@Repository
+public class ReactiveMedicationRepository {
+
+    private static final String COLUMNS = "id, name, weight, code, image_id";
+
+    private final DatabaseClient client;
+    private final SequenceIds ids;
+
+    public ReactiveMedicationRepository(DatabaseClient client) {
+        this.client = client;
+        this.ids = new SequenceIds(client, "medications_seq", 50);
+    }
+
+    public Mono<Long> count() {
+        return client.sql("SELECT COUNT(*) FROM medications")
+                .map(row -> ((Number) row.get(0)).longValue())
+                .one();
+    }
+
+    public Mono<Medication> findById(long id) {
+        return client.sql("SELECT " + COLUMNS + " FROM medications WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveMedicationRepository::medicationOf)
+                .one();
+    }
+
+    public Flux<Medication> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql("SELECT " + COLUMNS + " FROM medications WHERE id IN (:ids)")
+                .bind("ids", List.copyOf(ids))
+                .map(ReactiveMedicationRepository::medicationOf)
+                .all();
+    }
+
+    public Flux<MedicationSummary> findSummariesByOrderByIdAsc() {
+        return client.sql("SELECT " + COLUMNS + " FROM medications ORDER BY id")
+                .map(ReactiveMedicationRepository::summaryOf)
+                .all();
+    }
+
+    public Flux<MedicationSummary> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return client.sql("SELECT " + COLUMNS + " FROM medications WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveMedicationRepository::summaryOf)
+                .all();
+    }
+
+    /**
+     * Inserts the medication with a new id, which is set on it.
+     */
+    public Mono<Medication> insert(Medication medication) {
+        return ids.next().flatMap(id -> {
+            medication.setId(id);
+            var spec = client.sql("INSERT INTO medications (" + COLUMNS + ") VALUES (:id, :name, :weight, :code, :imageId)")
+                    .bind("id", id)
+                    .bind("weight", medication.getWeight());
+            spec = medication.getName() == null ? spec.bindNull("name", String.class) : spec.bind("name", medication.getName());
+            spec = medication.getCode() == null ? spec.bindNull("code", String.class) : spec.bind("code", medication.getCode());
+            spec = medication.getImageId() == null ? spec.bindNull("imageId", String.class) : spec.bind("imageId", medication.getImageId());
+            return spec.then().thenReturn(medication);
+        });
+    }
+
+    public Mono<Void> updateNameAndWeight(Medication medication) {
+        var spec = client.sql("UPDATE medications SET name = :name, weight = :weight WHERE id = :id")
+                .bind("weight", medication.getWeight())
+                .bind("id", medication.getId());
+        spec = medication.getName() == null ? spec.bindNull("name", String.class) : spec.bind("name", medication.getName());
+        return spec.then();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return client.sql("DELETE FROM medications WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    static Medication medicationOf(Readable row) {
+        return new Medication(((Number) row.get("id")).longValue(), row.get("name", String.class),
+                ((Number) row.get("weight")).intValue(), row.get("code", String.class), row.get("image_id", String.class));
+    }
+
+    private static MedicationSummary summaryOf(Readable row) {
+        return new MedicationSummary(((Number) row.get("id")).longValue(), row.get("name", String.class),
+                ((Number) row.get("weight")).intValue(), row.get("code", String.class), row.get("image_id", String.class));
+    }
+
+}
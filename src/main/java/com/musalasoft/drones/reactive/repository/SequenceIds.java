@@ -0,0 +1,45 @@
+package com.musalasoft.drones.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ids of a sequence that increments by {@code blockSize}, handed out like Hibernate's pooled optimizer does on the
+ * servlet stack: every value read from the sequence reserves the block of ids that ends at it, so both stacks can
+ * take ids from the same sequence without clashing.
+ */
+class SequenceIds {
+
+    private final DatabaseClient client;
+    private final String sql;
+    private final int blockSize;
+    private long next = 1;
+    private long last = 0;
+
+    SequenceIds(DatabaseClient client, String sequence, int blockSize) {
+        this.client = client;
+        this.sql = "SELECT NEXT VALUE FOR " + sequence;
+        this.blockSize = blockSize;
+    }
+
+    Mono<Long> next() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (next <= last) {
+                    return Mono.just(next++);
+                }
+            }
+            return client.sql(sql)
+                    .map(row -> ((Number) row.get(0)).longValue())
+                    .one()
+                    .map(this::reserve);
+        });
+    }
+
+    private synchronized long reserve(long value) {
+        next = Math.max(1, value - blockSize + 1);
+        last = value;
+        return next++;
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.musalasoft.drones.reactive.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Delivery;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import com.musalasoft.drones.reactive.repository.ReactiveDeliveryRepository;
+import com.musalasoft.drones.reactive.repository.ReactiveDroneRepository;
+import com.musalasoft.drones.reactive.repository.ReactiveMedicationRepository;
+import com.musalasoft.drones.service.DroneRules;
+import com.musalasoft.drones.service.DroneService;
+import com.musalasoft.drones.service.LoadPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERED;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADING;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.model.Enum.DroneState.RETURNING;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static com.musalasoft.drones.service.LoadPlanner.droneNotFound;
+import static com.musalasoft.drones.service.LoadPlanner.summaryOf;
+import static com.musalasoft.drones.service.LoadPlanner.wrongState;
+
+/**
+ * The drone workflows of {@link DroneService} on R2DBC, with the same {@link DroneRules} and the same answers.
+ * Instead of the in-process striped locks, a load or a delivery locks the row of its drone ({@code FOR UPDATE})
+ * until its transaction completes, which also serializes it with other instances on the same database. Nothing is
+ * published: the fleet state store, the change stream, the battery alerts and the conditional requests belong to the
+ * servlet stack.
+ */
+@Service
+public class ReactiveDroneService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveDroneService.class);
+
+    private final ReactiveDroneRepository droneRepository;
+    private final ReactiveMedicationRepository medicationRepository;
+    private final ReactiveDeliveryRepository deliveryRepository;
+
+    public ReactiveDroneService(ReactiveDroneRepository droneRepository, ReactiveMedicationRepository medicationRepository,
+                                ReactiveDeliveryRepository deliveryRepository) {
+        this.droneRepository = droneRepository;
+        this.medicationRepository = medicationRepository;
+        this.deliveryRepository = deliveryRepository;
+    }
+
+    @Transactional
+    public Mono<Drone> registerDrone(Drone drone) {
+        return Mono.fromRunnable(() -> DroneRules.requireRegistration(drone))
+                .then(Mono.defer(() -> {
+                    LOGGER.info("Registering a new drone with Serial Number: {}", drone.getSerialNumber());
+                    return withMedications(droneRepository.findById(drone.getSerialNumber()));
+                }))
+                .doOnNext(existedDrone -> LOGGER.info("The drone {} already exist!", existedDrone.getSerialNumber()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    drone.setMedications(new ArrayList<>());
+                    drone.setState(IDLE);
+                    return droneRepository.insert(drone).thenReturn(drone);
+                }));
+    }
+
+    /**
+     * Loads the drone with its row locked, so concurrent loads can't both pass the weight check. The returned drone
+     * lists the loaded medications after the ones it already carried. A medication listed more than once is loaded
+     * once, repeated orders of the same medication are separate items only in {@link #loadDrones}.
+     */
+    @Transactional
+    public Mono<Drone> loadDrone(String serialNumber, List<Long> medicationIds) {
+        return lockedDrone(serialNumber).flatMap(drone -> {
+            if (!DroneRules.canBeLoaded(drone.getState(), drone.getBattery())) {
+                return Mono.error(wrongState(drone, LOADING));
+            }
+            if (LoadPlanner.refusal(drone, medicationIds).isPresent()) {
+                var refused = drone.getState() == NEEDS_TO_BE_CHARGED ? Mono.<Void>empty() : changeState(drone, NEEDS_TO_BE_CHARGED);
+                return refused.then(withMedications(Mono.just(drone)));
+            }
+            LOGGER.debug("Loading medications to the drone: {}", serialNumber);
+            var uniqueIds = List.copyOf(new LinkedHashSet<>(medicationIds));
+            return droneRepository.findMedications(serialNumber).collectList()
+                    .flatMap(carried -> medicationRepository.findAllById(uniqueIds).collectMap(Medication::getId)
+                            .flatMap(found -> {
+                                var plan = LoadPlanner.plan(drone, uniqueIds, found);
+                                var result = plan.getResult();
+                                drone.setWeight(result.getWeight());
+                                drone.setState(result.getState());
+                                LOGGER.info("{} medications loaded to the drone {}, {} rejected for weight", result.getLoadedMedicationIds().size(), serialNumber, result.getRejectedMedicationIds().size());
+                                var medications = new ArrayList<>(carried);
+                                medications.addAll(plan.getAdded());
+                                drone.setMedications(medications);
+                                return droneRepository.insertLoads(plan.getLoads())
+                                        .then(droneRepository.updateWeightAndState(drone))
+                                        .thenReturn(drone);
+                            }));
+        });
+    }
+
+    /**
+     * Loads many drones at once, with the same rules and results as {@link DroneService#loadDrones}: drones and
+     * medications are read with one query each, every loaded copy is written in one batch and the drones stay locked
+     * until the transaction completes.
+     */
+    @Transactional
+    public Mono<List<LoadResult>> loadDrones(List<LoadRequest> requests) {
+        Objects.requireNonNull(requests, "The load requests can't be Null");
+        LOGGER.info("Loading {} drones in bulk", requests.size());
+        var serialNumbers = new HashSet<String>();
+        var medicationIds = new HashSet<Long>();
+        for (LoadRequest request : requests) {
+            serialNumbers.add(request.getSerialNumber());
+            medicationIds.addAll(DroneRules.medicationIdsOf(request));
+        }
+        return droneRepository.findAllByIdForUpdate(serialNumbers).collectMap(Drone::getSerialNumber)
+                .flatMap(drones -> medicationRepository.findAllById(medicationIds).collectMap(Medication::getId)
+                        .flatMap(medications -> {
+                            var results = new ArrayList<LoadResult>(requests.size());
+                            var touchedDrones = new LinkedHashMap<String, Drone>();
+                            var loads = new ArrayList<LoadedCopy>();
+                            for (LoadRequest request : requests) {
+                                var drone = drones.get(request.getSerialNumber());
+                                if (drone == null) {
+                                    LOGGER.error("The Drone {} doesn't exist!", request.getSerialNumber());
+                                    results.add(LoadResult.notFound(request.getSerialNumber()));
+                                    continue;
+                                }
+                                var plan = LoadPlanner.plan(drone, DroneRules.medicationIdsOf(request), medications);
+                                drone.setWeight(plan.getResult().getWeight());
+                                drone.setState(plan.getResult().getState());
+                                loads.addAll(plan.getLoads());
+                                results.add(plan.getResult());
+                                touchedDrones.put(drone.getSerialNumber(), drone);
+                            }
+                            return droneRepository.insertLoads(loads)
+                                    .thenMany(Flux.fromIterable(touchedDrones.values()).concatMap(droneRepository::updateWeightAndState))
+                                    .then(Mono.just((List<LoadResult>) results));
+                        }));
+    }
+
+    /**
+     * Delivers one copy of the medication, releasing the weight it had when it was loaded, like
+     * {@link DroneService#deliverMedication}.
+     */
+    @Transactional
+    public Mono<DroneSummary> deliverMedication(String serialNumber, long medicationId) {
+        return deliverableDrone(serialNumber).flatMap(drone -> droneRepository.findLoadedCopies(serialNumber).collectList().flatMap(loaded -> {
+            var copies = loaded.stream().filter(copy -> copy.getMedicationId() == medicationId).toList();
+            if (copies.isEmpty()) {
+                LOGGER.error("The medication {} isn't loaded to the drone {}", medicationId, serialNumber);
+                return Mono.error(new NotFoundException("The medication " + medicationId + " isn't loaded to the drone " + serialNumber));
+            }
+            var delivered = copies.get(0);
+            if (drone.getState() == LOADED) {
+                drone.setState(DELIVERING);
+            }
+            if (loaded.size() == 1) {
+                drone.setWeight(0);
+                drone.setState(DELIVERED);
+            } else {
+                drone.setWeight(Math.max(0, drone.getWeight() - delivered.getWeight()));
+            }
+            LOGGER.info("The medication {} was delivered by the drone {}, {} medications left", medicationId, serialNumber, loaded.size() - 1);
+            return droneRepository.unloadMedication(serialNumber, medicationId)
+                    .then(droneRepository.insertLoads(copies.subList(1, copies.size())))
+                    .then(deliveryRepository.insert(new Delivery(0, serialNumber, medicationId, delivered.getWeight(), Instant.now())))
+                    .then(droneRepository.updateWeightAndState(drone))
+                    .thenReturn(summaryOf(drone));
+        }));
+    }
+
+    /**
+     * Delivers everything the drone still carries, leaving it DELIVERED and empty.
+     */
+    @Transactional
+    public Mono<DroneSummary> deliverAll(String serialNumber) {
+        return deliverableDrone(serialNumber).flatMap(drone -> droneRepository.findLoadedCopies(serialNumber).collectList().flatMap(loaded -> {
+            var deliveredAt = Instant.now();
+            drone.setWeight(0);
+            drone.setState(DELIVERED);
+            LOGGER.info("{} medications delivered by the drone {}", loaded.size(), serialNumber);
+            return droneRepository.unloadAll(serialNumber)
+                    .thenMany(Flux.fromIterable(loaded).concatMap(copy ->
+                            deliveryRepository.insert(new Delivery(0, serialNumber, copy.getMedicationId(), copy.getWeight(), deliveredAt))))
+                    .then(droneRepository.updateWeightAndState(drone))
+                    .thenReturn(summaryOf(drone));
+        }));
+    }
+
+    /**
+     * A DELIVERED drone heads back to the base.
+     */
+    @Transactional
+    public Mono<DroneSummary> returnDrone(String serialNumber) {
+        return move(serialNumber, DELIVERED, RETURNING);
+    }
+
+    /**
+     * A RETURNING drone reaches the base and can be loaded again.
+     */
+    @Transactional
+    public Mono<DroneSummary> arriveDrone(String serialNumber) {
+        return move(serialNumber, RETURNING, IDLE);
+    }
+
+    public Flux<Delivery> deliveries(String serialNumber) {
+        LOGGER.debug("Obtaining the deliveries of the drone: {}", serialNumber);
+        return existingDrone(serialNumber).thenMany(deliveryRepository.findBySerialNumberOrderByIdAsc(serialNumber));
+    }
+
+    public Flux<Medication> loadedMedications(String serialNumber) {
+        LOGGER.debug("Obtaining loaded medications to the drone: {}", serialNumber);
+        return existingDrone(serialNumber).thenMany(droneRepository.findMedications(serialNumber));
+    }
+
+    public Flux<DroneSummary> availableDronesToBeLoaded() {
+        LOGGER.debug("Obtaining drones that can carry more medications");
+        return droneRepository.findByWeightIsLessThan(DRONE_WEIGHT_LIMIT);
+    }
+
+    /**
+     * IDLE drones with at least the given battery and free capacity, best candidates (more battery, then less
+     * weight) first, like {@link DroneService#loadCandidates}.
+     */
+    public Flux<DroneSummary> loadCandidates(int minBattery, int minCapacity, int limit) {
+        return Mono.fromRunnable(() -> DroneRules.requireCandidateFilters(minBattery, minCapacity, limit))
+                .thenMany(Flux.defer(() -> {
+                    LOGGER.debug("Obtaining up to {} IDLE drones with at least {}% of battery and {}gr of free capacity", limit, minBattery, minCapacity);
+                    return droneRepository.findCandidates(DroneRules.candidateMinBattery(minBattery), DroneRules.candidateMaxWeight(minCapacity), limit);
+                }));
+    }
+
+    public Mono<Integer> droneBatteryLevel(String serialNumber) {
+        return droneRepository.findBatteryBySerialNumber(serialNumber)
+                .switchIfEmpty(Mono.error(() -> droneNotFound(serialNumber)))
+                .doOnNext(battery -> LOGGER.debug("Battery level of the drone {} is: {}%", serialNumber, battery));
+    }
+
+    public Mono<Void> updateBattery(String serialNumber, int battery) {
+        return Mono.fromRunnable(() -> DroneRules.requireBatteryLevel(battery))
+                .then(Mono.defer(() -> droneRepository.updateBattery(serialNumber, battery)))
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return Mono.error(droneNotFound(serialNumber));
+                    }
+                    LOGGER.info("The battery of the Drone {} changed to {}%", serialNumber, battery);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<DroneSummary> move(String serialNumber, DroneState expectedState, DroneState newState) {
+        return lockedDrone(serialNumber).flatMap(drone -> {
+            if (drone.getState() != expectedState) {
+                return Mono.error(wrongState(drone, newState));
+            }
+            return changeState(drone, newState).thenReturn(summaryOf(drone));
+        });
+    }
+
+    private Mono<Drone> deliverableDrone(String serialNumber) {
+        return lockedDrone(serialNumber).flatMap(drone -> DroneRules.canBeDelivered(drone.getState())
+                ? Mono.just(drone)
+                : Mono.error(wrongState(drone, DELIVERING)));
+    }
+
+    /**
+     * The drone without its medications, locked until the transaction completes.
+     */
+    private Mono<Drone> lockedDrone(String serialNumber) {
+        return droneRepository.findByIdForUpdate(serialNumber).switchIfEmpty(Mono.error(() -> droneNotFound(serialNumber)));
+    }
+
+    private Mono<Void> existingDrone(String serialNumber) {
+        return droneRepository.existsById(serialNumber)
+                .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.error(droneNotFound(serialNumber)));
+    }
+
+    private Mono<Drone> withMedications(Mono<Drone> drone) {
+        return drone.flatMap(found -> droneRepository.findMedications(found.getSerialNumber()).collectList()
+                .map(medications -> {
+                    found.setMedications(new ArrayList<>(medications));
+                    return found;
+                }));
+    }
+
+    private Mono<Void> changeState(Drone drone, DroneState newState) {
+        LOGGER.debug("The state of the Drone {} is going to change from {} to {}.", drone.getSerialNumber(), drone.getState(), newState);
+        drone.setState(newState);
+        return droneRepository.updateWeightAndState(drone);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.musalasoft.drones.reactive.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.CursorPage;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import com.musalasoft.drones.reactive.repository.ReactiveMedicationRepository;
+import com.musalasoft.drones.service.MedicationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.musalasoft.drones.service.MedicationService.STREAM_BATCH_SIZE;
+
+/**
+ * The medication catalogue of the reactive stack, paged like {@link MedicationService}. Medications have no
+ * images here and no cache in front of them, every call reads the database.
+ */
+@Service
+public class ReactiveMedicationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveMedicationService.class);
+
+    private final ReactiveMedicationRepository repository;
+
+    public ReactiveMedicationService(ReactiveMedicationRepository medicationRepository) {
+        this.repository = medicationRepository;
+    }
+
+    public Flux<MedicationSummary> getAllSummaries() {
+        return repository.findSummariesByOrderByIdAsc();
+    }
+
+    /**
+     * Keyset page of the catalogue ordered by id, starting right after the given id.
+     */
+    public Mono<CursorPage<MedicationSummary>> getPage(long after, int limit) {
+        var size = MedicationService.pageSize(limit);
+        return repository.findByIdGreaterThanOrderByIdAsc(after, size + 1)
+                .collectList()
+                .map(items -> MedicationService.pageOf(items, size));
+    }
+
+    /**
+     * The whole catalogue, read in keyset pages as the subscriber asks for it: the next page is only read once the
+     * items of the previous one were requested, so a slow client holds one page at most.
+     */
+    public Flux<MedicationSummary> streamAll() {
+        LOGGER.debug("Streaming the medication catalogue");
+        return getPage(0, STREAM_BATCH_SIZE)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : getPage(page.getNextCursor(), STREAM_BATCH_SIZE))
+                .concatMapIterable(CursorPage::getItems, 1);
+    }
+
+    public Mono<Medication> getOneById(long id) {
+        LOGGER.debug("Looking for a medication with the id: {}", id);
+        return repository.findById(id).switchIfEmpty(Mono.error(() -> medicationNotFound(id)));
+    }
+
+    public Mono<Medication> save(Medication medication) {
+        LOGGER.info("Creating a new medication with the next values: {}", medication);
+        return repository.insert(medication);
+    }
+
+    @Transactional
+    public Mono<Medication> update(Medication medication) {
+        var id = medication.getId();
+        LOGGER.info("Updating the a medication with the next values: {}", medication);
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> medicationNotFound(id)))
+                .flatMap(oldMedication -> {
+                    oldMedication.setName(medication.getName());
+                    oldMedication.setWeight(medication.getWeight());
+                    return repository.updateNameAndWeight(oldMedication).thenReturn(oldMedication);
+                });
+    }
+
+    public Mono<Void> delete(long id) {
+        LOGGER.info("Deleting the medication with the id: {}", id);
+        return repository.deleteById(id)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(medicationNotFound(id)) : Mono.empty());
+    }
+
+    private static NotFoundException medicationNotFound(long id) {
+        LOGGER.error("The Medication with Id {} doesn't exist!", id);
+        return new NotFoundException("The Medication with Id " + id + " doesn't exist!");
+    }
+
+}
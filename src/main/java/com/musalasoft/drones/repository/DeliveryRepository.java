@@ -0,0 +1,14 @@
+package com.musalasoft.drones.repository;
+
+import com.musalasoft.drones.model.Delivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+
+    List<Delivery> findBySerialNumberOrderByIdAsc(String serialNumber);
+
+}
@@ -1,15 +1,63 @@
 package com.musalasoft.drones.repository;
 
 import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadedMedication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface DroneRepository extends JpaRepository<Drone, String> {
 
-    List<Drone> findByWeightIsLessThan(int weight);
-    List<Drone> findByBatteryLessThanEqual(int batteryLimit);
+    List<DroneSummary> findByWeightIsLessThan(int weight);
+    List<DroneSummary> findByBatteryLessThanEqual(int batteryLimit);
+    List<DroneSummary> findByStateAndBatteryGreaterThanEqualAndWeightLessThanEqualOrderByBatteryDescWeightAsc(DroneState state, int minBattery, int maxWeight, Pageable pageable);
+    List<DroneSummary> findSummariesBy();
+    List<DroneSummary> findSummariesBySerialNumberIn(Collection<String> serialNumbers);
+
+    @Query("select d.serialNumber from Drone d where d.serialNumber in :serialNumbers")
+    Set<String> findExistingSerialNumbers(Collection<String> serialNumbers);
+
+    @Query("select d.battery from Drone d where d.serialNumber = :serialNumber")
+    Optional<Integer> findBatteryBySerialNumber(String serialNumber);
+
+    @Transactional
+    @Modifying
+    @Query("update Drone d set d.battery = :battery where d.serialNumber = :serialNumber")
+    int updateBattery(String serialNumber, int battery);
+
+    @Query(value = "SELECT medication_id AS \"medicationId\", weight AS \"weight\" FROM medications_drones WHERE serial_number = :serialNumber", nativeQuery = true)
+    List<LoadedMedication> findLoadedMedications(String serialNumber);
+
+    /**
+     * Removes every copy of the medication from the drone, the caller puts back the ones that stay loaded.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM medications_drones WHERE serial_number = :serialNumber AND medication_id = :medicationId", nativeQuery = true)
+    int unloadMedication(String serialNumber, long medicationId);
+
+    @Modifying
+    @Query(value = "INSERT INTO medications_drones (serial_number, medication_id, weight) VALUES (:serialNumber, :medicationId, :weight)", nativeQuery = true)
+    int loadMedication(String serialNumber, long medicationId, int weight);
+
+    @Modifying
+    @Query(value = "DELETE FROM medications_drones WHERE serial_number = :serialNumber", nativeQuery = true)
+    int unloadAll(String serialNumber);
+
+    @EntityGraph(attributePaths = "medications")
+    Optional<Drone> findWithMedicationsBySerialNumber(String serialNumber);
+    @EntityGraph(attributePaths = "medications")
+    List<Drone> findWithMedicationsBySerialNumberIn(Collection<String> serialNumbers);
 
 }
@@ -1,7 +1,15 @@
 package com.musalasoft.drones.repository;
 
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface MedicationRepository extends JpaRepository<Medication, Long> {
+
+    List<MedicationSummary> findSummariesByOrderByIdAsc();
+    List<MedicationSummary> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
 }
@@ -1,7 +1,9 @@
 package com.musalasoft.drones.schedules;
 
-import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.monitor.BatteryMonitor;
 import com.musalasoft.drones.service.DroneService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,6 +13,7 @@ import java.time.Clock;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class DroneTasks {
@@ -18,21 +21,33 @@ public class DroneTasks {
     private static final Logger LOGGER = LoggerFactory.getLogger(DroneTasks.class);
 
     private final DroneService service;
+    private final BatteryMonitor batteryMonitor;
+    private final Timer sweepTimer;
 
-    public DroneTasks(DroneService droneService) {
+    public DroneTasks(DroneService droneService, BatteryMonitor batteryMonitor, MeterRegistry registry) {
         this.service = droneService;
+        this.batteryMonitor = batteryMonitor;
+        this.sweepTimer = Timer.builder("drones.battery.sweep")
+                .description("Duration of the scheduled battery reconciliation")
+                .register(registry);
     }
 
-    @Scheduled(fixedRate = 30000)
+    /**
+     * Low battery alerts are raised by the {@link BatteryMonitor} as readings arrive, this sweep only reconciles
+     * the drones whose battery changed without going through it.
+     */
+    @Scheduled(fixedRateString = "${drones.battery.reconciliation-interval:300000}")
     public void reportCurrentTime() {
+        sweepTimer.record(this::reconcileBatteries);
+    }
+
+    private void reconcileBatteries() {
         var startDate = OffsetDateTime.now(Clock.system(ZoneOffset.UTC)).format(DateTimeFormatter.ISO_INSTANT);
-        LOGGER.info("Starting to check drones batteries at {}", startDate);
+        var start = System.nanoTime();
         var drones = service.dronesThatNeedEnergy();
-        for (Drone drone : drones) {
-            LOGGER.info("{} drone needs to be charged, it has {}% of battery", drone.getSerialNumber(), drone.getBattery());
-        }
-        var endDate = OffsetDateTime.now(Clock.system(ZoneOffset.UTC)).format(DateTimeFormatter.ISO_INSTANT);
-        LOGGER.info("Finish battery check at {}", endDate);
+        var alerts = batteryMonitor.reconcile(drones, service::droneBatteryLevel);
+        LOGGER.info("Battery check started at {}: {} drones need to be charged, {} of them weren't reported yet ({} ms)",
+                startDate, drones.size(), alerts, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
 }
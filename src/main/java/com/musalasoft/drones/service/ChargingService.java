@@ -0,0 +1,239 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.charging.ChargeProgress;
+import com.musalasoft.drones.charging.ChargingScheduler;
+import com.musalasoft.drones.charging.ChargingStatus;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.BatteryThresholdCrossedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+
+/**
+ * Feeds the {@link ChargingScheduler} from the drone events and applies its decisions every
+ * {@code drones.charging.tick-interval} milliseconds. Drones get in line when their battery drops to
+ * {@code DRONE_BATTERY_LIMIT} or less, move as new readings and load attempts arrive, take a slot as CHARGING and
+ * go back to IDLE once charged. A low drone that is flying when its turn comes waits aside until it is IDLE again,
+ * and so does one whose state changes while it holds a slot.
+ * <p>
+ * Decisions are taken under the monitor of the scheduler and applied afterwards, so no drone lock is ever waited
+ * for while holding it. Events are only followed once their transaction commits, so a rolled back change never
+ * moves a drone in the line or out of its slot.
+ */
+@Service
+public class ChargingService implements MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChargingService.class);
+    private static final int NEXT_IN_LINE = 10;
+
+    private final DroneService droneService;
+    private final ChargingScheduler scheduler;
+    private final boolean enabled;
+    private final LongSupplier clock;
+    private final Map<String, Integer> busy = new ConcurrentHashMap<>();
+    private long lastTick;
+
+    @Autowired
+    public ChargingService(@NonNull DroneService droneService,
+                           @Value("${drones.charging.enabled:false}") boolean enabled,
+                           @Value("${drones.charging.slots:4}") int slots,
+                           @Value("${drones.charging.rate-per-second:1}") double ratePerSecond,
+                           @Value("${drones.charging.target-battery:100}") int targetBattery,
+                           @Value("${drones.charging.demand-weight:5}") double demandWeight) {
+        this(droneService, new ChargingScheduler(slots, ratePerSecond, targetBattery, demandWeight), enabled, System::nanoTime);
+    }
+
+    ChargingService(DroneService droneService, ChargingScheduler scheduler, boolean enabled, LongSupplier clock) {
+        this.droneService = droneService;
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.lastTick = clock.getAsLong();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteryThresholdCrossed(BatteryThresholdCrossedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        busy.remove(event.getSerialNumber());
+        if (event.isLow()) {
+            scheduler.enqueue(event.getSerialNumber(), event.getBattery());
+        } else {
+            scheduler.remove(event.getSerialNumber());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteryChanged(BatteryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        scheduler.updateBattery(event.getSerialNumber(), event.getBattery());
+        busy.computeIfPresent(event.getSerialNumber(), (serialNumber, battery) -> event.getBattery());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadAttempted(LoadAttemptedEvent event) {
+        if (enabled && event.getStatus() != LoadStatus.NOT_FOUND) {
+            scheduler.recordDemand(event.getSerialNumber());
+        }
+    }
+
+    /**
+     * A drone that leaves CHARGING, or any other state while its slot is being taken, gives the slot up and waits
+     * aside like a flying one. Drones that become IDLE or NEEDS_TO_BE_CHARGED get back in line.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStateChanged(DroneStateChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getState() != CHARGING) {
+            var released = scheduler.release(event.getSerialNumber());
+            if (released >= 0) {
+                LOGGER.warn("The drone {} went {} while in a charging slot, the slot is freed", event.getSerialNumber(), event.getState());
+                busy.put(event.getSerialNumber(), released);
+            }
+        }
+        if (event.getState() != IDLE && event.getState() != NEEDS_TO_BE_CHARGED) {
+            return;
+        }
+        var battery = busy.remove(event.getSerialNumber());
+        if (battery != null) {
+            scheduler.enqueue(event.getSerialNumber(), battery);
+        }
+    }
+
+    /**
+     * Charges the drones in a slot for the time since the last tick, then fills the free slots. The new batteries
+     * of the tick are written in one transaction and the tick is logged as a whole, each drone only at debug level.
+     */
+    @Scheduled(fixedRateString = "${drones.charging.tick-interval:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        var now = clock.getAsLong();
+        var progress = scheduler.advance(now - lastTick);
+        lastTick = now;
+        var charged = charge(progress);
+        var finished = 0;
+        for (ChargeProgress charge : progress) {
+            if (charge.isFinished() && charged.contains(charge.getSerialNumber()) && finish(charge)) {
+                finished++;
+            }
+        }
+        var started = 0;
+        var failed = new HashMap<String, Integer>();
+        String serialNumber;
+        while ((serialNumber = scheduler.nextToCharge()) != null) {
+            if (start(serialNumber, failed)) {
+                started++;
+            }
+        }
+        failed.forEach(scheduler::enqueue);
+        if (!charged.isEmpty() || started > 0) {
+            LOGGER.info("Charging: {} batteries updated, {} drones started, {} finished, {} charging and {} waiting",
+                    charged.size(), started, finished, scheduler.charging(), scheduler.waiting());
+        }
+    }
+
+    public ChargingStatus status() {
+        return scheduler.status(NEXT_IN_LINE);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("drones.charging.waiting", scheduler, ChargingScheduler::waiting)
+                .description("Drones waiting for a charging slot")
+                .register(registry);
+        Gauge.builder("drones.charging.slots.used", scheduler, ChargingScheduler::charging)
+                .description("Charging slots taken")
+                .register(registry);
+    }
+
+    /**
+     * Starts charging a drone that was given a slot. A drone that failed unexpectedly gives the slot up and is
+     * added to {@code failed}, to get back in line once the tick is over.
+     */
+    private boolean start(String serialNumber, Map<String, Integer> failed) {
+        try {
+            droneService.startCharging(serialNumber);
+            LOGGER.debug("The drone {} started charging", serialNumber);
+            return true;
+        } catch (IllegalStateException e) {
+            var battery = scheduler.release(serialNumber);
+            if (battery >= 0) {
+                busy.put(serialNumber, battery);
+            }
+        } catch (NotFoundException e) {
+            scheduler.release(serialNumber);
+        } catch (RuntimeException e) {
+            var battery = scheduler.release(serialNumber);
+            LOGGER.error("The drone {} couldn't start charging, it will be retried", serialNumber, e);
+            if (battery >= 0) {
+                failed.put(serialNumber, battery);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports the new batteries of the drones in a slot with a single call and returns the serial numbers of the
+     * ones that got it. Drones that no longer exist give their slot up.
+     */
+    private Set<String> charge(List<ChargeProgress> progress) {
+        if (progress.isEmpty()) {
+            return Set.of();
+        }
+        var batteries = new LinkedHashMap<String, Integer>();
+        progress.forEach(charge -> batteries.put(charge.getSerialNumber(), charge.getBattery()));
+        var unknown = droneService.updateBatteries(batteries);
+        unknown.forEach(scheduler::release);
+        var charged = new HashSet<>(batteries.keySet());
+        charged.removeAll(unknown);
+        return charged;
+    }
+
+    /**
+     * Sets a charged drone back to IDLE and returns whether it left its slot that way.
+     */
+    private boolean finish(ChargeProgress charge) {
+        try {
+            droneService.finishCharging(charge.getSerialNumber(), charge.getBattery());
+            LOGGER.debug("The drone {} is charged with {}% of battery", charge.getSerialNumber(), charge.getBattery());
+            return true;
+        } catch (NotFoundException e) {
+            scheduler.release(charge.getSerialNumber());
+        } catch (IllegalStateException e) {
+            LOGGER.warn("The drone {} left its charging slot before being charged", charge.getSerialNumber());
+        }
+        return false;
+    }
+
+}
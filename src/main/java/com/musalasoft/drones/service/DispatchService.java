@@ -0,0 +1,109 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.dispatch.DispatchPlan;
+import com.musalasoft.drones.dispatch.DispatchPlanner;
+import com.musalasoft.drones.dispatch.DispatchResult;
+import com.musalasoft.drones.dispatch.PackingStrategy;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+@Service
+public class DispatchService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DispatchService.class);
+
+    private final DroneService droneService;
+    private final MedicationCache medicationCache;
+    private final DispatchPlanner planner;
+
+    public DispatchService(@NonNull DroneService droneService, @NonNull MedicationCache medicationCache, @NonNull DispatchPlanner planner) {
+        this.droneService = droneService;
+        this.medicationCache = medicationCache;
+        this.planner = planner;
+    }
+
+    /**
+     * Spreads the queued medication orders across every drone that can still be loaded and loads them in one
+     * bulk operation. Every id is one order, a medication ordered twice is dispatched as two items; orders of
+     * medications that don't exist are reported back untouched, once per order.
+     */
+    @Transactional
+    public DispatchResult dispatch(List<Long> medicationIds, PackingStrategy strategy) {
+        Objects.requireNonNull(medicationIds, "The medication orders can't be Null");
+        LOGGER.info("Dispatching {} medication orders using {}", medicationIds.size(), strategy);
+        var medications = medicationCache.getAllById(medicationIds).stream()
+                .collect(Collectors.toMap(Medication::getId, Function.identity()));
+        var orders = new ArrayList<Medication>(medicationIds.size());
+        var unknownIds = new ArrayList<Long>();
+        for (Long id : medicationIds) {
+            var medication = medications.get(id);
+            if (medication == null) {
+                unknownIds.add(id);
+            } else {
+                orders.add(medication);
+            }
+        }
+        var drones = droneService.availableDronesToBeLoaded().stream()
+                .filter(DispatchService::canBeDispatched)
+                .toList();
+
+        var plan = planner.plan(drones, orders, strategy);
+        var requests = plan.getAssignments().entrySet().stream()
+                .map(assignment -> new LoadRequest(assignment.getKey(), assignment.getValue()))
+                .toList();
+        var loads = requests.isEmpty() ? List.<LoadResult>of() : droneService.loadDrones(requests);
+        var loaded = settle(plan, drones, loads, medications);
+        LOGGER.info("{} drones got orders, {} orders couldn't be assigned", loaded.getAssignments().size(), loaded.getUnassignedMedicationIds().size());
+        return new DispatchResult(loaded, loads, unknownIds);
+    }
+
+    /**
+     * The plan as it was actually loaded: drones read without their lock may have changed before the load, orders
+     * they refused or rejected go back to the unassigned ones.
+     */
+    private static DispatchPlan settle(DispatchPlan plan, List<DroneSummary> drones, List<LoadResult> loads,
+                                       Map<Long, Medication> medications) {
+        var loadedIds = loads.stream()
+                .collect(Collectors.toMap(LoadResult::getSerialNumber, LoadResult::getLoadedMedicationIds));
+        var capacities = drones.stream()
+                .collect(Collectors.toMap(DroneSummary::getSerialNumber, drone -> DRONE_WEIGHT_LIMIT - drone.getWeight()));
+        var assignments = new LinkedHashMap<String, List<Long>>();
+        var unassigned = new ArrayList<>(plan.getUnassignedMedicationIds());
+        long assignedWeight = 0;
+        long usedCapacity = 0;
+        for (var assignment : plan.getAssignments().entrySet()) {
+            var refused = new ArrayList<>(assignment.getValue());
+            var loaded = loadedIds.getOrDefault(assignment.getKey(), List.of());
+            loaded.forEach(refused::remove);
+            unassigned.addAll(refused);
+            if (!loaded.isEmpty()) {
+                assignments.put(assignment.getKey(), loaded);
+                assignedWeight += loaded.stream().mapToLong(id -> medications.get(id).getWeight()).sum();
+                usedCapacity += capacities.get(assignment.getKey());
+            }
+        }
+        return new DispatchPlan(plan.getStrategy(), assignments, unassigned, assignedWeight, usedCapacity);
+    }
+
+    private static boolean canBeDispatched(DroneSummary drone) {
+        return DroneRules.canBeLoaded(drone.getState(), drone.getBattery()) && !DroneRules.needsCharge(drone.getBattery());
+    }
+
+}
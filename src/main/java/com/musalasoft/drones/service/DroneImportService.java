@@ -0,0 +1,309 @@
+package com.musalasoft.drones.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.cache.ResourceVersions;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Enum.ImportStatus;
+import com.musalasoft.drones.model.dto.ImportReport;
+import com.musalasoft.drones.model.dto.ImportResult;
+import com.musalasoft.drones.repository.DroneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+
+/**
+ * Registers a whole fleet from a CSV or NDJSON stream. Records are read as they arrive and written in chunks of
+ * {@code drones.import.chunk-size}: one query finds which serial numbers of the chunk already exist and the new
+ * drones are inserted with one JDBC batch, each chunk in its own transaction. Existing drones are left untouched,
+ * as {@link DroneService#registerDrone} does, and every record gets its own outcome in the report.
+ * <p>
+ * Every created drone publishes its first battery reading as a change from a full battery, so a drone imported
+ * below {@code DRONE_BATTERY_LIMIT} raises its low battery alert right away instead of on the next sweep.
+ */
+@Service
+public class DroneImportService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DroneImportService.class);
+    private static final String INSERT_SQL = "INSERT INTO drones (serial_number, model, weight, battery, state) VALUES (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.SMALLINT, Types.INTEGER, Types.INTEGER, Types.SMALLINT};
+    private static final List<String> CSV_COLUMNS = List.of("serialNumber", "model", "weight", "battery");
+    private static final int FULL_BATTERY = 100;
+
+    private final DroneRepository droneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FleetStateStore fleetState;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions versions;
+    private final int chunkSize;
+
+    public DroneImportService(@NonNull DroneRepository droneRepository, @NonNull JdbcTemplate jdbcTemplate,
+                              @NonNull PlatformTransactionManager transactionManager, @NonNull FleetStateStore fleetState,
+                              @NonNull ApplicationEventPublisher publisher, @NonNull ObjectMapper objectMapper,
+                              @NonNull ResourceVersions versions, @Value("${drones.import.chunk-size:1000}") int chunkSize) {
+        this.droneRepository = droneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fleetState = fleetState;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The first line is a header naming at least the {@code serialNumber}, {@code model}, {@code weight} and
+     * {@code battery} columns, in any order. Values can't contain commas, there is no quoting.
+     */
+    public ImportReport importCsv(InputStream body) throws IOException {
+        var reader = readerOf(body);
+        var header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty, a header with the columns " + CSV_COLUMNS + " is required");
+        }
+        var columns = csvColumns(header);
+        return importLines(reader, 2, line -> fromCsv(line, columns));
+    }
+
+    /**
+     * One drone per line, as the JSON accepted when registering a single drone.
+     */
+    public ImportReport importNdjson(InputStream body) throws IOException {
+        return importLines(readerOf(body), 1, line -> objectMapper.readValue(line, Drone.class));
+    }
+
+    private ImportReport importLines(BufferedReader reader, long firstLine, LineParser parser) throws IOException {
+        var results = new ArrayList<ImportResult>();
+        var imported = new HashSet<String>();
+        var chunk = new ArrayList<ImportRecord>(chunkSize);
+        var lineNumber = firstLine - 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, parser));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, imported, results);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, imported, results);
+        var report = reportOf(results);
+        LOGGER.info("Fleet import finished: {} drones created, {} already existed, {} duplicated, {} invalid and {} rejected records",
+                report.getCreated(), report.getExisting(), report.getDuplicated(), report.getInvalid(), report.getRejected());
+        return report;
+    }
+
+    private void importChunk(List<ImportRecord> chunk, Set<String> imported, List<ImportResult> results) {
+        var candidates = new LinkedHashMap<String, ImportRecord>();
+        for (ImportRecord record : chunk) {
+            if (record.status == null) {
+                if (imported.contains(record.serialNumber) || candidates.containsKey(record.serialNumber)) {
+                    record.reject(ImportStatus.DUPLICATED, "The serial number is repeated in the file");
+                } else {
+                    candidates.put(record.serialNumber, record);
+                }
+            }
+        }
+        if (!candidates.isEmpty()) {
+            var created = insertNew(candidates);
+            for (Drone drone : created) {
+                fleetState.put(drone);
+                versions.droneChanged(drone.getSerialNumber());
+                publisher.publishEvent(new DroneStateChangedEvent(drone.getSerialNumber(), null, IDLE));
+                publisher.publishEvent(new BatteryChangedEvent(drone.getSerialNumber(), FULL_BATTERY, drone.getBattery()));
+            }
+            imported.addAll(candidates.keySet());
+        }
+        for (ImportRecord record : chunk) {
+            results.add(new ImportResult(record.line, record.serialNumber, record.status, record.message));
+        }
+    }
+
+    /**
+     * Inserts the candidates that don't exist yet. A drone registered by someone else between the query and the
+     * insert fails the batch, the chunk is then retried once against the new state. If the retry fails too, none
+     * of the new drones of the chunk were written, they are reported as rejected and the import goes on with the
+     * next chunk, the chunks before it stay committed.
+     */
+    private List<Drone> insertNew(Map<String, ImportRecord> candidates) {
+        try {
+            return transactionTemplate.execute(status -> lockedInsertNew(candidates));
+        } catch (DuplicateKeyException e) {
+            LOGGER.warn("Some drones of the import were registered concurrently, retrying their chunk");
+        }
+        try {
+            return transactionTemplate.execute(status -> lockedInsertNew(candidates));
+        } catch (DuplicateKeyException e) {
+            LOGGER.warn("Some drones of the import were registered concurrently again, rejecting their chunk of {} records", candidates.size());
+            for (ImportRecord record : candidates.values()) {
+                if (record.status == ImportStatus.CREATED) {
+                    record.reject(ImportStatus.REJECTED, "The drone wasn't created, drones of its chunk were registered concurrently");
+                }
+            }
+            return List.of();
+        }
+    }
+
+    private List<Drone> lockedInsertNew(Map<String, ImportRecord> candidates) {
+        var existing = droneRepository.findExistingSerialNumbers(candidates.keySet());
+        var created = new ArrayList<Drone>(candidates.size());
+        var batchArgs = new ArrayList<Object[]>(candidates.size());
+        for (ImportRecord record : candidates.values()) {
+            if (existing.contains(record.serialNumber)) {
+                record.reject(ImportStatus.EXISTING, "The drone already exists");
+                continue;
+            }
+            var drone = record.drone;
+            drone.setState(IDLE);
+            drone.setMedications(new ArrayList<>());
+            batchArgs.add(new Object[]{drone.getSerialNumber(), drone.getModel().ordinal(), drone.getWeight(), drone.getBattery(), IDLE.ordinal()});
+            record.status = ImportStatus.CREATED;
+            record.message = null;
+            created.add(drone);
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+        }
+        return created;
+    }
+
+    private static ImportRecord parse(long line, String value, LineParser parser) {
+        Drone drone;
+        try {
+            drone = parser.parse(value);
+        } catch (JsonProcessingException e) {
+            return ImportRecord.invalid(line, null, "Malformed record: " + e.getOriginalMessage());
+        } catch (Exception e) {
+            return ImportRecord.invalid(line, null, "Malformed record: " + e.getMessage());
+        }
+        var error = validate(drone);
+        if (error != null) {
+            return ImportRecord.invalid(line, drone.getSerialNumber(), error);
+        }
+        return new ImportRecord(line, drone.getSerialNumber(), drone);
+    }
+
+    private static String validate(Drone drone) {
+        try {
+            DroneRules.requireRegistration(drone);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static Map<String, Integer> csvColumns(String header) {
+        var columns = new HashMap<String, Integer>();
+        var names = header.split(",", -1);
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].trim().toLowerCase(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column.toLowerCase())) {
+                throw new IllegalArgumentException("The CSV header must contain the columns " + CSV_COLUMNS + " but was: " + header);
+            }
+        }
+        return columns;
+    }
+
+    private static Drone fromCsv(String line, Map<String, Integer> columns) {
+        var values = line.split(",", -1);
+        var drone = new Drone();
+        drone.setSerialNumber(value(values, columns, "serialNumber"));
+        drone.setModel(modelOf(value(values, columns, "model")));
+        drone.setWeight(Integer.parseInt(value(values, columns, "weight")));
+        drone.setBattery(Integer.parseInt(value(values, columns, "battery")));
+        return drone;
+    }
+
+    private static String value(String[] values, Map<String, Integer> columns, String column) {
+        var index = columns.get(column.toLowerCase());
+        if (index >= values.length) {
+            throw new IllegalArgumentException("The " + column + " column is missing");
+        }
+        return values[index].trim();
+    }
+
+    private static DroneType modelOf(String value) {
+        for (DroneType model : DroneType.values()) {
+            if (model.name().equalsIgnoreCase(value)) {
+                return model;
+            }
+        }
+        throw new IllegalArgumentException("Unknown model: " + value);
+    }
+
+    private static ImportReport reportOf(List<ImportResult> results) {
+        var counts = new int[ImportStatus.values().length];
+        results.forEach(result -> counts[result.getStatus().ordinal()]++);
+        return new ImportReport(counts[ImportStatus.CREATED.ordinal()], counts[ImportStatus.EXISTING.ordinal()],
+                counts[ImportStatus.DUPLICATED.ordinal()], counts[ImportStatus.INVALID.ordinal()],
+                counts[ImportStatus.REJECTED.ordinal()], results);
+    }
+
+    private static BufferedReader readerOf(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        Drone parse(String line) throws Exception;
+    }
+
+    private static final class ImportRecord {
+        private final long line;
+        private final String serialNumber;
+        private final Drone drone;
+        private ImportStatus status;
+        private String message;
+
+        private ImportRecord(long line, String serialNumber, Drone drone) {
+            this.line = line;
+            this.serialNumber = serialNumber;
+            this.drone = drone;
+        }
+
+        static ImportRecord invalid(long line, String serialNumber, String message) {
+            var record = new ImportRecord(line, serialNumber, null);
+            record.reject(ImportStatus.INVALID, message);
+            return record;
+        }
+
+        void reject(ImportStatus status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.musalasoft.drones.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks by drone serial number, so read-modify-write cycles on the same drone (loading it) run one at a
+ * time while different drones proceed in parallel. Several drones are locked in stripe order, which keeps bulk
+ * operations free of deadlocks.
+ * <p>
+ * Inside a transaction the locks are held until it completes, so the next holder always reads committed data.
+ * The locks only cover this process, more than one instance sharing the database would need row locks or
+ * optimistic versioning on top.
+ */
+@Component
+public class DroneLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public DroneLocks(@Value("${drones.locks.stripes:64}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("The number of lock stripes must be positive.");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(String serialNumber, Supplier<T> action) {
+        var stripe = new boolean[stripes.length];
+        stripe[stripeOf(serialNumber)] = true;
+        return withStripes(stripe, action);
+    }
+
+    public <T> T withLocks(Collection<String> serialNumbers, Supplier<T> action) {
+        var stripe = new boolean[stripes.length];
+        for (String serialNumber : serialNumbers) {
+            stripe[stripeOf(serialNumber)] = true;
+        }
+        return withStripes(stripe, action);
+    }
+
+    private <T> T withStripes(boolean[] stripe, Supplier<T> action) {
+        for (int i = 0; i < stripe.length; i++) {
+            if (stripe[i]) {
+                stripes[i].lock();
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlock(stripe);
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            unlock(stripe);
+        }
+    }
+
+    private void unlock(boolean[] stripe) {
+        for (int i = stripe.length - 1; i >= 0; i--) {
+            if (stripe[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String serialNumber) {
+        var hash = serialNumber == null ? 0 : serialNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import io.micrometer.common.util.StringUtils;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static com.musalasoft.drones.service.DroneService.MAX_CANDIDATES;
+
+/**
+ * Validation and loading rules of the drones. {@link DroneService} and the reactive stack
+ * ({@code com.musalasoft.drones.reactive}) both apply them, so the same request gets the same answer from either.
+ */
+public final class DroneRules {
+
+    private static final int MAX_SERIAL_NUMBER_LENGTH = 255;
+
+    private DroneRules() {
+    }
+
+    /**
+     * Checks of a new drone, the same for a single registration and for an import.
+     */
+    public static void requireRegistration(Drone drone) {
+        Objects.requireNonNull(drone, "The Drone can't be save because is Null");
+        if (StringUtils.isBlank(drone.getSerialNumber())) {
+            throw new IllegalArgumentException("SerialNumber is required to register a Drone.");
+        }
+        if (drone.getSerialNumber().length() > MAX_SERIAL_NUMBER_LENGTH) {
+            throw new IllegalArgumentException("SerialNumber can't be longer than " + MAX_SERIAL_NUMBER_LENGTH + " characters");
+        }
+        if (drone.getModel() == null) {
+            throw new IllegalArgumentException("Model is required to register a Drone.");
+        }
+        if (drone.getWeight() < 0 || drone.getWeight() > DRONE_WEIGHT_LIMIT) {
+            throw new IllegalArgumentException("Weight must be between 0 and " + DRONE_WEIGHT_LIMIT + "gr");
+        }
+        requireBatteryLevel(drone.getBattery());
+    }
+
+    /**
+     * Only IDLE and LOADED drones take medications. A drone waiting for a charge gets through while its battery is
+     * low, only for the load to be refused for battery again; flying and charging drones are never touched.
+     */
+    public static boolean canBeLoaded(DroneState state, int battery) {
+        return state == IDLE || state == LOADED || (state == NEEDS_TO_BE_CHARGED && needsCharge(battery));
+    }
+
+    /**
+     * Loads are refused below {@link DroneService#DRONE_BATTERY_LIMIT}, the drone then needs to be charged.
+     */
+    public static boolean needsCharge(int battery) {
+        return battery < DRONE_BATTERY_LIMIT;
+    }
+
+    public static boolean fits(int weight, int medicationWeight) {
+        return weight + medicationWeight <= DRONE_WEIGHT_LIMIT;
+    }
+
+    public static boolean canBeDelivered(DroneState state) {
+        return state == LOADED || state == DELIVERING;
+    }
+
+    public static void requireBatteryLevel(int battery) {
+        if (battery < 0 || battery > 100) {
+            throw new IllegalArgumentException("The battery level must be between 0 and 100.");
+        }
+    }
+
+    public static void requireCandidateFilters(int minBattery, int minCapacity, int limit) {
+        if (minBattery < 0 || minCapacity < 0) {
+            throw new IllegalArgumentException("The minimum battery and capacity can't be negative.");
+        }
+        if (limit < 1 || limit > MAX_CANDIDATES) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_CANDIDATES + ".");
+        }
+    }
+
+    /**
+     * Lowest battery of a load candidate, never below the battery a load needs.
+     */
+    public static int candidateMinBattery(int minBattery) {
+        return Math.max(minBattery, DRONE_BATTERY_LIMIT);
+    }
+
+    /**
+     * Highest weight a load candidate can carry and still have the given free capacity.
+     */
+    public static int candidateMaxWeight(int minCapacity) {
+        return DRONE_WEIGHT_LIMIT - minCapacity;
+    }
+
+    public static List<Long> medicationIdsOf(LoadRequest request) {
+        return request.getMedicationIds() == null ? List.of() : request.getMedicationIds();
+    }
+
+}
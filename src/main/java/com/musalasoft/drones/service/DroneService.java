@@ -1,24 +1,60 @@
 package com.musalasoft.drones.service;
 
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.cache.ResourceVersions;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
 import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.Delivery;
 import com.musalasoft.drones.model.Drone;
 import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadedMedication;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import com.musalasoft.drones.repository.DeliveryRepository;
 import com.musalasoft.drones.repository.DroneRepository;
-import com.musalasoft.drones.repository.MedicationRepository;
-import io.micrometer.common.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERED;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
 import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
 import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
 import static com.musalasoft.drones.model.Enum.DroneState.LOADING;
 import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.model.Enum.DroneState.RETURNING;
+import static com.musalasoft.drones.service.LoadPlanner.droneNotFound;
+import static com.musalasoft.drones.service.LoadPlanner.summaryOf;
+import static com.musalasoft.drones.service.LoadPlanner.wrongState;
 import static java.lang.Boolean.FALSE;
 
 @Service
@@ -26,87 +62,459 @@ public class DroneService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DroneService.class);
     public static final int DRONE_WEIGHT_LIMIT = 500;
     public static final int DRONE_BATTERY_LIMIT = 25;
+    public static final int MAX_CANDIDATES = 1000;
+    private static final String LOAD_MEDICATION_SQL = "INSERT INTO medications_drones (serial_number, medication_id, weight) VALUES (?, ?, ?)";
+    private static final int[] LOAD_MEDICATION_TYPES = {Types.VARCHAR, Types.BIGINT, Types.INTEGER};
 
     private final DroneRepository droneRepository;
-    private final MedicationRepository medicationRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MedicationCache medicationCache;
+    private final FleetStateStore fleetState;
+    private final ApplicationEventPublisher publisher;
+    private final DroneLocks locks;
+    private final ResourceVersions versions;
 
-    public DroneService(@NonNull DroneRepository droneRepository, @NonNull MedicationRepository medicationRepository) {
+    public DroneService(@NonNull DroneRepository droneRepository, @NonNull DeliveryRepository deliveryRepository,
+                        @NonNull JdbcTemplate jdbcTemplate, @NonNull MedicationCache medicationCache,
+                        @NonNull FleetStateStore fleetState, @NonNull ApplicationEventPublisher publisher,
+                        @NonNull DroneLocks locks, @NonNull ResourceVersions versions) {
         this.droneRepository = droneRepository;
-        this.medicationRepository = medicationRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.medicationCache = medicationCache;
+        this.fleetState = fleetState;
+        this.publisher = publisher;
+        this.locks = locks;
+        this.versions = versions;
     }
 
     public Drone registerDrone(Drone drone) {
-        Objects.requireNonNull(drone, "The Drone can't be save because is Null");
-        if (StringUtils.isBlank(drone.getSerialNumber())) {
-            throw new IllegalArgumentException("SerialNumber is required to register a Drone.");
-        }
+        DroneRules.requireRegistration(drone);
         LOGGER.info("Registering a new drone with Serial Number: {}", drone.getSerialNumber());
         var existedDrone = droneRepository.findById(drone.getSerialNumber());
         if (existedDrone.isPresent()) {
             LOGGER.info("The drone {} already exist!", existedDrone.get().getSerialNumber());
             return existedDrone.get();
         }
+        drone.setMedications(new ArrayList<>());
         return changeState(drone, IDLE);
     }
 
+    /**
+     * Loads under the lock of the drone; a medication listed more than once is loaded once.
+     */
+    @Transactional
     public Drone loadDrone(String serialNumber, List<Long> medicationIds) {
+        return locks.withLock(serialNumber, () -> lockedLoadDrone(serialNumber, medicationIds));
+    }
+
+    private Drone lockedLoadDrone(String serialNumber, List<Long> medicationIds) {
         var drone = doesDroneExist(serialNumber);
-        if (drone.getBattery() < DRONE_BATTERY_LIMIT) {
-            LOGGER.warn("Medications can't be loaded because the battery level of the drone is {}%, please charge it!", drone.getBattery());
-            return changeState(drone, NEEDS_TO_BE_CHARGED);
-        }
-        LOGGER.info("Loading medications to the drone: {}", drone.getSerialNumber());
-        drone = changeState(drone, LOADING);
-        var medications = medicationRepository.findAllById(medicationIds);
-        for (Medication medication : medications) {
-            var totalWeight = drone.getWeight() + medication.getWeight();
-            if (totalWeight <= DRONE_WEIGHT_LIMIT) {
-                LOGGER.info("{} medication added to the drone: {}", medication.getName(), drone.getSerialNumber());
-                drone.addMedication(medication);
-            } else {
-                LOGGER.warn("{} couldn't be loaded because it exceeded the available weight ({}gr) of the drone: {}", medication.getName(), DRONE_WEIGHT_LIMIT - drone.getWeight(), drone.getSerialNumber());
+        if (!canBeLoaded(drone)) {
+            throw wrongState(drone, LOADING);
+        }
+        if (LoadPlanner.refusal(drone, medicationIds).isPresent()) {
+            var refused = drone.getState() == NEEDS_TO_BE_CHARGED ? drone : changeState(drone, NEEDS_TO_BE_CHARGED);
+            publisher.publishEvent(new LoadAttemptedEvent(serialNumber, LoadStatus.NEEDS_TO_BE_CHARGED, 0, 0));
+            return refused;
+        }
+        LOGGER.debug("Loading medications to the drone: {}", drone.getSerialNumber());
+        var uniqueIds = List.copyOf(new LinkedHashSet<>(medicationIds));
+        var plan = LoadPlanner.plan(drone, uniqueIds, indexBy(medicationCache.getAllById(medicationIds), Medication::getId));
+        var result = plan.getResult();
+        transition(drone, LOADING);
+        drone.setWeight(result.getWeight());
+        insertLoads(plan.getLoads());
+        transition(drone, LOADED);
+        LOGGER.info("{} medications loaded to the drone {}, {} rejected for weight", result.getLoadedMedicationIds().size(), serialNumber, result.getRejectedMedicationIds().size());
+        publisher.publishEvent(new LoadAttemptedEvent(serialNumber, LoadStatus.LOADED, result.getLoadedMedicationIds().size(), result.getRejectedMedicationIds().size()));
+        fleetState.put(drone);
+        return loadedCopyOf(drone, plan.getAdded());
+    }
+
+    /**
+     * Loads many drones in one transaction; a medication listed twice is loaded twice.
+     */
+    @Transactional
+    public List<LoadResult> loadDrones(List<LoadRequest> requests) {
+        Objects.requireNonNull(requests, "The load requests can't be Null");
+        LOGGER.info("Loading {} drones in bulk", requests.size());
+        var serialNumbers = new HashSet<String>();
+        var medicationIds = new HashSet<Long>();
+        for (LoadRequest request : requests) {
+            serialNumbers.add(request.getSerialNumber());
+            medicationIds.addAll(DroneRules.medicationIdsOf(request));
+        }
+        return locks.withLocks(serialNumbers, () -> lockedLoadDrones(requests, serialNumbers, medicationIds));
+    }
+
+    private List<LoadResult> lockedLoadDrones(List<LoadRequest> requests, Set<String> serialNumbers, Set<Long> medicationIds) {
+        var drones = indexBy(droneRepository.findWithMedicationsBySerialNumberIn(serialNumbers), Drone::getSerialNumber);
+        drones.values().forEach(this::withLatestBattery);
+        var medications = indexBy(medicationCache.getAllById(medicationIds), Medication::getId);
+
+        var results = new ArrayList<LoadResult>(requests.size());
+        var touchedDrones = new LinkedHashMap<String, Drone>();
+        var loads = new ArrayList<LoadedCopy>();
+        for (LoadRequest request : requests) {
+            var drone = drones.get(request.getSerialNumber());
+            if (drone == null) {
+                LOGGER.error("The Drone {} doesn't exist!", request.getSerialNumber());
+                results.add(LoadResult.notFound(request.getSerialNumber()));
+                publisher.publishEvent(new LoadAttemptedEvent(request.getSerialNumber(), LoadStatus.NOT_FOUND, 0, 0));
+                continue;
+            }
+            results.add(applyLoad(drone, DroneRules.medicationIdsOf(request), medications, loads));
+            touchedDrones.put(drone.getSerialNumber(), drone);
+        }
+        insertLoads(loads);
+        droneRepository.saveAll(List.copyOf(touchedDrones.values()));
+        touchedDrones.values().forEach(fleetState::put);
+        return results;
+    }
+
+    /**
+     * Delivers one copy of the medication and releases the weight it was loaded with.
+     */
+    @Transactional
+    public DroneSummary deliverMedication(String serialNumber, long medicationId) {
+        return locks.withLock(serialNumber, () -> lockedDeliverMedication(serialNumber, medicationId));
+    }
+
+    private DroneSummary lockedDeliverMedication(String serialNumber, long medicationId) {
+        var drone = deliverableDrone(serialNumber);
+        var loaded = droneRepository.findLoadedMedications(serialNumber);
+        var copies = loaded.stream().filter(copy -> copy.getMedicationId() == medicationId).toList();
+        if (copies.isEmpty()) {
+            LOGGER.error("The medication {} isn't loaded to the drone {}", medicationId, serialNumber);
+            throw new NotFoundException("The medication " + medicationId + " isn't loaded to the drone " + serialNumber);
+        }
+        var delivered = copies.get(0);
+        droneRepository.unloadMedication(serialNumber, medicationId);
+        for (LoadedMedication copy : copies.subList(1, copies.size())) {
+            droneRepository.loadMedication(serialNumber, medicationId, copy.getWeight());
+        }
+        deliveryRepository.save(new Delivery(0, serialNumber, medicationId, delivered.getWeight(), Instant.now()));
+        versions.droneChanged(serialNumber);
+        if (drone.getState() == LOADED) {
+            transition(drone, DELIVERING);
+        }
+        if (loaded.size() == 1) {
+            drone.setWeight(0);
+            transition(drone, DELIVERED);
+        } else {
+            releaseWeight(drone, delivered.getWeight());
+        }
+        LOGGER.info("The medication {} was delivered by the drone {}, {} medications left", medicationId, serialNumber, loaded.size() - 1);
+        fleetState.put(drone);
+        return summaryOf(drone);
+    }
+
+    /**
+     * Delivers everything the drone still carries, leaving it DELIVERED and empty.
+     */
+    @Transactional
+    public DroneSummary deliverAll(String serialNumber) {
+        return locks.withLock(serialNumber, () -> lockedDeliverAll(serialNumber));
+    }
+
+    private DroneSummary lockedDeliverAll(String serialNumber) {
+        var drone = deliverableDrone(serialNumber);
+        var loaded = droneRepository.findLoadedMedications(serialNumber);
+        var deliveredAt = Instant.now();
+        var deliveries = new ArrayList<Delivery>(loaded.size());
+        for (LoadedMedication copy : loaded) {
+            deliveries.add(new Delivery(0, serialNumber, copy.getMedicationId(), copy.getWeight(), deliveredAt));
+        }
+        droneRepository.unloadAll(serialNumber);
+        deliveryRepository.saveAll(deliveries);
+        drone.setWeight(0);
+        if (drone.getState() == LOADED) {
+            transition(drone, DELIVERING);
+        }
+        transition(drone, DELIVERED);
+        LOGGER.info("{} medications delivered by the drone {}", loaded.size(), serialNumber);
+        fleetState.put(drone);
+        return summaryOf(drone);
+    }
+
+    @Transactional
+    public DroneSummary returnDrone(String serialNumber) {
+        return locks.withLock(serialNumber, () -> move(serialNumber, DELIVERED, RETURNING));
+    }
+
+    @Transactional
+    public DroneSummary arriveDrone(String serialNumber) {
+        return locks.withLock(serialNumber, () -> move(serialNumber, RETURNING, IDLE));
+    }
+
+    /**
+     * An IDLE drone, or one waiting to be charged, takes a charging slot.
+     */
+    @Transactional
+    public DroneSummary startCharging(String serialNumber) {
+        return locks.withLock(serialNumber, () -> {
+            var drone = findDrone(serialNumber);
+            if (drone.getState() != IDLE && drone.getState() != NEEDS_TO_BE_CHARGED) {
+                throw wrongState(drone, CHARGING);
+            }
+            transition(drone, CHARGING);
+            fleetState.put(drone);
+            return summaryOf(drone);
+        });
+    }
+
+    @Transactional
+    public DroneSummary finishCharging(String serialNumber, int battery) {
+        return locks.withLock(serialNumber, () -> {
+            var drone = findDrone(serialNumber);
+            if (drone.getState() != CHARGING) {
+                throw wrongState(drone, IDLE);
             }
+            drone.setBattery(battery);
+            transition(drone, IDLE);
+            fleetState.put(drone);
+            return summaryOf(drone);
+        });
+    }
+
+    public List<Delivery> deliveries(String serialNumber) {
+        doesDroneExist(serialNumber);
+        LOGGER.debug("Obtaining the deliveries of the drone: {}", serialNumber);
+        return deliveryRepository.findBySerialNumberOrderByIdAsc(serialNumber);
+    }
+
+    private DroneSummary move(String serialNumber, DroneState expectedState, DroneState newState) {
+        var drone = findDrone(serialNumber);
+        if (drone.getState() != expectedState) {
+            throw wrongState(drone, newState);
+        }
+        transition(drone, newState);
+        fleetState.put(drone);
+        return summaryOf(drone);
+    }
+
+    private Drone deliverableDrone(String serialNumber) {
+        var drone = findDrone(serialNumber);
+        if (!DroneRules.canBeDelivered(drone.getState())) {
+            throw wrongState(drone, DELIVERING);
+        }
+        return drone;
+    }
+
+    /**
+     * The drone without its medications, changes to it are flushed on commit.
+     */
+    private Drone findDrone(String serialNumber) {
+        if (fleetState.isReady() && !fleetState.contains(serialNumber)) {
+            throw droneNotFound(serialNumber);
+        }
+        return withLatestBattery(droneRepository.findById(serialNumber).orElseThrow(() -> droneNotFound(serialNumber)));
+    }
+
+    /**
+     * The fleet state holds batteries not flushed yet, the drone takes them before any rule is checked.
+     */
+    private Drone withLatestBattery(Drone drone) {
+        if (fleetState.isReady()) {
+            fleetState.battery(drone.getSerialNumber()).ifPresent(drone::setBattery);
         }
-        return changeState(drone, LOADED);
+        return drone;
+    }
+
+    private static void releaseWeight(Drone drone, int weight) {
+        drone.setWeight(Math.max(0, drone.getWeight() - weight));
     }
 
     public List<Medication> loadedMedications(String serialNumber) {
         var drone = doesDroneExist(serialNumber);
-        LOGGER.info("Obtaining loaded medications to the drone: {}", serialNumber);
+        LOGGER.debug("Obtaining loaded medications to the drone: {}", serialNumber);
         return drone.getMedications();
     }
 
-    public List<Drone> availableDronesToBeLoaded() {
-        LOGGER.info("Obtaining drones that can carry more medications");
+    public List<DroneSummary> availableDronesToBeLoaded() {
+        LOGGER.debug("Obtaining drones that can carry more medications");
+        if (fleetState.isReady()) {
+            return fleetState.availableDrones();
+        }
         return droneRepository.findByWeightIsLessThan(DRONE_WEIGHT_LIMIT);
     }
 
+    /**
+     * IDLE drones with at least the given battery and free capacity, best candidates first.
+     */
+    public List<DroneSummary> loadCandidates(int minBattery, int minCapacity, int limit) {
+        DroneRules.requireCandidateFilters(minBattery, minCapacity, limit);
+        LOGGER.debug("Obtaining up to {} IDLE drones with at least {}% of battery and {}gr of free capacity", limit, minBattery, minCapacity);
+        return droneRepository.findByStateAndBatteryGreaterThanEqualAndWeightLessThanEqualOrderByBatteryDescWeightAsc(
+                IDLE, DroneRules.candidateMinBattery(minBattery), DroneRules.candidateMaxWeight(minCapacity), PageRequest.of(0, limit));
+    }
+
     public int droneBatteryLevel(String serialNumber) {
-        var drone = doesDroneExist(serialNumber);
-        LOGGER.info("Battery level of the drone {} is: {}%", serialNumber, drone.getBattery());
-        return drone.getBattery();
+        if (fleetState.isReady()) {
+            var battery = fleetState.battery(serialNumber).orElseThrow(() -> droneNotFound(serialNumber));
+            LOGGER.debug("Battery level of the drone {} is: {}%", serialNumber, battery);
+            return battery;
+        }
+        var battery = droneRepository.findBatteryBySerialNumber(serialNumber).orElseThrow(() -> droneNotFound(serialNumber));
+        LOGGER.debug("Battery level of the drone {} is: {}%", serialNumber, battery);
+        return battery;
+    }
+
+    @Transactional
+    public void updateBattery(String serialNumber, int battery) {
+        DroneRules.requireBatteryLevel(battery);
+        locks.withLock(serialNumber, () -> {
+            lockedUpdateBattery(serialNumber, battery);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the serial numbers of the drones that don't exist, which are skipped.
+     */
+    @Transactional
+    public Set<String> updateBatteries(Map<String, Integer> batteries) {
+        batteries.values().forEach(DroneRules::requireBatteryLevel);
+        if (batteries.isEmpty()) {
+            return Set.of();
+        }
+        return locks.withLocks(batteries.keySet(), () -> lockedUpdateBatteries(batteries));
+    }
+
+    private Set<String> lockedUpdateBatteries(Map<String, Integer> batteries) {
+        var previousBatteries = batteriesOf(batteries.keySet());
+        var unknown = new HashSet<String>();
+        var batchArgs = new ArrayList<Object[]>();
+        for (Map.Entry<String, Integer> entry : batteries.entrySet()) {
+            var serialNumber = entry.getKey();
+            var previousBattery = previousBatteries.get(serialNumber);
+            if (previousBattery == null) {
+                unknown.add(serialNumber);
+                continue;
+            }
+            if (fleetState.isReady()) {
+                fleetState.updateBattery(serialNumber, entry.getValue());
+            } else {
+                batchArgs.add(new Object[]{entry.getValue(), serialNumber});
+            }
+            versions.droneChanged(serialNumber);
+            LOGGER.debug("The battery of the Drone {} changed from {}% to {}%", serialNumber, previousBattery, entry.getValue());
+            publisher.publishEvent(new BatteryChangedEvent(serialNumber, previousBattery, entry.getValue()));
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(FleetStateStore.UPDATE_BATTERY_SQL, batchArgs, FleetStateStore.UPDATE_BATTERY_TYPES);
+        }
+        return unknown;
+    }
+
+    private Map<String, Integer> batteriesOf(Collection<String> serialNumbers) {
+        var batteries = new HashMap<String, Integer>();
+        if (fleetState.isReady()) {
+            serialNumbers.forEach(serialNumber -> fleetState.battery(serialNumber).ifPresent(battery -> batteries.put(serialNumber, battery)));
+        } else {
+            droneRepository.findSummariesBySerialNumberIn(serialNumbers).forEach(drone -> batteries.put(drone.getSerialNumber(), drone.getBattery()));
+        }
+        return batteries;
     }
 
-    public List<Drone> dronesThatNeedEnergy() {
-        LOGGER.info("Obtaining drones that has the battery less than: {}", DRONE_BATTERY_LIMIT);
+    private void lockedUpdateBattery(String serialNumber, int battery) {
+        var previousBattery = droneBatteryLevel(serialNumber);
+        if (fleetState.isReady()) {
+            if (!fleetState.updateBattery(serialNumber, battery)) {
+                throw droneNotFound(serialNumber);
+            }
+        } else if (droneRepository.updateBattery(serialNumber, battery) == 0) {
+            throw droneNotFound(serialNumber);
+        }
+        versions.droneChanged(serialNumber);
+        LOGGER.info("The battery of the Drone {} changed from {}% to {}%", serialNumber, previousBattery, battery);
+        publisher.publishEvent(new BatteryChangedEvent(serialNumber, previousBattery, battery));
+    }
+
+    public List<DroneSummary> dronesThatNeedEnergy() {
+        LOGGER.debug("Obtaining drones that has the battery less than: {}", DRONE_BATTERY_LIMIT);
+        if (fleetState.isReady()) {
+            return fleetState.dronesWithBatteryAtMost(DRONE_BATTERY_LIMIT);
+        }
         return droneRepository.findByBatteryLessThanEqual(DRONE_BATTERY_LIMIT);
     }
 
     private Drone doesDroneExist(String serialNumber) {
-        var optDrone = droneRepository.findById(serialNumber);
+        if (fleetState.isReady() && !fleetState.contains(serialNumber)) {
+            throw droneNotFound(serialNumber);
+        }
+        var optDrone = droneRepository.findWithMedicationsBySerialNumber(serialNumber);
         if (optDrone.isEmpty()) {
-            LOGGER.error("The Drone {} doesn't exist!", serialNumber);
-            throw new NotFoundException("The Drone " + serialNumber + " doesn't exist!");
+            throw droneNotFound(serialNumber);
         }
-        return optDrone.get();
+        return withLatestBattery(optDrone.get());
     }
 
-    private Drone changeState(Drone drone, DroneState newState) {
+    private LoadResult applyLoad(Drone drone, List<Long> medicationIds, Map<Long, Medication> medications, List<LoadedCopy> loads) {
+        var plan = LoadPlanner.plan(drone, medicationIds, medications);
+        var result = plan.getResult();
+        if (result.getStatus() == LoadStatus.LOADED) {
+            transition(drone, LOADING);
+            drone.setWeight(result.getWeight());
+            transition(drone, LOADED);
+            loads.addAll(plan.getLoads());
+        } else if (drone.getState() != result.getState()) {
+            transition(drone, result.getState());
+        }
+        publisher.publishEvent(new LoadAttemptedEvent(drone.getSerialNumber(), result.getStatus(), result.getLoadedMedicationIds().size(), result.getRejectedMedicationIds().size()));
+        return result;
+    }
+
+    private static boolean canBeLoaded(Drone drone) {
+        return DroneRules.canBeLoaded(drone.getState(), drone.getBattery());
+    }
+
+    /**
+     * A row that isn't written fails the load, so no drone keeps weight that no copy would release.
+     */
+    private void insertLoads(List<LoadedCopy> loads) {
+        if (loads.isEmpty()) {
+            return;
+        }
+        var batchArgs = loads.stream().map(load -> new Object[]{load.getSerialNumber(), load.getMedicationId(), load.getWeight()}).toList();
+        var counts = jdbcTemplate.batchUpdate(LOAD_MEDICATION_SQL, batchArgs, LOAD_MEDICATION_TYPES);
+        for (int count : counts) {
+            if (count != 1) {
+                throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(LOAD_MEDICATION_SQL, 1, count);
+            }
+        }
+    }
+
+    private static Drone loadedCopyOf(Drone drone, List<Medication> added) {
+        var medications = new ArrayList<>(drone.getMedications());
+        medications.addAll(added);
+        return new Drone(drone.getSerialNumber(), drone.getModel(), drone.getWeight(), drone.getBattery(), drone.getState(), medications);
+    }
+
+    private static <K, V> Map<K, V> indexBy(List<V> values, Function<V, K> key) {
+        return values.stream().collect(Collectors.toMap(key, Function.identity()));
+    }
+
+    /**
+     * Persisting the new state is up to the caller.
+     */
+    private void transition(Drone drone, DroneState newState) {
+        var previousState = drone.getState();
         if (FALSE.equals(IDLE.equals(newState))) {
-            LOGGER.info("The state of the Drone {} is going to change from {} to {}.", drone.getSerialNumber(), drone.getState().name(), newState.name());
+            LOGGER.debug("The state of the Drone {} is going to change from {} to {}.", drone.getSerialNumber(), previousState.name(), newState.name());
         }
         drone.setState(newState);
-        return droneRepository.save(drone);
+        versions.droneChanged(drone.getSerialNumber());
+        publisher.publishEvent(new DroneStateChangedEvent(drone.getSerialNumber(), previousState, newState));
+    }
+
+    private Drone changeState(Drone drone, DroneState newState) {
+        transition(drone, newState);
+        var savedDrone = droneRepository.save(drone);
+        fleetState.put(savedDrone);
+        return savedDrone;
     }
 
 }
@@ -0,0 +1,21 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link LoadPlanner#plan}: the result to answer, the {@code medications_drones} rows to write and the
+ * medications they load, in the requested order.
+ */
+@Value
+public class LoadPlan {
+
+    LoadResult result;
+    List<LoadedCopy> loads;
+    List<Medication> added;
+
+}
@@ -0,0 +1,96 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadResult;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+
+/**
+ * Plans the load of a drone read in memory, without changing it: {@link DroneService} and the reactive stack apply
+ * the returned state and weight and write the returned rows each their own way.
+ */
+public final class LoadPlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadPlanner.class);
+
+    private LoadPlanner() {
+    }
+
+    /**
+     * The answer to a drone that can't take medications right now (UNAVAILABLE or NEEDS_TO_BE_CHARGED), if any.
+     */
+    public static Optional<LoadResult> refusal(Drone drone, List<Long> medicationIds) {
+        if (!DroneRules.canBeLoaded(drone.getState(), drone.getBattery())) {
+            LOGGER.warn("Medications can't be loaded to the drone {} while it is {}", drone.getSerialNumber(), drone.getState());
+            return Optional.of(new LoadResult(drone.getSerialNumber(), LoadStatus.UNAVAILABLE, drone.getState(), drone.getWeight(), List.of(), List.of(), List.copyOf(medicationIds)));
+        }
+        if (DroneRules.needsCharge(drone.getBattery())) {
+            LOGGER.warn("Medications can't be loaded because the battery level of the drone {} is {}%, please charge it!", drone.getSerialNumber(), drone.getBattery());
+            return Optional.of(new LoadResult(drone.getSerialNumber(), LoadStatus.NEEDS_TO_BE_CHARGED, NEEDS_TO_BE_CHARGED, drone.getWeight(), List.of(), List.of(), List.copyOf(medicationIds)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * One order per requested id, repeated ids included, in the requested order. Ids without a medication are
+     * reported as unknown, and every medication that still fits is loaded with its current weight.
+     */
+    public static LoadPlan plan(Drone drone, List<Long> medicationIds, Map<Long, Medication> medications) {
+        var refusal = refusal(drone, medicationIds);
+        if (refusal.isPresent()) {
+            return new LoadPlan(refusal.get(), List.of(), List.of());
+        }
+        var weight = drone.getWeight();
+        var loads = new ArrayList<LoadedCopy>();
+        var added = new ArrayList<Medication>();
+        var loaded = new ArrayList<Long>();
+        var rejected = new ArrayList<Long>();
+        var unknown = new ArrayList<Long>();
+        for (Long id : medicationIds) {
+            var medication = medications.get(id);
+            if (medication == null) {
+                unknown.add(id);
+            } else if (DroneRules.fits(weight, medication.getWeight())) {
+                LOGGER.debug("{} medication added to the drone: {}", medication.getName(), drone.getSerialNumber());
+                weight += medication.getWeight();
+                loads.add(new LoadedCopy(drone.getSerialNumber(), medication.getId(), medication.getWeight()));
+                added.add(medication);
+                loaded.add(id);
+            } else {
+                LOGGER.debug("{} couldn't be loaded because it exceeded the available weight ({}gr) of the drone: {}", medication.getName(), DRONE_WEIGHT_LIMIT - weight, drone.getSerialNumber());
+                rejected.add(id);
+            }
+        }
+        LOGGER.debug("{} medications loaded to the drone {}, {} rejected for weight", loaded.size(), drone.getSerialNumber(), rejected.size());
+        return new LoadPlan(new LoadResult(drone.getSerialNumber(), LoadStatus.LOADED, LOADED, weight, loaded, rejected, unknown), loads, added);
+    }
+
+    public static DroneSummary summaryOf(Drone drone) {
+        return new DroneSummary(drone.getSerialNumber(), drone.getModel(), drone.getWeight(), drone.getBattery(), drone.getState());
+    }
+
+    public static IllegalStateException wrongState(Drone drone, DroneState newState) {
+        LOGGER.error("The Drone {} can't go from {} to {}", drone.getSerialNumber(), drone.getState(), newState);
+        return new IllegalStateException("The Drone " + drone.getSerialNumber() + " can't go from " + drone.getState() + " to " + newState);
+    }
+
+    public static NotFoundException droneNotFound(String serialNumber) {
+        LOGGER.error("The Drone {} doesn't exist!", serialNumber);
+        return new NotFoundException("The Drone " + serialNumber + " doesn't exist!");
+    }
+
+}
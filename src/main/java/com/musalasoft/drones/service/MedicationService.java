@@ -1,31 +1,94 @@
 package com.musalasoft.drones.service;
 
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.cache.ResourceVersions;
 import com.musalasoft.drones.exception.NotFoundException;
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.CacheStatistics;
+import com.musalasoft.drones.model.dto.CursorPage;
+import com.musalasoft.drones.model.dto.MedicationSummary;
 import com.musalasoft.drones.repository.MedicationRepository;
+import com.musalasoft.drones.storage.ImageStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class MedicationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MedicationService.class);
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int STREAM_BATCH_SIZE = 500;
 
     private final MedicationRepository repository;
+    private final ImageStore imageStore;
+    private final MedicationCache cache;
+    private final ResourceVersions versions;
 
-    public MedicationService(MedicationRepository medicationRepository) {
+    public MedicationService(MedicationRepository medicationRepository, ImageStore imageStore, MedicationCache medicationCache,
+                             ResourceVersions resourceVersions) {
         this.repository = medicationRepository;
+        this.imageStore = imageStore;
+        this.cache = medicationCache;
+        this.versions = resourceVersions;
     }
 
     public List<Medication> getAll() {
         return repository.findAll();
     }
 
+    public List<MedicationSummary> getAllSummaries() {
+        return repository.findSummariesByOrderByIdAsc();
+    }
+
+    /**
+     * Keyset page of the catalogue ordered by id, starting right after the given id.
+     */
+    public CursorPage<MedicationSummary> getPage(long after, int limit) {
+        var size = pageSize(limit);
+        return pageOf(repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size + 1)), size);
+    }
+
+    /**
+     * The requested limit of a page, kept between 1 and {@link #MAX_PAGE_SIZE}.
+     */
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * The page of the given size out of up to {@code size + 1} items read after the cursor, the extra item only
+     * tells there is a next page.
+     */
+    public static CursorPage<MedicationSummary> pageOf(List<MedicationSummary> items, int size) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, null);
+        }
+        var pageItems = items.subList(0, size);
+        return new CursorPage<>(pageItems, pageItems.get(size - 1).getId());
+    }
+
+    /**
+     * Hands the whole catalogue to the sink one item at a time, reading it in keyset pages so neither the
+     * persistence context nor the caller ever holds more than one page.
+     */
+    public void streamAll(Consumer<MedicationSummary> sink) {
+        LOGGER.debug("Streaming the medication catalogue");
+        Long cursor = 0L;
+        while (cursor != null) {
+            var page = getPage(cursor, STREAM_BATCH_SIZE);
+            page.getItems().forEach(sink);
+            cursor = page.getNextCursor();
+        }
+    }
+
     public Medication getOneById(long id) {
-        LOGGER.info("Looking for a medication with the id: {}", id);
-        var optMedication = repository.findById(id);
+        LOGGER.debug("Looking for a medication with the id: {}", id);
+        var optMedication = cache.get(id);
         if (optMedication.isEmpty()) {
             LOGGER.error("The Medication with Id {} doesn't exist!", id);
             throw new NotFoundException("The Medication with Id " + id + " doesn't exist!");
@@ -44,13 +107,40 @@ public class MedicationService {
         var oldMedication = optMedication.get();
         oldMedication.setName(medication.getName());
         oldMedication.setWeight(medication.getWeight());
-        oldMedication.setImage(medication.getImage());
-        return repository.save(optMedication.get());
+        var updated = repository.save(oldMedication);
+        cache.invalidate(id);
+        versions.medicationChanged(id);
+        return updated;
+    }
+
+    /**
+     * Saves the image in the {@link ImageStore} and keeps only its content id in the medication.
+     */
+    public Medication updateImage(long id, byte[] image) {
+        LOGGER.info("Updating the image of the medication with the id: {}", id);
+        var medication = getOneById(id);
+        medication.setImageId(imageStore.store(image));
+        var updated = repository.save(medication);
+        cache.invalidate(id);
+        versions.medicationChanged(id);
+        return updated;
+    }
+
+    public Resource getImage(String imageId) {
+        var image = imageStore.find(imageId);
+        if (image.isEmpty()) {
+            LOGGER.error("The Image {} doesn't exist!", imageId);
+            throw new NotFoundException("The Image " + imageId + " doesn't exist!");
+        }
+        return image.get();
     }
 
     public Medication save(Medication medication) {
         LOGGER.info("Creating a new medication with the next values: {}", medication);
-        return repository.save(medication);
+        var saved = repository.save(medication);
+        cache.invalidate(saved.getId());
+        versions.medicationChanged(saved.getId());
+        return saved;
     }
 
     public void delete(long id) {
@@ -61,6 +151,13 @@ public class MedicationService {
             throw new NotFoundException("The Medication with Id " + id + " doesn't exist!");
         }
         repository.deleteById(id);
+        cache.invalidate(id);
+        versions.medicationChanged(id);
+    }
+
+    public CacheStatistics cacheStatistics() {
+        var stats = cache.stats();
+        return new CacheStatistics(cache.size(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
     }
 
 }
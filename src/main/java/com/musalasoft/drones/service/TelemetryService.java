@@ -0,0 +1,43 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.dto.TelemetryAck;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.telemetry.TelemetryBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class TelemetryService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryService.class);
+
+    private final TelemetryBuffer buffer;
+
+    public TelemetryService(@NonNull TelemetryBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Readings are only buffered here, they reach the drones on the next flush of the {@link TelemetryBuffer}.
+     */
+    public TelemetryAck ingest(List<TelemetryReading> readings) {
+        var accepted = buffer.record(readings);
+        var rejected = readings.size() - accepted;
+        if (rejected > 0) {
+            LOGGER.warn("{} of {} telemetry readings were rejected", rejected, readings.size());
+        }
+        return new TelemetryAck(accepted, rejected);
+    }
+
+    public TelemetryReading latestReading(String serialNumber) {
+        return buffer.latest(serialNumber).orElseThrow(() -> {
+            LOGGER.error("There is no telemetry of the Drone {}", serialNumber);
+            return new NotFoundException("There is no telemetry of the Drone " + serialNumber);
+        });
+    }
+
+}
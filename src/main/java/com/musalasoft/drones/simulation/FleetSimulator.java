@@ -0,0 +1,365 @@
+package com.musalasoft.drones.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
+
+/**
+ * Discrete-event simulation of a fleet driven against a {@link SimulationTarget}. Everything random comes from one
+ * generator seeded with {@code seed}: the fleet, the catalogue, the Poisson arrivals of orders and telemetry
+ * batches, the drones and medications of every order and the flight times. Each order loads 1 to
+ * {@value #MAX_MEDICATIONS_PER_ORDER} medications into an available drone, which delivers them, returns and is
+ * available again once it arrives. Batteries drain while flying and recharge at the base, and are reported in
+ * the telemetry batches.
+ * <p>
+ * Events run one at a time in simulated time order. When paced ({@code speed > 0}) latencies are measured from
+ * the moment the call was due, so a slow call also shows up in the latency of the ones queued behind it.
+ */
+public class FleetSimulator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetSimulator.class);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_MEDICATIONS_PER_ORDER = 3;
+    private static final int MIN_FLIGHT_SECONDS = 5;
+    private static final int MAX_FLIGHT_SECONDS = 30;
+    private static final int IMPORT_CHUNK = 10_000;
+    private static final DroneType[] MODELS = DroneType.values();
+    private static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofNanos(100_000), Duration.ofNanos(250_000), Duration.ofNanos(500_000), Duration.ofMillis(1),
+            Duration.ofNanos(2_500_000), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500)
+    };
+
+    public enum Operation {
+        IMPORT_FLEET, SAVE_MEDICATION, LOAD, DELIVER, RETURN, ARRIVE, TELEMETRY
+    }
+
+    private final SimulationSettings settings;
+    private final SimulationTarget target;
+    private final ObjectMapper objectMapper;
+    private final SplittableRandom random;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final String[] serialNumbers;
+    private final int[] batteries;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final boolean[] flying;
+    private final int[] available;
+    private final int[] availableAt;
+    private final long[] medicationIds;
+    private int availableCount;
+    private long sequence;
+    private long unservedOrders;
+    private long digest = 17;
+    private long clockStart;
+
+    public FleetSimulator(SimulationSettings settings, SimulationTarget target, ObjectMapper objectMapper) {
+        if (settings.getDrones() <= 0 || settings.getMedications() <= 0 || settings.getDurationSeconds() <= 0) {
+            throw new IllegalArgumentException("A simulation needs drones, medications and a duration");
+        }
+        this.settings = settings;
+        this.target = target;
+        this.objectMapper = objectMapper;
+        this.random = new SplittableRandom(settings.getSeed());
+        var drones = settings.getDrones();
+        serialNumbers = new String[drones];
+        batteries = new int[drones];
+        latitudes = new double[drones];
+        longitudes = new double[drones];
+        flying = new boolean[drones];
+        available = new int[drones];
+        availableAt = new int[drones];
+        medicationIds = new long[settings.getMedications()];
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder("drones.simulation.calls")
+                    .tag("operation", operation.name())
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    .serviceLevelObjectives(LATENCY_BUCKETS)
+                    .distributionStatisticExpiry(Duration.ofDays(1))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry));
+            errors.put(operation, 0L);
+        }
+    }
+
+    public SimulationReport run() {
+        LOGGER.info("Simulating {} drones and {} medications for {}s with the seed {}",
+                settings.getDrones(), settings.getMedications(), settings.getDurationSeconds(), settings.getSeed());
+        createCatalogue();
+        createFleet();
+        schedule(arrival(0, settings.getOrdersPerSecond()), Operation.LOAD, -1);
+        schedule(arrival(0, settings.getTelemetryPerSecond() / Math.max(1, settings.getTelemetryBatch())), Operation.TELEMETRY, -1);
+        var duration = settings.getDurationSeconds() * SECOND;
+        clockStart = System.nanoTime();
+        Event event;
+        while ((event = events.poll()) != null && event.time <= duration && !Thread.currentThread().isInterrupted()) {
+            handle(event, pace(event.time));
+        }
+        return report((System.nanoTime() - clockStart) / 1e9);
+    }
+
+    private void createCatalogue() {
+        for (int i = 0; i < medicationIds.length; i++) {
+            var medication = new Medication(0, "SIMULATED_" + i, 5 + random.nextInt(196), "SIM_" + i, null);
+            var saved = call(Operation.SAVE_MEDICATION, System.nanoTime(), -1, () -> target.saveMedication(medication));
+            medicationIds[i] = saved == null ? -1 : saved.getId();
+        }
+    }
+
+    private void createFleet() {
+        var chunk = new ByteArrayOutputStream();
+        for (int i = 0; i < serialNumbers.length; i++) {
+            serialNumbers[i] = "SIM" + settings.getSeed() + "-" + i;
+            batteries[i] = 20 + random.nextInt(81);
+            latitudes[i] = -90 + 180 * random.nextDouble();
+            longitudes[i] = -180 + 360 * random.nextDouble();
+            availableAt[i] = -1;
+            if (batteries[i] >= DRONE_BATTERY_LIMIT) {
+                makeAvailable(i);
+            }
+            var drone = new Drone(serialNumbers[i], MODELS[random.nextInt(MODELS.length)], 0, batteries[i], null, null);
+            try {
+                chunk.writeBytes(objectMapper.writeValueAsBytes(drone));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            chunk.write('\n');
+            if ((i + 1) % IMPORT_CHUNK == 0 || i == serialNumbers.length - 1) {
+                var ndjson = chunk.toByteArray();
+                call(Operation.IMPORT_FLEET, System.nanoTime(), -1, () -> {
+                    target.importFleet(ndjson);
+                    return ndjson;
+                });
+                chunk.reset();
+            }
+        }
+    }
+
+    private void handle(Event event, long dueAt) {
+        switch (event.operation) {
+            case LOAD -> order(event, dueAt);
+            case DELIVER -> {
+                call(Operation.DELIVER, dueAt, event.drone, () -> {
+                    target.deliverAll(serialNumbers[event.drone]);
+                    return event;
+                });
+                schedule(event.time, Operation.RETURN, event.drone);
+            }
+            case RETURN -> {
+                call(Operation.RETURN, dueAt, event.drone, () -> {
+                    target.returnDrone(serialNumbers[event.drone]);
+                    return event;
+                });
+                schedule(event.time + flightTime(), Operation.ARRIVE, event.drone);
+            }
+            case ARRIVE -> {
+                call(Operation.ARRIVE, dueAt, event.drone, () -> {
+                    target.arriveDrone(serialNumbers[event.drone]);
+                    return event;
+                });
+                flying[event.drone] = false;
+                if (batteries[event.drone] >= DRONE_BATTERY_LIMIT) {
+                    makeAvailable(event.drone);
+                }
+            }
+            case TELEMETRY -> telemetry(event, dueAt);
+            default -> throw new IllegalStateException("Unexpected event " + event.operation);
+        }
+    }
+
+    private void order(Event event, long dueAt) {
+        schedule(arrival(event.time, settings.getOrdersPerSecond()), Operation.LOAD, -1);
+        if (availableCount == 0) {
+            unservedOrders++;
+            return;
+        }
+        var drone = available[random.nextInt(availableCount)];
+        removeAvailable(drone);
+        var ids = new ArrayList<Long>(MAX_MEDICATIONS_PER_ORDER);
+        var count = 1 + random.nextInt(MAX_MEDICATIONS_PER_ORDER);
+        for (int i = 0; i < count; i++) {
+            var medication = random.nextInt(medicationIds.length);
+            ids.add(medicationIds[medication]);
+            fold(medication);
+        }
+        var loaded = call(Operation.LOAD, dueAt, drone, () -> target.loadDrone(serialNumbers[drone], ids));
+        if (loaded != null && loaded.getState() == DroneState.LOADED && loaded.getMedications() != null && !loaded.getMedications().isEmpty()) {
+            flying[drone] = true;
+            schedule(event.time + flightTime(), Operation.DELIVER, drone);
+        } else {
+            makeAvailable(drone);
+        }
+    }
+
+    private void telemetry(Event event, long dueAt) {
+        schedule(arrival(event.time, settings.getTelemetryPerSecond() / Math.max(1, settings.getTelemetryBatch())), Operation.TELEMETRY, -1);
+        var readings = new ArrayList<TelemetryReading>(settings.getTelemetryBatch());
+        for (int i = 0; i < settings.getTelemetryBatch(); i++) {
+            var drone = random.nextInt(serialNumbers.length);
+            if (flying[drone]) {
+                batteries[drone] = Math.max(0, batteries[drone] - 1 - random.nextInt(3));
+                latitudes[drone] = Math.max(-90, Math.min(90, latitudes[drone] + random.nextDouble(-0.01, 0.01)));
+                longitudes[drone] = Math.max(-180, Math.min(180, longitudes[drone] + random.nextDouble(-0.01, 0.01)));
+            } else {
+                batteries[drone] = Math.min(100, batteries[drone] + 5);
+                if (batteries[drone] >= DRONE_BATTERY_LIMIT && availableAt[drone] < 0) {
+                    makeAvailable(drone);
+                }
+            }
+            readings.add(new TelemetryReading(serialNumbers[drone], batteries[drone], latitudes[drone], longitudes[drone], null));
+        }
+        call(Operation.TELEMETRY, dueAt, -1, () -> {
+            target.sendTelemetry(readings);
+            return readings;
+        });
+    }
+
+    /**
+     * Runs the call, timing it from {@code dueAt}, and folds it into the digest. Failures are counted and return
+     * null.
+     */
+    private <T> T call(Operation operation, long dueAt, int drone, Supplier<T> call) {
+        fold(operation.ordinal());
+        fold(drone < 0 ? -1 : serialNumbers[drone].hashCode());
+        try {
+            var result = call.get();
+            timers.get(operation).record(System.nanoTime() - dueAt, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            errors.merge(operation, 1L, Long::sum);
+            LOGGER.debug("{} failed: {}", operation, e.getMessage());
+            return null;
+        }
+    }
+
+    private void fold(long value) {
+        digest = 31 * digest + value;
+    }
+
+    /**
+     * Waits until the simulated time is due in wall time and returns that moment, or returns now when unpaced. An
+     * interrupt ends the wait, the run then stops before the next event.
+     */
+    private long pace(long time) {
+        if (settings.getSpeed() <= 0) {
+            return System.nanoTime();
+        }
+        var dueAt = clockStart + (long) (time / settings.getSpeed());
+        long wait;
+        while ((wait = dueAt - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(wait);
+        }
+        return dueAt;
+    }
+
+    private long arrival(long after, double perSecond) {
+        if (perSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return after + Math.max(1, (long) (-Math.log(1 - random.nextDouble()) / perSecond * SECOND));
+    }
+
+    private long flightTime() {
+        return (MIN_FLIGHT_SECONDS + random.nextInt(MAX_FLIGHT_SECONDS - MIN_FLIGHT_SECONDS + 1)) * SECOND;
+    }
+
+    private void schedule(long time, Operation operation, int drone) {
+        if (time != Long.MAX_VALUE) {
+            events.add(new Event(time, sequence++, operation, drone));
+        }
+    }
+
+    private void makeAvailable(int drone) {
+        if (availableAt[drone] < 0) {
+            available[availableCount] = drone;
+            availableAt[drone] = availableCount++;
+        }
+    }
+
+    private void removeAvailable(int drone) {
+        var position = availableAt[drone];
+        var last = available[--availableCount];
+        available[position] = last;
+        availableAt[last] = position;
+        availableAt[drone] = -1;
+    }
+
+    private SimulationReport report(double wallSeconds) {
+        var operations = new ArrayList<OperationReport>();
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            var snapshot = timers.get(operation).takeSnapshot();
+            var failed = errors.get(operation);
+            var count = snapshot.count() + failed;
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            var percentiles = new double[3];
+            var values = snapshot.percentileValues();
+            for (int i = 0; i < values.length && i < percentiles.length; i++) {
+                percentiles[i] = values[i].value(TimeUnit.MILLISECONDS);
+            }
+            var histogram = new LinkedHashMap<Double, Long>();
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                histogram.put(bucket.bucket(TimeUnit.MILLISECONDS), (long) bucket.count());
+            }
+            operations.add(new OperationReport(operation.name(), count, failed, wallSeconds == 0 ? 0 : count / wallSeconds,
+                    snapshot.mean(TimeUnit.MILLISECONDS), percentiles[0], percentiles[1], percentiles[2],
+                    snapshot.max(TimeUnit.MILLISECONDS), histogram));
+        }
+        var digestText = Long.toHexString(digest);
+        LOGGER.info("Simulation finished in {}s: {} calls ({} per second), {} orders found no drone, digest {}",
+                String.format("%.1f", wallSeconds), total, Math.round(wallSeconds == 0 ? 0 : total / wallSeconds), unservedOrders, digestText);
+        return new SimulationReport(settings, wallSeconds, total, wallSeconds == 0 ? 0 : total / wallSeconds, unservedOrders,
+                digestText, operations);
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long sequence;
+        private final Operation operation;
+        private final int drone;
+
+        private Event(long time, long sequence, Operation operation, int drone) {
+            this.time = time;
+            this.sequence = sequence;
+            this.operation = operation;
+            this.drone = drone;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            var byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.musalasoft.drones.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Calls the REST API of a running instance, one request at a time over a single connection. Answers other than
+ * 2xx are failures.
+ */
+public class HttpTarget implements SimulationTarget {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    public HttpTarget(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void importFleet(byte[] ndjson) {
+        send(post("/api/drones/import", MediaType.APPLICATION_NDJSON_VALUE, ndjson));
+    }
+
+    @Override
+    public Medication saveMedication(Medication medication) {
+        return read(send(post("/api/medications", MediaType.APPLICATION_JSON_VALUE, write(medication))), Medication.class);
+    }
+
+    @Override
+    public Drone loadDrone(String serialNumber, List<Long> medicationIds) {
+        var ids = medicationIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return read(send(request("/api/drones/load/" + serialNumber + "?medicationIds=" + ids).GET().build()), Drone.class);
+    }
+
+    @Override
+    public void deliverAll(String serialNumber) {
+        send(put("/api/drones/deliver/" + serialNumber));
+    }
+
+    @Override
+    public void returnDrone(String serialNumber) {
+        send(put("/api/drones/return/" + serialNumber));
+    }
+
+    @Override
+    public void arriveDrone(String serialNumber) {
+        send(put("/api/drones/arrive/" + serialNumber));
+    }
+
+    @Override
+    public void sendTelemetry(List<TelemetryReading> readings) {
+        send(post("/api/telemetry", MediaType.APPLICATION_JSON_VALUE, write(readings)));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return request(path).header("Content-Type", contentType).POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    private HttpRequest put(String path) {
+        return request(path).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private byte[] send(HttpRequest request) {
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + request.uri(), e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.musalasoft.drones.simulation;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.service.DroneImportService;
+import com.musalasoft.drones.service.DroneService;
+import com.musalasoft.drones.service.MedicationService;
+import com.musalasoft.drones.service.TelemetryService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Calls the services directly, so the run measures them without the HTTP layer.
+ */
+public class InProcessTarget implements SimulationTarget {
+
+    private final DroneService droneService;
+    private final MedicationService medicationService;
+    private final DroneImportService importService;
+    private final TelemetryService telemetryService;
+
+    public InProcessTarget(DroneService droneService, MedicationService medicationService,
+                           DroneImportService importService, TelemetryService telemetryService) {
+        this.droneService = droneService;
+        this.medicationService = medicationService;
+        this.importService = importService;
+        this.telemetryService = telemetryService;
+    }
+
+    @Override
+    public void importFleet(byte[] ndjson) {
+        try {
+            importService.importNdjson(new ByteArrayInputStream(ndjson));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Medication saveMedication(Medication medication) {
+        return medicationService.save(medication);
+    }
+
+    @Override
+    public Drone loadDrone(String serialNumber, List<Long> medicationIds) {
+        return droneService.loadDrone(serialNumber, medicationIds);
+    }
+
+    @Override
+    public void deliverAll(String serialNumber) {
+        droneService.deliverAll(serialNumber);
+    }
+
+    @Override
+    public void returnDrone(String serialNumber) {
+        droneService.returnDrone(serialNumber);
+    }
+
+    @Override
+    public void arriveDrone(String serialNumber) {
+        droneService.arriveDrone(serialNumber);
+    }
+
+    @Override
+    public void sendTelemetry(List<TelemetryReading> readings) {
+        telemetryService.ingest(readings);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.musalasoft.drones.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Calls of one kind made by a simulation run. Latencies are in milliseconds and only cover the successful calls,
+ * the histogram maps every bucket upper bound to the calls that took at most that long.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationReport {
+
+    private String operation;
+    private long count;
+    private long errors;
+    private double perSecond;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double maxMs;
+    private Map<Double, Long> histogram;
+
+}
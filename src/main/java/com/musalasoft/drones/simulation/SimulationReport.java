@@ -0,0 +1,26 @@
+package com.musalasoft.drones.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a simulation run. Two runs with the same settings and seed issue the same calls in the same order
+ * as long as the target answers the same way, which {@code digest} makes cheap to check.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationReport {
+
+    private SimulationSettings settings;
+    private double wallSeconds;
+    private long operations;
+    private double operationsPerSecond;
+    private long unservedOrders;
+    private String digest;
+    private List<OperationReport> operationReports;
+
+}
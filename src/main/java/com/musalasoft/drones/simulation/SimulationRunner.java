@@ -0,0 +1,116 @@
+package com.musalasoft.drones.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.service.DroneImportService;
+import com.musalasoft.drones.service.DroneService;
+import com.musalasoft.drones.service.MedicationService;
+import com.musalasoft.drones.service.TelemetryService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs a {@link FleetSimulator} once the application is ready, after the sample data is loaded, when the
+ * {@code simulation} profile is active. Writes its report and, unless {@code drones.simulation.exit-when-done} is
+ * off, stops the application.
+ * <p>
+ * The simulation runs on its own thread, so the listeners of {@link ApplicationReadyEvent} after this one aren't
+ * held for its whole duration. Closing the application before it ends interrupts it.
+ */
+@Component
+@Profile("simulation")
+public class SimulationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulationRunner.class);
+
+    private final SimulationTarget target;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final SimulationSettings settings;
+    private final String reportFile;
+    private final boolean exitWhenDone;
+    private volatile Thread thread;
+
+    public SimulationRunner(DroneService droneService, MedicationService medicationService, DroneImportService importService,
+                            TelemetryService telemetryService, ObjectMapper objectMapper, ConfigurableApplicationContext context,
+                            @Value("${drones.simulation.target:in-process}") String target,
+                            @Value("${drones.simulation.base-url:http://localhost:8080}") String baseUrl,
+                            @Value("${drones.simulation.seed:42}") long seed,
+                            @Value("${drones.simulation.drones:1000}") int drones,
+                            @Value("${drones.simulation.medications:100}") int medications,
+                            @Value("${drones.simulation.orders-per-second:20}") double ordersPerSecond,
+                            @Value("${drones.simulation.telemetry-per-second:200}") double telemetryPerSecond,
+                            @Value("${drones.simulation.telemetry-batch:50}") int telemetryBatch,
+                            @Value("${drones.simulation.duration:60}") int durationSeconds,
+                            @Value("${drones.simulation.speed:0}") double speed,
+                            @Value("${drones.simulation.report-file:}") String reportFile,
+                            @Value("${drones.simulation.exit-when-done:true}") boolean exitWhenDone) {
+        this.target = "http".equalsIgnoreCase(target)
+                ? new HttpTarget(baseUrl, objectMapper)
+                : new InProcessTarget(droneService, medicationService, importService, telemetryService);
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.settings = new SimulationSettings(seed, drones, medications, ordersPerSecond, telemetryPerSecond,
+                telemetryBatch, durationSeconds, speed);
+        this.reportFile = reportFile;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = new Thread(this::runAndReport, "fleet-simulation");
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        var running = thread;
+        if (running != null && running != Thread.currentThread()) {
+            running.interrupt();
+        }
+    }
+
+    private void runAndReport() {
+        try {
+            run();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("The simulation failed", e);
+        }
+        if (exitWhenDone && !Thread.currentThread().isInterrupted()) {
+            SpringApplication.exit(context, () -> 0);
+        }
+    }
+
+    private void run() throws IOException {
+        var report = new FleetSimulator(settings, target, objectMapper).run();
+        for (OperationReport operation : report.getOperationReports()) {
+            LOGGER.info("{}: {} calls, {} errors, {}/s, p50 {}ms, p90 {}ms, p99 {}ms, max {}ms", operation.getOperation(),
+                    operation.getCount(), operation.getErrors(), Math.round(operation.getPerSecond()),
+                    format(operation.getP50Ms()), format(operation.getP90Ms()), format(operation.getP99Ms()), format(operation.getMaxMs()));
+        }
+        if (StringUtils.hasText(reportFile)) {
+            var path = Path.of(reportFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            LOGGER.info("Simulation report written to {}", path.toAbsolutePath());
+        }
+    }
+
+    private static String format(double millis) {
+        return String.format("%.2f", millis);
+    }
+
+}
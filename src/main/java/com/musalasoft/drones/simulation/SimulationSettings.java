@@ -0,0 +1,21 @@
+package com.musalasoft.drones.simulation;
+
+import lombok.Value;
+
+/**
+ * Shape of a simulation run. Rates are per simulated second; {@code speed} is how many simulated seconds run per
+ * wall second, 0 runs every event as soon as the previous one is done.
+ */
+@Value
+public class SimulationSettings {
+
+    long seed;
+    int drones;
+    int medications;
+    double ordersPerSecond;
+    double telemetryPerSecond;
+    int telemetryBatch;
+    int durationSeconds;
+    double speed;
+
+}
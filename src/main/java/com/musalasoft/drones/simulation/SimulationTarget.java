@@ -0,0 +1,28 @@
+package com.musalasoft.drones.simulation;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+
+import java.util.List;
+
+/**
+ * What the simulator drives: the services of this process or a running instance over HTTP. Failed calls throw.
+ */
+public interface SimulationTarget {
+
+    void importFleet(byte[] ndjson);
+
+    Medication saveMedication(Medication medication);
+
+    Drone loadDrone(String serialNumber, List<Long> medicationIds);
+
+    void deliverAll(String serialNumber);
+
+    void returnDrone(String serialNumber);
+
+    void arriveDrone(String serialNumber);
+
+    void sendTelemetry(List<TelemetryReading> readings);
+
+}
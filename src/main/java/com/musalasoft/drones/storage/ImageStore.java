@@ -0,0 +1,76 @@
+package com.musalasoft.drones.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * Content-addressed blob store on the local disk. Every image is saved once under the SHA-256 of its bytes, so the
+ * id doubles as a strong ETag and identical images uploaded for different medications share the same file.
+ */
+@Component
+public class ImageStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageStore.class);
+    private static final Pattern IMAGE_ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+
+    public ImageStore(@Value("${drones.images.directory:${java.io.tmpdir}/drones-images}") Path directory) {
+        this.directory = directory;
+    }
+
+    public String store(byte[] content) {
+        var id = HexFormat.of().formatHex(sha256(content));
+        var target = directory.resolve(id);
+        if (Files.exists(target)) {
+            return id;
+        }
+        try {
+            Files.createDirectories(directory);
+            var temp = Files.createTempFile(directory, id, ".tmp");
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The image " + id + " couldn't be stored", e);
+        }
+        LOGGER.info("Stored image {} with {} bytes", id, content.length);
+        return id;
+    }
+
+    public Optional<Resource> find(String id) {
+        if (id == null || !IMAGE_ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        var file = directory.resolve(id);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
@@ -0,0 +1,290 @@
+package com.musalasoft.drones.telemetry;
+
+import com.musalasoft.drones.cache.ResourceVersions;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.repository.DroneRepository;
+import com.musalasoft.drones.service.DroneLocks;
+import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces telemetry readings in memory, so only the latest value of each field survives per drone, and writes
+ * the batteries that changed every {@code drones.telemetry.flush-interval} milliseconds with a single batched UPDATE
+ * (or into the {@link FleetStateStore} when it is ready, which writes them behind on its own).
+ * <p>
+ * A flush holds the {@link DroneLocks} of the drones it writes, like a load or a battery update, and compares every
+ * reading with the stored battery, so the first reading of a drone after startup raises its
+ * {@link BatteryChangedEvent} too. Readings carry no state, that only changes through the delivery and charging
+ * transitions. Positions are only kept in memory with the last flushed reading of every known drone.
+ * <p>
+ * Flushes are serialized with a {@link ReentrantLock}, not a monitor, so a virtual thread waiting on the database
+ * inside one doesn't pin its carrier. When the write fails the drained readings go back to the buffer, under the
+ * ones that arrived meanwhile, and are retried on the next flush. Since readings coalesce per drone the buffer
+ * stays bounded by the fleet size. Readings are only dropped when their drone doesn't exist or when the last write
+ * on shutdown fails, both counted in {@code drones.telemetry.dropped}.
+ */
+@Component
+public class TelemetryBuffer implements MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryBuffer.class);
+    private static final int QUERY_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DroneRepository droneRepository;
+    private final FleetStateStore fleetState;
+    private final DroneLocks locks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ResourceVersions versions;
+    private final Map<String, TelemetryReading> pending = new ConcurrentHashMap<>();
+    private final Map<String, TelemetryReading> latest = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder unknownDropped = new LongAdder();
+    private final LongAdder failedDropped = new LongAdder();
+
+    public TelemetryBuffer(JdbcTemplate jdbcTemplate, DroneRepository droneRepository, FleetStateStore fleetState,
+                           DroneLocks locks, PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher publisher, ResourceVersions versions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.droneRepository = droneRepository;
+        this.fleetState = fleetState;
+        this.locks = locks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.versions = versions;
+    }
+
+    /**
+     * Buffers the valid readings and returns how many of them were accepted. Readings older than the last flushed
+     * one of their drone are accepted but dropped.
+     */
+    public int record(List<TelemetryReading> readings) {
+        var accepted = 0;
+        for (TelemetryReading reading : readings) {
+            if (isValid(reading)) {
+                if (!isStale(reading)) {
+                    pending.merge(reading.getSerialNumber(), reading, TelemetryBuffer::merge);
+                }
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    public Optional<TelemetryReading> latest(String serialNumber) {
+        return Optional.ofNullable(latest.get(serialNumber));
+    }
+
+    public int pendingDrones() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${drones.telemetry.flush-interval:500}")
+    public void flush() {
+        flush(true);
+    }
+
+    /**
+     * Writes what is still pending on shutdown. No events are published, their listeners may be gone already.
+     */
+    @PreDestroy
+    public void close() {
+        flush(false);
+    }
+
+    private void flush(boolean publishing) {
+        flushLock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                flush(drain(), publishing);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flush(List<TelemetryReading> readings, boolean publishing) {
+        var serialNumbers = readings.stream().map(TelemetryReading::getSerialNumber).toList();
+        var changes = new ArrayList<BatteryChangedEvent>();
+        Set<String> known;
+        try {
+            known = transactionTemplate.execute(status -> locks.withLocks(serialNumbers, () -> apply(readings, changes)));
+        } catch (RuntimeException e) {
+            if (publishing) {
+                requeue(readings);
+                LOGGER.error("Couldn't flush the telemetry of {} drones, it will be retried", readings.size(), e);
+            } else {
+                failedDropped.add(readings.size());
+                LOGGER.error("Couldn't flush the telemetry of {} drones on shutdown, their readings are lost", readings.size(), e);
+            }
+            return;
+        }
+        var unknown = 0;
+        for (TelemetryReading reading : readings) {
+            if (known.contains(reading.getSerialNumber())) {
+                latest.merge(reading.getSerialNumber(), reading, TelemetryBuffer::merge);
+            } else {
+                unknown++;
+            }
+        }
+        if (publishing) {
+            changes.forEach(publisher::publishEvent);
+        }
+        if (unknown > 0) {
+            unknownDropped.add(unknown);
+            LOGGER.warn("{} telemetry readings were discarded because their drones don't exist", unknown);
+        }
+        LOGGER.debug("Flushed telemetry of {} drones, {} batteries changed", readings.size() - unknown, changes.size());
+    }
+
+    private List<TelemetryReading> drain() {
+        var readings = new ArrayList<TelemetryReading>(pending.size());
+        for (String serialNumber : pending.keySet()) {
+            var reading = pending.remove(serialNumber);
+            if (reading != null) {
+                readings.add(reading);
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * Puts back readings whose write failed. A reading recorded since they were drained is newer, so it wins.
+     */
+    private void requeue(List<TelemetryReading> readings) {
+        for (TelemetryReading reading : readings) {
+            pending.merge(reading.getSerialNumber(), reading, (recorded, requeued) -> merge(requeued, recorded));
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("drones.telemetry.pending", pending, Map::size)
+                .description("Drones with telemetry readings waiting for the next flush")
+                .register(registry);
+        FunctionCounter.builder("drones.telemetry.dropped", unknownDropped, LongAdder::sum)
+                .description("Telemetry readings dropped without reaching their drone")
+                .tag("reason", "unknown-drone")
+                .register(registry);
+        FunctionCounter.builder("drones.telemetry.dropped", failedDropped, LongAdder::sum)
+                .description("Telemetry readings dropped without reaching their drone")
+                .tag("reason", "write-failed")
+                .register(registry);
+    }
+
+    /**
+     * Writes the batteries that differ from the stored ones and returns the serial numbers of the drones that exist.
+     * Runs with the drones locked, so the stored batteries are the ones the changes are published against.
+     */
+    private Set<String> apply(List<TelemetryReading> readings, List<BatteryChangedEvent> changes) {
+        var batteries = fleetState.isReady() ? batteriesInFleetState(readings) : batteriesInDatabase(readings);
+        var batchArgs = new ArrayList<Object[]>();
+        for (TelemetryReading reading : readings) {
+            var previous = batteries.get(reading.getSerialNumber());
+            if (previous == null || reading.getBattery() == null || previous.equals(reading.getBattery())) {
+                continue;
+            }
+            if (fleetState.isReady()) {
+                fleetState.updateBattery(reading.getSerialNumber(), reading.getBattery());
+            } else {
+                batchArgs.add(new Object[]{reading.getBattery(), reading.getSerialNumber()});
+            }
+            versions.droneChanged(reading.getSerialNumber());
+            changes.add(new BatteryChangedEvent(reading.getSerialNumber(), previous, reading.getBattery()));
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(FleetStateStore.UPDATE_BATTERY_SQL, batchArgs, FleetStateStore.UPDATE_BATTERY_TYPES);
+        }
+        return batteries.keySet();
+    }
+
+    private Map<String, Integer> batteriesInFleetState(List<TelemetryReading> readings) {
+        var batteries = new HashMap<String, Integer>();
+        for (TelemetryReading reading : readings) {
+            fleetState.battery(reading.getSerialNumber()).ifPresent(battery -> batteries.put(reading.getSerialNumber(), battery));
+        }
+        return batteries;
+    }
+
+    private Map<String, Integer> batteriesInDatabase(List<TelemetryReading> readings) {
+        var batteries = new HashMap<String, Integer>();
+        for (int from = 0; from < readings.size(); from += QUERY_CHUNK) {
+            var serialNumbers = readings.subList(from, Math.min(from + QUERY_CHUNK, readings.size())).stream()
+                    .map(TelemetryReading::getSerialNumber)
+                    .toList();
+            for (DroneSummary drone : droneRepository.findSummariesBySerialNumberIn(serialNumbers)) {
+                batteries.put(drone.getSerialNumber(), drone.getBattery());
+            }
+        }
+        return batteries;
+    }
+
+    private boolean isStale(TelemetryReading reading) {
+        if (reading.getTimestamp() == null) {
+            return false;
+        }
+        var last = latest.get(reading.getSerialNumber());
+        return last != null && last.getTimestamp() != null && reading.getTimestamp() < last.getTimestamp();
+    }
+
+    private static boolean isValid(TelemetryReading reading) {
+        if (reading == null || StringUtils.isBlank(reading.getSerialNumber())) {
+            return false;
+        }
+        if (reading.getBattery() != null && (reading.getBattery() < 0 || reading.getBattery() > 100)) {
+            return false;
+        }
+        if ((reading.getLatitude() == null) != (reading.getLongitude() == null)) {
+            return false;
+        }
+        return reading.getLatitude() == null
+                || (Math.abs(reading.getLatitude()) <= 90 && Math.abs(reading.getLongitude()) <= 180);
+    }
+
+    /**
+     * Field by field, the value of the newest reading wins when present. Readings without timestamp are newer
+     * than the ones already buffered.
+     */
+    static TelemetryReading merge(TelemetryReading current, TelemetryReading incoming) {
+        var older = current;
+        var newer = incoming;
+        if (current.getTimestamp() != null && incoming.getTimestamp() != null
+                && incoming.getTimestamp() < current.getTimestamp()) {
+            older = incoming;
+            newer = current;
+        }
+        var hasPosition = newer.getLatitude() != null;
+        return new TelemetryReading(
+                newer.getSerialNumber(),
+                newer.getBattery() != null ? newer.getBattery() : older.getBattery(),
+                hasPosition ? newer.getLatitude() : older.getLatitude(),
+                hasPosition ? newer.getLongitude() : older.getLongitude(),
+                newer.getTimestamp() != null ? newer.getTimestamp() : older.getTimestamp());
+    }
+
+}
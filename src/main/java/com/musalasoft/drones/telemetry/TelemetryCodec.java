@@ -0,0 +1,89 @@
+package com.musalasoft.drones.telemetry;
+
+import com.musalasoft.drones.model.dto.TelemetryReading;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of a batch of telemetry readings ({@value #MEDIA_TYPE}), big-endian:
+ * <pre>
+ * int count
+ * count times:
+ *   UTF serialNumber
+ *   byte flags (1 battery, 2 position, 8 timestamp)
+ *   byte battery              if flags &amp; 1
+ *   double latitude, longitude if flags &amp; 2
+ *   long timestamp            if flags &amp; 8
+ * </pre>
+ * Flag 4 carried a drone state, which telemetry can't change, and is rejected like any other unknown flag.
+ */
+public final class TelemetryCodec {
+    public static final String MEDIA_TYPE = "application/vnd.drones.telemetry";
+
+    private static final int BATTERY = 1;
+    private static final int POSITION = 2;
+    private static final int TIMESTAMP = 8;
+    private static final int FLAGS = BATTERY | POSITION | TIMESTAMP;
+
+    private TelemetryCodec() {
+    }
+
+    public static List<TelemetryReading> decode(InputStream input) throws IOException {
+        var in = new DataInputStream(input);
+        var count = in.readInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid telemetry batch size " + count);
+        }
+        var readings = new ArrayList<TelemetryReading>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) {
+            var reading = new TelemetryReading();
+            reading.setSerialNumber(in.readUTF());
+            var flags = in.readByte();
+            if ((flags & ~FLAGS) != 0) {
+                throw new IllegalArgumentException("Unsupported telemetry flags " + flags);
+            }
+            if ((flags & BATTERY) != 0) {
+                reading.setBattery((int) in.readByte());
+            }
+            if ((flags & POSITION) != 0) {
+                reading.setLatitude(in.readDouble());
+                reading.setLongitude(in.readDouble());
+            }
+            if ((flags & TIMESTAMP) != 0) {
+                reading.setTimestamp(in.readLong());
+            }
+            readings.add(reading);
+        }
+        return readings;
+    }
+
+    public static void encode(List<TelemetryReading> readings, OutputStream output) throws IOException {
+        var out = new DataOutputStream(output);
+        out.writeInt(readings.size());
+        for (TelemetryReading reading : readings) {
+            out.writeUTF(reading.getSerialNumber());
+            var hasPosition = reading.getLatitude() != null && reading.getLongitude() != null;
+            out.writeByte((reading.getBattery() != null ? BATTERY : 0)
+                    | (hasPosition ? POSITION : 0)
+                    | (reading.getTimestamp() != null ? TIMESTAMP : 0));
+            if (reading.getBattery() != null) {
+                out.writeByte(reading.getBattery());
+            }
+            if (hasPosition) {
+                out.writeDouble(reading.getLatitude());
+                out.writeDouble(reading.getLongitude());
+            }
+            if (reading.getTimestamp() != null) {
+                out.writeLong(reading.getTimestamp());
+            }
+        }
+        out.flush();
+    }
+
+}
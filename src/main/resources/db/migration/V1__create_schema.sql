@@ -0,0 +1,30 @@
+create sequence medications_seq start with 1 increment by 50;
+
+create table drones (
+    serial_number varchar(255) not null,
+    model smallint,
+    weight integer,
+    battery integer,
+    state smallint,
+    primary key (serial_number)
+);
+
+create table medications (
+    id bigint not null,
+    name varchar(255),
+    weight integer,
+    code varchar(255),
+    image_id varchar(255),
+    primary key (id)
+);
+
+create table medications_drones (
+    serial_number varchar(255) not null,
+    medication_id bigint not null,
+    constraint fk_medications_drones_drone foreign key (serial_number) references drones,
+    constraint fk_medications_drones_medication foreign key (medication_id) references medications
+);
+
+create index idx_drones_weight on drones (weight);
+create index idx_drones_battery on drones (battery);
+create index idx_drones_state_battery_weight on drones (state, battery, weight);
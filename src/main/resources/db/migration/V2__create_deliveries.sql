@@ -0,0 +1,12 @@
+create sequence deliveries_seq start with 1 increment by 50;
+
+create table deliveries (
+    id bigint not null,
+    serial_number varchar(255),
+    medication_id bigint not null,
+    weight integer not null,
+    delivered_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_deliveries_serial_number on deliveries (serial_number);
@@ -0,0 +1,7 @@
+-- Weight of every loaded copy as it was when loaded, so deliveries release what the load added even after the
+-- medication is edited in the catalogue.
+alter table medications_drones add column weight integer;
+
+update medications_drones md set weight = (select m.weight from medications m where m.id = md.medication_id);
+
+alter table medications_drones alter column weight set not null;
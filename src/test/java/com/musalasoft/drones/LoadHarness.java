@@ -0,0 +1,118 @@
+package com.musalasoft.drones;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code load.clients} concurrent clients against the running application for {@code load.seconds}, each
+ * one sending small calls one after the other, and logs the throughput, the p50/p99 latencies and the peak of
+ * server threads and heap (per client) reached meanwhile. The clients share one connection each, so the peaks
+ * approximate the cost of an open connection.
+ */
+public abstract class LoadHarness {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadHarness.class);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 2000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    protected static final List<String> SERIAL_NUMBERS = List.of("EWO567", "POR212", "MVO285", "QPZ193");
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    /**
+     * Mostly battery checks and some loads of the seeded drones through the given API prefix.
+     */
+    protected static String droneCalls(String prefix, ThreadLocalRandom random) {
+        var serialNumber = SERIAL_NUMBERS.get(random.nextInt(SERIAL_NUMBERS.size()));
+        return random.nextInt(10) == 0
+                ? prefix + "/load/" + serialNumber + "?medicationIds=3"
+                : prefix + "/batteryCheck/" + serialNumber;
+    }
+
+    protected void runLoad(String label, Function<ThreadLocalRandom, String> paths) {
+        var memory = ManagementFactory.getMemoryMXBean();
+        var threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        var baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        var baselineThreads = threads.getThreadCount();
+        var peakHeap = new AtomicLong(baselineHeap);
+        var peakThreads = new AtomicLong(baselineThreads);
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+
+        var errors = new AtomicLong();
+        var latencies = new ArrayList<long[]>(CLIENTS);
+        var clients = new ArrayList<CompletableFuture<Void>>(CLIENTS);
+        var deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        var start = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            var recorded = new long[1 << 12];
+            latencies.add(recorded);
+            clients.add(loop(deadline, paths, recorded, new int[1], errors));
+        }
+        CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new)).join();
+        var elapsed = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        var all = latencies.stream().flatMapToLong(Arrays::stream).filter(latency -> latency > 0).sorted().toArray();
+        LOGGER.info("{}, {} clients: {} requests in {}s, {} requests/s, p50 {}ms, p99 {}ms, {} errors, "
+                        + "+{} threads, +{}KB of heap per client",
+                label, CLIENTS, all.length, String.format("%.1f", elapsed), Math.round(all.length / elapsed),
+                String.format("%.2f", percentile(all, 0.50) / 1e6), String.format("%.2f", percentile(all, 0.99) / 1e6),
+                errors.get(), peakThreads.get() - baselineThreads, (peakHeap.get() - baselineHeap) / 1024 / CLIENTS);
+        assertThat(all).isNotEmpty();
+        assertThat(errors.get()).isZero();
+    }
+
+    private CompletableFuture<Void> loop(long deadline, Function<ThreadLocalRandom, String> paths, long[] recorded,
+                                         int[] count, AtomicLong errors) {
+        if (System.nanoTime() >= deadline || count[0] == recorded.length) {
+            return CompletableFuture.completedFuture(null);
+        }
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + paths.apply(ThreadLocalRandom.current())))
+                .GET()
+                .build();
+        var sentAt = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 500) {
+                        errors.incrementAndGet();
+                    } else {
+                        recorded[count[0]++] = System.nanoTime() - sentAt;
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(deadline, paths, recorded, count, errors));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.musalasoft.drones;
+
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.repository.DroneRepository;
+import com.musalasoft.drones.repository.MedicationRepository;
+import com.musalasoft.drones.service.DroneService;
+import com.musalasoft.drones.service.MedicationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createMedication;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application twice with the prod profile on the same data directory: the schema comes from the
+ * migrations, nothing is seeded and a loaded drone survives the restart. The directory is passed as a command line
+ * argument, default properties would lose against the {@code drones.data.directory} of application-prod.properties.
+ */
+class PersistentStorageIT {
+
+    @TempDir
+    private Path dataDirectory;
+
+    @Test
+    void shouldKeepTheFleetBetweenRestarts() {
+        String serialNumber;
+        try (var context = start()) {
+            assertThat(context.getBean(DroneRepository.class).count()).isZero();
+            assertThat(context.getBean(MedicationRepository.class).count()).isZero();
+            assertThat(context.getBean(JdbcTemplate.class).queryForList("SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"type\" = 'SQL'", String.class))
+                    .containsExactly("1", "2", "3");
+
+            var medication = context.getBean(MedicationService.class).save(createMedication(0, "durableMedication", 100));
+            var droneService = context.getBean(DroneService.class);
+            serialNumber = droneService.registerDrone(createDrone("durableDrone", 100)).getSerialNumber();
+            droneService.loadDrone(serialNumber, List.of(medication.getId()));
+        }
+
+        try (var context = start()) {
+            var drone = context.getBean(DroneRepository.class).findWithMedicationsBySerialNumber(serialNumber).orElseThrow();
+            assertThat(drone.getState()).isEqualTo(DroneState.LOADED);
+            assertThat(drone.getMedications()).extracting("name").containsExactly("durableMedication");
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DronesApplication.class)
+                .profiles("prod")
+                .run("--server.port=0", "--drones.data.directory=" + dataDirectory);
+    }
+
+}
@@ -1,7 +1,10 @@
 package com.musalasoft.drones;
 
 import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
 import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadedMedication;
 
 import java.util.ArrayList;
 import java.util.UUID;
@@ -15,11 +18,33 @@ public class Utils {
     }
 
     public static Drone createDrone(String serialNumber, int battery) {
-        return new Drone(serialNumber, Lightweight, 80, battery, null, new ArrayList<>());
+        return new Drone(serialNumber, Lightweight, 80, battery, DroneState.IDLE, new ArrayList<>());
+    }
+
+    public static DroneSummary createDroneSummary(String serialNumber, int battery) {
+        return createDroneSummary(serialNumber, 80, battery, null);
+    }
+
+    public static DroneSummary createDroneSummary(String serialNumber, int weight, int battery, DroneState state) {
+        return new DroneSummary(serialNumber, Lightweight, weight, battery, state);
     }
 
     public static Medication createMedication(long id, String name, int weight) {
-        return new Medication(id, name, weight, UUID.randomUUID().toString(), new byte[0]);
+        return new Medication(id, name, weight, UUID.randomUUID().toString(), null);
+    }
+
+    public static LoadedMedication createLoadedMedication(long medicationId, int weight) {
+        return new LoadedMedication() {
+            @Override
+            public long getMedicationId() {
+                return medicationId;
+            }
+
+            @Override
+            public int getWeight() {
+                return weight;
+            }
+        };
     }
 
 }
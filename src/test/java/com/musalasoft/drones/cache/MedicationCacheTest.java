@@ -0,0 +1,95 @@
+package com.musalasoft.drones.cache;
+
+import com.musalasoft.drones.repository.MedicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static com.musalasoft.drones.Utils.createMedication;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MedicationCacheTest {
+
+    @Mock
+    private MedicationRepository repository;
+
+    private MedicationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MedicationCache(repository, 1 << 20, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldReadTheRepositoryOnlyOnMisses() {
+        var medication = createMedication(1, "medication1", 50);
+        when(repository.findById(1L)).thenReturn(Optional.of(medication));
+
+        assertThat(cache.get(1L)).contains(medication);
+        assertThat(cache.get(1L)).contains(medication);
+
+        verify(repository, times(1)).findById(1L);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadAllTheMissesWithOneQuery() {
+        var medication1 = createMedication(1, "medication1", 50);
+        var medication2 = createMedication(2, "medication2", 70);
+        when(repository.findById(1L)).thenReturn(Optional.of(medication1));
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(medication2));
+        cache.get(1L);
+
+        var medications = cache.getAllById(List.of(2L, 1L, 3L, 2L));
+
+        assertThat(medications).containsExactly(medication2, medication1);
+        verify(repository, times(1)).findAllById(List.of(2L, 3L));
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        var medication = createMedication(1, "medication1", 50);
+        var renamed = createMedication(1, "renamed", 50);
+        when(repository.findById(1L)).thenReturn(Optional.of(medication), Optional.of(renamed));
+        cache.get(1L);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L)).contains(renamed);
+    }
+
+    @Test
+    void shouldHandOutCopies() {
+        var medication = createMedication(1, "medication1", 50);
+        when(repository.findById(1L)).thenReturn(Optional.of(medication));
+
+        cache.get(1L).orElseThrow().setName("changed");
+
+        assertThat(cache.get(1L).orElseThrow().getName()).isEqualTo("medication1");
+    }
+
+    @Test
+    void shouldStayWithinItsWeight() {
+        var small = new MedicationCache(repository, 3L * MedicationCache.weightOf(createMedication(1, "medication1", 50)), Duration.ofMinutes(10));
+        for (long id = 1; id <= 20; id++) {
+            when(repository.findById(id)).thenReturn(Optional.of(createMedication(id, "medication" + id, 50)));
+            small.get(id);
+        }
+        small.cleanUp();
+
+        assertThat(small.size()).isLessThanOrEqualTo(4);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.musalasoft.drones.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionsTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+
+    private final ResourceVersions versions = new ResourceVersions();
+
+    @Test
+    void shouldMoveTheDroneAndTheFleetOnAChange() {
+        var fleet = versions.fleet();
+        var other = versions.drone("otherSerialNumber");
+
+        versions.droneChanged(SERIAL_NUMBER);
+
+        assertThat(versions.drone(SERIAL_NUMBER).getETag()).isNotEqualTo(fleet.getETag());
+        assertThat(versions.fleet()).isEqualTo(versions.drone(SERIAL_NUMBER));
+        assertThat(versions.drone("otherSerialNumber")).isEqualTo(other);
+        assertThat(versions.catalogue()).isEqualTo(fleet);
+    }
+
+    @Test
+    void shouldMoveTheMedicationAndTheCatalogueOnAChange() {
+        var catalogue = versions.catalogue();
+
+        versions.medicationChanged(1);
+
+        assertThat(versions.medication(1).getVersion()).isGreaterThan(catalogue.getVersion());
+        assertThat(versions.catalogue()).isEqualTo(versions.medication(1));
+        assertThat(versions.medication(2)).isEqualTo(catalogue);
+        assertThat(versions.fleet()).isEqualTo(catalogue);
+    }
+
+    @Test
+    void shouldStartOverFromTheBaselineWhenTheApplicationIsReady() {
+        versions.droneChanged(SERIAL_NUMBER);
+        var changed = versions.drone(SERIAL_NUMBER);
+
+        versions.onApplicationReady();
+
+        assertThat(versions.drone(SERIAL_NUMBER).getVersion()).isGreaterThan(changed.getVersion());
+        assertThat(versions.drone(SERIAL_NUMBER)).isEqualTo(versions.drone("otherSerialNumber"));
+        assertThat(versions.fleet()).isEqualTo(versions.catalogue());
+    }
+
+    @Test
+    void shouldOnlyMoveAfterTheTransactionCommits() {
+        var fleet = versions.fleet();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versions.droneChanged(SERIAL_NUMBER);
+
+            assertThat(versions.fleet()).isEqualTo(fleet);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(versions.fleet().getVersion()).isGreaterThan(fleet.getVersion());
+    }
+
+    @Test
+    void shouldUseWeakETags() {
+        assertThat(versions.fleet().getETag()).startsWith("W/\"").endsWith("\"");
+    }
+
+}
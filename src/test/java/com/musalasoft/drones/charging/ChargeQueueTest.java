@@ -0,0 +1,70 @@
+package com.musalasoft.drones.charging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChargeQueueTest {
+
+    private final ChargeQueue queue = new ChargeQueue();
+
+    @Test
+    void shouldServeTheLowestPriorityFirstAndTiesByArrival() {
+        queue.put("serialNumberTest1", 20, 20);
+        queue.put("serialNumberTest2", 10, 10);
+        queue.put("serialNumberTest3", 20, 20);
+
+        assertThat(queue.peek(3)).containsExactly("serialNumberTest2", "serialNumberTest1", "serialNumberTest3");
+        assertThat(queue.poll()).isEqualTo("serialNumberTest2");
+        assertThat(queue.poll()).isEqualTo("serialNumberTest1");
+        assertThat(queue.poll()).isEqualTo("serialNumberTest3");
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void shouldMoveADroneWhenItsPriorityChanges() {
+        queue.put("serialNumberTest1", 10, 10);
+        queue.put("serialNumberTest2", 20, 20);
+
+        queue.put("serialNumberTest1", 24, 24);
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.peek()).isEqualTo("serialNumberTest2");
+        assertThat(queue.battery("serialNumberTest1")).isEqualTo(24);
+    }
+
+    @Test
+    void shouldKeepTheHeapOrderedUnderRandomUpdatesAndRemovals() {
+        var random = new Random(42);
+        var expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 10_000; i++) {
+            var serialNumber = "DRONE" + random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(queue.remove(serialNumber)).isEqualTo(expected.remove(serialNumber) != null);
+            } else {
+                var battery = random.nextInt(26);
+                queue.put(serialNumber, battery, battery);
+                expected.put(serialNumber, battery);
+            }
+        }
+
+        var sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        assertThat(queue.peek(50)).extracting(expected::get)
+                .containsExactlyElementsOf(sorted.subList(0, 50).stream().map(Map.Entry::getValue).toList());
+        var previous = -1;
+        while (queue.size() > 0) {
+            var battery = queue.battery(queue.peek());
+            assertThat(battery).isGreaterThanOrEqualTo(previous);
+            previous = battery;
+            queue.poll();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.musalasoft.drones.charging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChargingSchedulerTest {
+
+    private final ChargingScheduler scheduler = new ChargingScheduler(1, 10, 100, 5);
+
+    @Test
+    void shouldChargeTheLowestBatteryFirst() {
+        scheduler.enqueue("serialNumberTest1", 20);
+        scheduler.enqueue("serialNumberTest2", 5);
+
+        assertThat(scheduler.nextToCharge()).isEqualTo("serialNumberTest2");
+        assertThat(scheduler.nextToCharge()).isNull();
+        assertThat(scheduler.waiting()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldChargeDronesInDemandFirst() {
+        scheduler.enqueue("serialNumberTest1", 10);
+        scheduler.enqueue("serialNumberTest2", 15);
+        scheduler.recordDemand("serialNumberTest2");
+        scheduler.recordDemand("serialNumberTest2");
+
+        assertThat(scheduler.nextToCharge()).isEqualTo("serialNumberTest2");
+    }
+
+    @Test
+    void shouldRebalanceWhenANewReadingArrives() {
+        scheduler.enqueue("serialNumberTest1", 10);
+        scheduler.enqueue("serialNumberTest2", 15);
+
+        scheduler.updateBattery("serialNumberTest2", 3);
+        scheduler.updateBattery("unknownSerialNumber", 1);
+
+        assertThat(scheduler.status(5).getNextInLine()).containsExactly("serialNumberTest2", "serialNumberTest1");
+    }
+
+    @Test
+    void shouldFreeTheSlotOnceTheDroneIsCharged() {
+        scheduler.enqueue("serialNumberTest1", 20);
+        scheduler.enqueue("serialNumberTest2", 22);
+        scheduler.nextToCharge();
+
+        assertThat(scheduler.advance(TimeUnit.SECONDS.toNanos(4)))
+                .containsExactly(new ChargeProgress("serialNumberTest1", 60, false));
+        assertThat(scheduler.advance(TimeUnit.SECONDS.toNanos(5)))
+                .containsExactly(new ChargeProgress("serialNumberTest1", 100, true));
+        assertThat(scheduler.isCharging("serialNumberTest1")).isFalse();
+        assertThat(scheduler.nextToCharge()).isEqualTo("serialNumberTest2");
+    }
+
+    @Test
+    void shouldNotQueueADroneThatIsBeingCharged() {
+        scheduler.enqueue("serialNumberTest1", 20);
+        scheduler.nextToCharge();
+
+        scheduler.enqueue("serialNumberTest1", 21);
+
+        assertThat(scheduler.waiting()).isZero();
+        assertThat(scheduler.release("serialNumberTest1")).isEqualTo(20);
+        assertThat(scheduler.charging()).isZero();
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.musalasoft.drones.config;
+
+import com.musalasoft.drones.LoadHarness;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"drones.virtual-threads.enabled=false", "spring.jpa.show-sql=false", "logging.level.com.musalasoft.drones.service=WARN"})
+public class PlatformThreadsLoadIT extends LoadHarness {
+
+    @Test
+    void shouldServeSmallBlockingCallsOnPlatformThreads() {
+        runLoad("Platform threads", random -> droneCalls("/api/drones", random));
+    }
+
+}
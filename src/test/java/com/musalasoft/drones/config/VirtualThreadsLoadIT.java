@@ -0,0 +1,17 @@
+package com.musalasoft.drones.config;
+
+import com.musalasoft.drones.LoadHarness;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@EnabledIf("com.musalasoft.drones.config.VirtualThreads#isSupported")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"drones.virtual-threads.enabled=true", "spring.jpa.show-sql=false", "logging.level.com.musalasoft.drones.service=WARN"})
+public class VirtualThreadsLoadIT extends LoadHarness {
+
+    @Test
+    void shouldServeSmallBlockingCallsOnVirtualThreads() {
+        runLoad("Virtual threads", random -> droneCalls("/api/drones", random));
+    }
+
+}
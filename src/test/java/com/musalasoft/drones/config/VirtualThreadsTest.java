@@ -0,0 +1,17 @@
+package com.musalasoft.drones.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsTest {
+
+    @Test
+    void shouldOnlyOfferVirtualThreadsFromJava21() {
+        var supported = Runtime.version().feature() >= 21;
+
+        assertThat(VirtualThreads.isSupported()).isEqualTo(supported);
+        assertThat(VirtualThreads.perTaskExecutor("test-").isPresent()).isEqualTo(supported);
+    }
+
+}
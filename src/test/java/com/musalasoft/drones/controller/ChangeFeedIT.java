@@ -0,0 +1,166 @@
+package com.musalasoft.drones.controller;
+
+import com.musalasoft.drones.feed.DroneChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Subscribers of /api/drones/changes receive the changes of the drones they asked for, and one node keeps up with
+ * {@code drones.feed.it.subscribers} of them (1000 by default) on its default settings.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.jpa.show-sql=false"})
+public class ChangeFeedIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeFeedIT.class);
+    private static final int SUBSCRIBERS = Integer.getInteger("drones.feed.it.subscribers", 1000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DroneChangeFeed feed;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<LineCollector> subscribers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        subscribers.forEach(LineCollector::cancel);
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (feed.subscribers() > 0 && System.nanoTime() < deadline) {
+            feed.heartbeat();
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    void shouldStreamTheChangesOfTheSubscribedDrone() throws Exception {
+        var subscriber = subscribe("/api/drones/changes?serialNumber=EWO567&type=BATTERY");
+        awaitSubscribers(1);
+
+        put("/api/drones/battery/MVO285?level=33");
+        put("/api/drones/battery/EWO567?level=57");
+
+        var event = subscriber.nextEvent(10);
+        assertThat(event).contains("event:battery");
+        assertThat(event).contains("\"serialNumber\":\"EWO567\"").contains("\"battery\":57");
+        assertThat(subscriber.nextEvent(1)).isNull();
+    }
+
+    @Test
+    void shouldFanOutToThousandsOfSubscribers() throws Exception {
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            subscribe("/api/drones/changes?type=BATTERY");
+        }
+        awaitSubscribers(SUBSCRIBERS);
+
+        var start = System.nanoTime();
+        put("/api/drones/battery/POR212?level=61");
+        var received = 0;
+        for (LineCollector subscriber : subscribers) {
+            var event = subscriber.nextEvent(30);
+            if (event != null && event.contains("\"battery\":61")) {
+                received++;
+            }
+        }
+        LOGGER.info("{} of {} subscribers received the change in {} ms", received, SUBSCRIBERS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        assertThat(received).isEqualTo(SUBSCRIBERS);
+    }
+
+    private LineCollector subscribe(String path) {
+        var collector = new LineCollector();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(collector));
+        subscribers.add(collector);
+        return collector;
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (feed.subscribers() < count && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(feed.subscribers()).isEqualTo(count);
+    }
+
+    private void put(String path) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(204);
+    }
+
+    /**
+     * Groups the lines of the stream into events, skipping comments.
+     */
+    private static final class LineCollector implements Flow.Subscriber<String> {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final StringBuilder event = new StringBuilder();
+        private Flow.Subscription subscription;
+
+        String nextEvent(int seconds) throws InterruptedException {
+            return events.poll(seconds, TimeUnit.SECONDS);
+        }
+
+        void cancel() {
+            try {
+                if (subscribed.await(1, TimeUnit.SECONDS)) {
+                    subscription.cancel();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                if (event.length() > 0) {
+                    events.add(event.toString());
+                    event.setLength(0);
+                }
+            } else if (!line.startsWith(":")) {
+                event.append(line).append('\n');
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+}
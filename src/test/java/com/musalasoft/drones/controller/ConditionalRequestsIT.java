@@ -0,0 +1,119 @@
+package com.musalasoft.drones.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pollers of the fleet and the catalogue get 304 Not Modified until something changes. Runs in a context of its own
+ * that never flushes telemetry, so readings posted by other tests can't move the fleet version between two polls.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "drones.telemetry.flush-interval=86400000")
+public class ConditionalRequestsIT {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void shouldAnswerNotModifiedUntilTheFleetChanges() throws Exception {
+        var serialNumber = register();
+        var first = get("/api/drones/available", null);
+        var eTag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("Last-Modified")).isEmpty();
+
+        var unchanged = get("/api/drones/available", eTag);
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+        assertThat(unchanged.body()).isEmpty();
+
+        put("/api/drones/battery/" + serialNumber + "?level=60");
+
+        var changed = get("/api/drones/available", eTag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isPresent().isNotEqualTo(eTag);
+    }
+
+    @Test
+    void shouldVersionEveryDroneOnItsOwn() throws Exception {
+        var polled = register();
+        var other = register();
+        var eTag = get("/api/drones/batteryCheck/" + polled, null).headers().firstValue("ETag").orElseThrow();
+
+        put("/api/drones/battery/" + other + "?level=30");
+        assertThat(get("/api/drones/batteryCheck/" + polled, eTag).statusCode()).isEqualTo(304);
+
+        put("/api/drones/battery/" + polled + "?level=45");
+        var changed = get("/api/drones/batteryCheck/" + polled, eTag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(new String(changed.body())).isEqualTo("45");
+    }
+
+    @Test
+    void shouldOnlySendTheETagWithTheContent() throws Exception {
+        var missing = get("/api/drones/batteryCheck/" + UUID.randomUUID(), null);
+        assertThat(missing.statusCode()).isEqualTo(404);
+        assertThat(missing.headers().firstValue("ETag")).isEmpty();
+
+        var medication = get("/api/medications/1", null);
+        var eTag = medication.headers().firstValue("ETag").orElseThrow();
+        var notModified = get("/api/medications/1", eTag);
+        assertThat(notModified.statusCode()).isEqualTo(304);
+        assertThat(notModified.headers().firstValue("ETag")).contains(eTag);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedUntilTheCatalogueChanges() throws Exception {
+        var eTag = get("/api/medications", null).headers().firstValue("ETag").orElseThrow();
+        assertThat(get("/api/medications", eTag).statusCode()).isEqualTo(304);
+
+        var request = HttpRequest.newBuilder(uri("/api/medications"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Ibuprofen\",\"weight\":40,\"code\":\"IBU_400\"}"))
+                .build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(201);
+
+        assertThat(get("/api/medications", eTag).statusCode()).isEqualTo(200);
+    }
+
+    /**
+     * Registers a drone of this test, so the shared sample drones are left as the other tests expect them.
+     */
+    private String register() throws Exception {
+        var serialNumber = UUID.randomUUID().toString();
+        var request = HttpRequest.newBuilder(uri("/api/drones"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"serialNumber\":\"" + serialNumber + "\",\"model\":\"Lightweight\",\"weight\":0,\"battery\":100}"))
+                .build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(201);
+        return serialNumber;
+    }
+
+    private HttpResponse<byte[]> get(String path, String ifNoneMatch) throws Exception {
+        var request = HttpRequest.newBuilder(uri(path)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void put(String path) throws Exception {
+        var request = HttpRequest.newBuilder(uri(path)).PUT(HttpRequest.BodyPublishers.noBody()).build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(204);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.musalasoft.drones.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static com.musalasoft.drones.config.WireFormatConfiguration.APPLICATION_CBOR_VALUE;
+import static com.musalasoft.drones.config.WireFormatConfiguration.APPLICATION_SMILE_VALUE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The drone, medication and telemetry endpoints speak CBOR and Smile when asked to, with the same content as JSON.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WireFormatIT {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    @Test
+    void shouldListTheAvailableDronesInEveryFormat() throws Exception {
+        var json = get("/api/drones/available", "application/json");
+        var cbor = get("/api/drones/available", APPLICATION_CBOR_VALUE);
+        var smile = get("/api/drones/available", APPLICATION_SMILE_VALUE);
+
+        assertThat(cbor.headers().firstValue("Content-Type")).contains(APPLICATION_CBOR_VALUE);
+        assertThat(smile.headers().firstValue("Content-Type")).contains(APPLICATION_SMILE_VALUE);
+        var expected = objectMapper.readTree(json.body());
+        assertThat(expected).isNotEmpty();
+        assertThat(cborMapper.readTree(cbor.body())).isEqualTo(expected);
+        assertThat(smileMapper.readTree(smile.body())).isEqualTo(expected);
+        assertThat(cbor.body().length).isLessThan(json.body().length);
+        assertThat(smile.body().length).isLessThan(json.body().length);
+    }
+
+    @Test
+    void shouldCreateAMedicationFromCbor() throws Exception {
+        var medication = new Medication(0, "Paracetamol", 50, "CBOR_1", null);
+        var request = HttpRequest.newBuilder(uri("/api/medications"))
+                .header("Content-Type", APPLICATION_CBOR_VALUE)
+                .header("Accept", APPLICATION_CBOR_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cborMapper.writeValueAsBytes(medication)))
+                .build();
+
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        var created = cborMapper.readValue(response.body(), Medication.class);
+        assertThat(created.getId()).isPositive();
+        assertThat(created.getCode()).isEqualTo("CBOR_1");
+    }
+
+    @Test
+    void shouldIngestTelemetryFromSmile() throws Exception {
+        var readings = List.of(new TelemetryReading("EWO567", 79, 1.0, 2.0, null),
+                new TelemetryReading("", 50, null, null, null));
+        var request = HttpRequest.newBuilder(uri("/api/telemetry"))
+                .header("Content-Type", APPLICATION_SMILE_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(smileMapper.writeValueAsBytes(readings)))
+                .build();
+
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(202);
+        var ack = objectMapper.readTree(response.body());
+        assertThat(ack.get("accepted").asInt()).isEqualTo(1);
+        assertThat(ack.get("rejected").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepTheBatteryOfAJsonReadingThatSendsAState() throws Exception {
+        var request = HttpRequest.newBuilder(uri("/api/telemetry"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("[{\"serialNumber\":\"POR212\",\"battery\":48,\"state\":\"DELIVERED\"}]"))
+                .build();
+
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(202);
+        var ack = objectMapper.readTree(response.body());
+        assertThat(ack.get("accepted").asInt()).isEqualTo(1);
+        assertThat(ack.get("rejected").asInt()).isZero();
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept) throws Exception {
+        var request = HttpRequest.newBuilder(uri(path)).header("Accept", accept).GET().build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
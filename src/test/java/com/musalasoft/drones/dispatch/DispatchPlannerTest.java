@@ -0,0 +1,69 @@
+package com.musalasoft.drones.dispatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchPlannerTest {
+
+    private final DispatchPlanner planner = new DispatchPlanner();
+
+    @Test
+    void shouldPackHeaviestOrdersFirstIntoTheDroneWithMoreBattery() {
+        var lowBattery = createDroneSummary("serialNumberTest1", 40);
+        var fullBattery = createDroneSummary("serialNumberTest2", 100);
+        var orders = List.of(createMedication(1, "medication1", 100), createMedication(2, "medication2", 400));
+
+        var plan = planner.plan(List.of(lowBattery, fullBattery), orders, PackingStrategy.FIRST_FIT_DECREASING);
+
+        assertThat(plan.getAssignments())
+                .containsOnly(Map.entry("serialNumberTest2", List.of(2L)), Map.entry("serialNumberTest1", List.of(1L)));
+        assertThat(plan.getUnassignedMedicationIds()).isEmpty();
+    }
+
+    @Test
+    void shouldChooseTheTightestDroneWithBestFit() {
+        var roomy = createDroneSummary("serialNumberTest1", 100);
+        var tight = createDroneSummary("serialNumberTest2", DRONE_WEIGHT_LIMIT - 120, 50, null);
+        var orders = List.of(createMedication(1, "medication1", 100));
+
+        var plan = planner.plan(List.of(roomy, tight), orders, PackingStrategy.BEST_FIT_DECREASING);
+
+        assertThat(plan.getAssignments()).containsExactly(Map.entry("serialNumberTest2", List.of(1L)));
+        assertThat(plan.getCapacityUtilization()).isEqualTo(100.0 / 120);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PackingStrategy.class)
+    void shouldNeverOverloadADrone(PackingStrategy strategy) {
+        var random = new Random(42);
+        var drones = IntStream.range(0, 200)
+                .mapToObj(i -> createDroneSummary("serialNumber" + i, random.nextInt(DRONE_WEIGHT_LIMIT), 25 + random.nextInt(76), null))
+                .toList();
+        var orders = IntStream.range(0, 2000)
+                .mapToObj(i -> createMedication(i, "medication" + i, 1 + random.nextInt(300)))
+                .toList();
+
+        var plan = planner.plan(drones, orders, strategy);
+
+        for (var drone : drones) {
+            var assignedWeight = plan.getAssignments().getOrDefault(drone.getSerialNumber(), List.of()).stream()
+                    .mapToInt(id -> orders.get(id.intValue()).getWeight())
+                    .sum();
+            assertThat(drone.getWeight() + assignedWeight).isLessThanOrEqualTo(DRONE_WEIGHT_LIMIT);
+        }
+        var assignedOrders = plan.getAssignments().values().stream().mapToInt(List::size).sum();
+        assertThat(assignedOrders + plan.getUnassignedMedicationIds().size()).isEqualTo(orders.size());
+    }
+
+}
@@ -0,0 +1,344 @@
+package com.musalasoft.drones.feed;
+
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.model.Enum.DroneChangeType;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.dto.DroneChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADING;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DroneChangeFeedTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+    private static final String OTHER_SERIAL_NUMBER = "otherSerialNumberTest";
+
+    private ManualExecutor writers;
+
+    @BeforeEach
+    void setUp() {
+        writers = new ManualExecutor();
+    }
+
+    @Test
+    void shouldDeliverTheChangesToTheSubscribersOfTheFleetAndOfTheirDrone() {
+        var feed = feed(16, 10);
+        var fleet = new RecordingEmitter();
+        var drone = new RecordingEmitter();
+        feed.subscribe(ChangeFilter.ALL, fleet);
+        feed.subscribe(new ChangeFilter(Set.of(SERIAL_NUMBER), null, null, null), drone);
+
+        feed.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, LOADING));
+        feed.onBatteryChanged(new BatteryChangedEvent(OTHER_SERIAL_NUMBER, 80, 70));
+        feed.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 2, 1));
+        assertThat(feed.dispatchPending()).isEqualTo(3);
+        writers.runAll();
+
+        assertThat(fleet.changes()).extracting(DroneChange::getType)
+                .containsExactly(DroneChangeType.STATE, DroneChangeType.BATTERY, DroneChangeType.LOAD);
+        assertThat(fleet.changes()).extracting(DroneChange::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(drone.changes()).extracting(DroneChange::getSerialNumber).containsOnly(SERIAL_NUMBER).hasSize(2);
+        assertThat(drone.changes().get(1).getLoaded()).isEqualTo(2);
+        assertThat(drone.names()).containsExactly("state", "load");
+    }
+
+    @Test
+    void shouldFilterByTypeStateAndBatteryThreshold() {
+        var feed = feed(16, 10);
+        var alerts = new RecordingEmitter();
+        var states = new RecordingEmitter();
+        feed.subscribe(new ChangeFilter(null, null, Set.of(NEEDS_TO_BE_CHARGED), 25), alerts);
+        feed.subscribe(new ChangeFilter(null, Set.of(DroneChangeType.STATE), null, null), states);
+
+        feed.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, LOADING, IDLE));
+        feed.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, NEEDS_TO_BE_CHARGED));
+        feed.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 90, 80));
+        feed.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 30, 20));
+        feed.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.NEEDS_TO_BE_CHARGED, 0, 0));
+        feed.dispatchPending();
+        writers.runAll();
+
+        assertThat(alerts.changes()).extracting(DroneChange::getSequence).containsExactly(2L, 4L, 5L);
+        assertThat(states.changes()).extracting(DroneChange::getState).containsExactly(IDLE, NEEDS_TO_BE_CHARGED);
+    }
+
+    @Test
+    void shouldCoalesceThenDropTheChangesOfASlowSubscriber() {
+        var feed = feed(2, 10);
+        var registry = new SimpleMeterRegistry();
+        feed.bindTo(registry);
+        var slow = new RecordingEmitter();
+        feed.subscribe(ChangeFilter.ALL, slow);
+
+        feed.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 100, 90));
+        feed.onStateChanged(new DroneStateChangedEvent(OTHER_SERIAL_NUMBER, IDLE, LOADING));
+        feed.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 90, 80));
+        feed.onBatteryChanged(new BatteryChangedEvent(OTHER_SERIAL_NUMBER, 50, 40));
+        feed.dispatchPending();
+        writers.runAll();
+
+        assertThat(slow.names()).containsExactly("dropped", "battery", "battery");
+        assertThat(slow.sent.get(0).data).isEqualTo(1L);
+        assertThat(slow.changes()).extracting(DroneChange::getBattery).containsExactly(80, 40);
+        assertThat(registry.get("drones.feed.coalesced").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("drones.feed.dropped").tag("stage", "subscriber").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropRatherThanReplaceThePendingLoadOfASlowSubscriber() {
+        var feed = feed(2, 10);
+        var slow = new RecordingEmitter();
+        feed.subscribe(ChangeFilter.ALL, slow);
+
+        feed.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 2, 0));
+        feed.onBatteryChanged(new BatteryChangedEvent(OTHER_SERIAL_NUMBER, 50, 40));
+        feed.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 1, 1));
+        feed.dispatchPending();
+        writers.runAll();
+
+        assertThat(slow.names()).containsExactly("dropped", "battery", "load");
+        assertThat(slow.sent.get(0).data).isEqualTo(1L);
+        assertThat(slow.changes()).extracting(DroneChange::getSequence).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldNotQueueChangesWithoutSubscribers() {
+        var feed = feed(16, 10);
+
+        feed.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, LOADING));
+
+        assertThat(feed.dispatchPending()).isZero();
+    }
+
+    @Test
+    void shouldRefuseSubscribersOverTheLimit() {
+        var feed = feed(16, 1);
+        feed.subscribe(ChangeFilter.ALL, new RecordingEmitter());
+
+        assertThatThrownBy(() -> feed.subscribe(ChangeFilter.ALL, new RecordingEmitter()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(feed.subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNeverGoOverTheLimitWhenSubscribingConcurrently() throws Exception {
+        var feed = feed(16, 100);
+        var accepted = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+        var futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        feed.subscribe(ChangeFilter.ALL, new RecordingEmitter());
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Over the limit
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(feed.subscribers()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldDropASubscriberStuckInASendAndKeepWritingToTheOthers() throws Exception {
+        var pool = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>());
+        var clock = new AtomicLong();
+        var feed = new DroneChangeFeed(pool, 64, 16, 10, 0L, 1000L, 4, clock::get);
+        var stuck = new BlockingEmitter();
+        var other = new BlockingEmitter();
+        other.release.countDown();
+        try {
+            feed.subscribe(ChangeFilter.ALL, stuck);
+            assertThat(stuck.sending.await(5, TimeUnit.SECONDS)).isTrue();
+            feed.subscribe(ChangeFilter.ALL, other);
+
+            clock.addAndGet(1000);
+            feed.sweep();
+
+            assertThat(other.sending.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(feed.subscribers()).isEqualTo(1);
+            assertThat(pool.getCorePoolSize()).isEqualTo(2);
+
+            stuck.release.countDown();
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pool.getCorePoolSize() != 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                feed.sweep();
+            }
+            assertThat(pool.getCorePoolSize()).isEqualTo(1);
+        } finally {
+            stuck.release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldUnsubscribeWhenTheConnectionIsGone() {
+        var feed = feed(16, 10);
+        var gone = new RecordingEmitter();
+        gone.failing = true;
+        feed.subscribe(new ChangeFilter(Set.of(SERIAL_NUMBER), null, null, null), gone);
+
+        writers.runAll();
+        feed.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, LOADING));
+        feed.dispatchPending();
+
+        assertThat(feed.subscribers()).isZero();
+        assertThat(writers.tasks).isEmpty();
+    }
+
+    @Test
+    void shouldSendAHeartbeatWhenNothingElseIsPending() {
+        var feed = feed(16, 10);
+        var idle = new RecordingEmitter();
+        feed.subscribe(ChangeFilter.ALL, idle);
+        writers.runAll();
+
+        feed.heartbeat();
+        writers.runAll();
+
+        assertThat(idle.sent).hasSize(2).allMatch(event -> event.text.startsWith(":heartbeat"));
+    }
+
+    private DroneChangeFeed feed(int bufferSize, int maxSubscribers) {
+        return new DroneChangeFeed(writers, 64, bufferSize, maxSubscribers, 0L, 1000L, 1, () -> 0L);
+    }
+
+    private static final class Sent {
+        private final String text;
+        private final Object data;
+
+        private Sent(String text, Object data) {
+            this.text = text;
+            this.data = data;
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Sent> sent = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            var text = new StringBuilder();
+            Object data = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof String value) {
+                    text.append(value);
+                } else {
+                    data = part.getData();
+                }
+            }
+            sent.add(new Sent(text.toString(), data));
+        }
+
+        List<DroneChange> changes() {
+            return sent.stream().map(event -> event.data).filter(DroneChange.class::isInstance).map(DroneChange.class::cast).toList();
+        }
+
+        List<String> names() {
+            return sent.stream().map(event -> event.text).filter(text -> text.contains("event:"))
+                    .map(text -> text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:"))))
+                    .toList();
+        }
+    }
+
+    /**
+     * Blocks every send until released, like a client that stopped reading.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted");
+            }
+        }
+    }
+
+    /**
+     * Runs the writers only when asked, so the buffers of the subscribers fill up as they would behind a slow client.
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+}
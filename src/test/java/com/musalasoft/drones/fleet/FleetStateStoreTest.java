@@ -0,0 +1,193 @@
+package com.musalasoft.drones.fleet;
+
+import com.musalasoft.drones.repository.DroneRepository;
+import com.musalasoft.drones.service.DroneLocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FleetStateStoreTest {
+
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batteryArgs;
+
+    private FleetStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FleetStateStore(droneRepository, jdbcTemplate, transactionManager, new DroneLocks(4), true);
+    }
+
+    @Test
+    void shouldAnswerReadsOnceLoaded() {
+        var full = createDroneSummary("serialNumberTest1", DRONE_WEIGHT_LIMIT, 100, IDLE);
+        var empty = createDroneSummary("serialNumberTest2", 10);
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(full, empty));
+
+        store.load();
+
+        assertThat(store.isReady()).isTrue();
+        assertThat(store.contains("serialNumberTest1")).isTrue();
+        assertThat(store.contains("unknownSerialNumber")).isFalse();
+        assertThat(store.battery("serialNumberTest1")).hasValue(100);
+        assertThat(store.availableDrones()).extracting("serialNumber").containsExactly("serialNumberTest2");
+        assertThat(store.dronesWithBatteryAtMost(25)).extracting("serialNumber").containsExactly("serialNumberTest2");
+    }
+
+    @Test
+    void shouldWriteBehindOnlyTheDirtyBatteries() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(
+                createDroneSummary("serialNumberTest1", 80, 100, IDLE), createDroneSummary("serialNumberTest2", 80, 50, IDLE),
+                createDroneSummary("serialNumberTest3", 50)));
+        store.load();
+
+        store.updateBattery("serialNumberTest1", 20);
+        store.flush();
+        store.flush();
+
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.contains("set battery")), batteryArgs.capture(), any(int[].class));
+        assertThat(batteryArgs.getValue()).singleElement().isEqualTo(new Object[]{20, "serialNumberTest1"});
+    }
+
+    @Test
+    void shouldKeepAPendingBatteryWhenTheDroneIsSaved() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 100, IDLE)));
+        store.load();
+        var drone = createDrone("serialNumberTest1", 100);
+        drone.setState(LOADED);
+
+        store.updateBattery("serialNumberTest1", 20);
+        store.put(drone);
+
+        assertThat(store.battery("serialNumberTest1")).hasValue(20);
+        assertThat(store.availableDrones()).singleElement().hasFieldOrPropertyWithValue("state", LOADED);
+        store.flush();
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.contains("set battery")), batteryArgs.capture(), any(int[].class));
+        assertThat(batteryArgs.getValue()).singleElement().isEqualTo(new Object[]{20, "serialNumberTest1"});
+    }
+
+    @Test
+    void shouldOnlyRecordASavedDroneOnceItCommits() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 100, IDLE)));
+        store.load();
+        var drone = createDrone("serialNumberTest1", 100);
+        drone.setState(LOADED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put(drone);
+            drone.setState(IDLE);
+
+            assertThat(store.availableDrones()).singleElement().hasFieldOrPropertyWithValue("state", IDLE);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.availableDrones()).singleElement().hasFieldOrPropertyWithValue("state", LOADED);
+    }
+
+    @Test
+    void shouldNotRecordARolledBackDrone() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 100, IDLE)));
+        store.load();
+        var drone = createDrone("serialNumberTest1", 100);
+        drone.setState(LOADED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put(drone);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.availableDrones()).singleElement().hasFieldOrPropertyWithValue("state", IDLE);
+    }
+
+    @Test
+    void shouldNotRecordARolledBackBattery() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 100, IDLE)));
+        store.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(store.updateBattery("serialNumberTest1", 20)).isTrue();
+            assertThat(store.updateBattery("unknownSerialNumber", 20)).isFalse();
+
+            assertThat(store.battery("serialNumberTest1")).hasValue(100);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.battery("serialNumberTest1")).hasValue(100);
+        store.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void shouldRetryAFailedFlush() {
+        when(droneRepository.findSummariesBy()).thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 100, IDLE)));
+        store.load();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new QueryTimeoutException("Timeout"))
+                .thenReturn(new int[]{1});
+
+        store.updateBattery("serialNumberTest1", 20);
+        store.flush();
+        store.flush();
+        store.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(eq("update drones set battery = ? where serial_number = ?"), anyList(), any(int[].class));
+    }
+
+    @Test
+    void shouldStayEmptyWhenDisabled() {
+        var disabled = new FleetStateStore(droneRepository, jdbcTemplate, transactionManager, new DroneLocks(4), false);
+
+        disabled.load();
+        disabled.put(createDrone("serialNumberTest1", 100));
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.contains("serialNumberTest1")).isFalse();
+        verify(droneRepository, never()).findSummariesBy();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.musalasoft.drones.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingTurboFilterTest {
+    private static final String TEMPLATE = "{} medications loaded to the drone {}, {} rejected for weight";
+
+    private final LoggerContext context = new LoggerContext();
+    private final ch.qos.logback.classic.Logger logger = context.getLogger("test");
+    private long now;
+    private RateLimitingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        logger.setLevel(Level.INFO);
+        filter = new RateLimitingTurboFilter(() -> now);
+        filter.setPermitsPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    void shouldDropTheEventsOfATemplateOverTheLimitUntilTheNextSecond() {
+        assertThat(decide(Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(Level.INFO, TEMPLATE)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(Level.INFO, "another template")).isEqualTo(FilterReply.NEUTRAL);
+
+        now += TimeUnit.SECONDS.toNanos(1);
+
+        assertThat(decide(Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void shouldNeverLimitErrorsNorCountDisabledEvents() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(decide(Level.ERROR, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(Level.DEBUG, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        }
+
+        assertThat(decide(Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+
+}
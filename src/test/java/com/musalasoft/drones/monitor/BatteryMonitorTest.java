@@ -0,0 +1,100 @@
+package com.musalasoft.drones.monitor;
+
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.BatteryThresholdCrossedEvent;
+import com.musalasoft.drones.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatteryMonitorTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+
+    private final List<Object> events = new ArrayList<>();
+    private final Map<String, Integer> batteries = new HashMap<>();
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new BatteryMonitor(events::add);
+    }
+
+    @Test
+    void shouldAlertOnlyWhenTheBatteryCrossesTheLimit() {
+        monitor.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 60, 40));
+        monitor.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 40, 20));
+        monitor.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 20, 10));
+        monitor.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 10, 90));
+
+        assertThat(events).containsExactly(
+                new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true),
+                new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 90, false));
+    }
+
+    @Test
+    void shouldReportLowDronesOnlyOnceWhenReconciling() {
+        var drones = List.of(createDroneSummary("serialNumberTest1", 25), createDroneSummary("serialNumberTest2", 10));
+
+        assertThat(monitor.reconcile(drones, batteries::get)).isEqualTo(2);
+        assertThat(monitor.reconcile(drones, batteries::get)).isZero();
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void shouldNotReportReconciledDronesAgainWhenTheirReadingArrives() {
+        monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get);
+        monitor.onBatteryChanged(new BatteryChangedEvent(SERIAL_NUMBER, 15, 12));
+
+        assertThat(events).containsExactly(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 15, true));
+    }
+
+    @Test
+    void shouldForgetDronesThatAreNoLongerLow() {
+        monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get);
+        batteries.put(SERIAL_NUMBER, 60);
+        monitor.reconcile(List.of(), batteries::get);
+
+        assertThat(monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRaiseTheRecoveryOfDronesTheSweepNoLongerFinds() {
+        monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get);
+        batteries.put(SERIAL_NUMBER, 60);
+
+        assertThat(monitor.reconcile(List.of(), batteries::get)).isZero();
+
+        assertThat(events).containsExactly(
+                new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 15, true),
+                new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 60, false));
+    }
+
+    @Test
+    void shouldKeepADroneLowWhenItsBatteryDroppedAgainAfterTheSweep() {
+        monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get);
+        batteries.put(SERIAL_NUMBER, 10);
+
+        monitor.reconcile(List.of(), batteries::get);
+
+        assertThat(events).containsExactly(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 15, true));
+    }
+
+    @Test
+    void shouldForgetDeletedDrones() {
+        monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get);
+
+        monitor.reconcile(List.of(), serialNumber -> {
+            throw new NotFoundException("Drone not found");
+        });
+
+        assertThat(monitor.reconcile(List.of(createDroneSummary(SERIAL_NUMBER, 15)), batteries::get)).isOne();
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.musalasoft.drones.monitor;
+
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DroneMetricsTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+
+    private SimpleMeterRegistry registry;
+    private DroneMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new DroneMetrics(registry);
+    }
+
+    @Test
+    void shouldCountLoadsByOutcomeAndTheirMedications() {
+        metrics.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 2, 1));
+        metrics.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 3, 0));
+        metrics.onLoadAttempted(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.NEEDS_TO_BE_CHARGED, 0, 0));
+
+        assertThat(registry.get("drones.loads").tag("status", "LOADED").counter().count()).isEqualTo(2);
+        assertThat(registry.get("drones.loads").tag("status", "NEEDS_TO_BE_CHARGED").counter().count()).isEqualTo(1);
+        assertThat(registry.get("drones.medications.loaded").counter().count()).isEqualTo(5);
+        assertThat(registry.get("drones.medications.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountTransitionsByTargetState() {
+        metrics.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, LOADING));
+        metrics.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, LOADING, LOADED));
+        metrics.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, LOADED, LOADING));
+
+        assertThat(registry.get("drones.state.transitions").tag("state", "LOADING").counter().count()).isEqualTo(2);
+        assertThat(registry.get("drones.state.transitions").tag("state", "LOADED").counter().count()).isEqualTo(1);
+        assertThat(registry.get("drones.state.transitions").tag("state", "IDLE").counter().count()).isZero();
+    }
+
+}
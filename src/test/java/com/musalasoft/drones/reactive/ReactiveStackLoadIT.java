@@ -0,0 +1,20 @@
+package com.musalasoft.drones.reactive;
+
+import com.musalasoft.drones.LoadHarness;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The load of {@code PlatformThreadsLoadIT} against the reactive stack, to compare their heap per connection and
+ * tail latencies.
+ */
+@SpringBootTest(classes = ReactiveDronesApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.config.name=" + ReactiveDronesApplication.CONFIG_NAME, "logging.level.com.musalasoft.drones.reactive=WARN"})
+public class ReactiveStackLoadIT extends LoadHarness {
+
+    @Test
+    void shouldServeSmallCallsOnTheEventLoop() {
+        runLoad("Reactive stack", random -> droneCalls("/api/drones", random));
+    }
+
+}
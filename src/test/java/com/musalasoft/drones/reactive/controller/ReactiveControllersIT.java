@@ -0,0 +1,157 @@
+package com.musalasoft.drones.reactive.controller;
+
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import com.musalasoft.drones.reactive.ReactiveDronesApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive stack answers {@code /api/drones} and {@code /api/medications} with the statuses of the servlet one,
+ * and streams lists as newline delimited JSON when asked to.
+ */
+@SpringBootTest(classes = ReactiveDronesApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.config.name=" + ReactiveDronesApplication.CONFIG_NAME)
+public class ReactiveControllersIT {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void shouldRegisterLoadAndDeliverADrone() {
+        var serialNumber = UUID.randomUUID().toString();
+        client.post().uri("/api/drones").bodyValue(createDrone(serialNumber, 100))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Drone.class).value(drone -> assertThat(drone.getState()).isEqualTo(IDLE));
+
+        client.get().uri("/api/drones/load/{serialNumber}?medicationIds=1,3", serialNumber)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Drone.class).value(drone -> {
+                    assertThat(drone.getState()).isEqualTo(LOADED);
+                    assertThat(drone.getWeight()).isEqualTo(80 + 100 + 20);
+                });
+        client.get().uri("/api/drones/medications/{serialNumber}", serialNumber)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Medication.class).hasSize(2);
+        client.put().uri("/api/drones/deliver/{serialNumber}", serialNumber)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(DroneSummary.class).value(drone -> assertThat(drone.getWeight()).isZero());
+        client.put().uri("/api/drones/deliver/{serialNumber}", serialNumber)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void shouldAnswerTheClientErrorsOfTheServletStack() {
+        client.get().uri("/api/drones/load/unknownSerialNumber?medicationIds=1")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.get().uri("/api/drones/batteryCheck/unknownSerialNumber")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.put().uri("/api/drones/battery/EWO567?level=101")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/api/drones/candidates?minBattery=-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/api/medications/-1")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri("/api/medications/-1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldAnswerNoContentForEmptyLists() {
+        var serialNumber = UUID.randomUUID().toString();
+        client.post().uri("/api/drones").bodyValue(createDrone(serialNumber, 100))
+                .exchange()
+                .expectStatus().isCreated();
+
+        client.get().uri("/api/drones/deliveries/{serialNumber}", serialNumber)
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/drones/medications/{serialNumber}", serialNumber)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/drones/medications/unknownSerialNumber")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldStreamListsAsNewlineDelimitedJson() {
+        var available = client.get().uri("/api/drones/available")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(DroneSummary.class)
+                .getResponseBody();
+        StepVerifier.create(available)
+                .expectNextMatches(drone -> drone.getWeight() < DRONE_WEIGHT_LIMIT)
+                .thenConsumeWhile(drone -> drone.getWeight() < DRONE_WEIGHT_LIMIT)
+                .verifyComplete();
+
+        var catalogue = client.get().uri("/api/medications/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(MedicationSummary.class)
+                .getResponseBody();
+        StepVerifier.create(catalogue)
+                .expectNextMatches(medication -> medication.getId() == 1L)
+                .thenConsumeWhile(medication -> medication.getId() > 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldManageTheCatalogue() {
+        var created = client.post().uri("/api/medications").bodyValue(createMedication(0, "medicationTest", 10))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Medication.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(created).isNotNull();
+
+        created.setWeight(30);
+        client.put().uri("/api/medications").bodyValue(created)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Medication.class).value(medication -> assertThat(medication.getWeight()).isEqualTo(30));
+        client.delete().uri("/api/medications/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/medications/page?after=0&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.musalasoft.drones.reactive.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.reactive.ReactiveDronesApplication;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import com.musalasoft.drones.reactive.repository.ReactiveDroneRepository;
+import com.musalasoft.drones.reactive.repository.ReactiveMedicationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERED;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.model.Enum.DroneState.RETURNING;
+import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static com.musalasoft.drones.service.DroneService.MAX_CANDIDATES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(classes = ReactiveDronesApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.config.name=" + ReactiveDronesApplication.CONFIG_NAME)
+public class ReactiveDroneServiceIT {
+
+    @Autowired
+    private ReactiveDroneService service;
+    @Autowired
+    private ReactiveMedicationService medicationService;
+    @Autowired
+    private ReactiveDroneRepository droneRepository;
+    @Autowired
+    private ReactiveMedicationRepository medicationRepository;
+
+    @Test
+    void shouldRegisterADroneOnce() {
+        var serialNumber = UUID.randomUUID().toString();
+
+        var created = service.registerDrone(createDrone(serialNumber, 100)).block();
+        var again = service.registerDrone(createDrone(serialNumber, 10)).block();
+
+        assertThat(created).isNotNull();
+        assertThat(created.getState()).isEqualTo(IDLE);
+        assertThat(again).usingRecursiveComparison().isEqualTo(created);
+    }
+
+    @Test
+    void shouldRefuseADroneWithoutSerialNumber() {
+        StepVerifier.create(service.registerDrone(createDrone(" ", 100)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldLoadTheMedicationsThatFitWithTheirWeight() {
+        var serialNumber = registeredDrone(100);
+        var light = save("medicationTest1", 20);
+        var heavy = save("medicationTest2", 400);
+        var tooHeavy = save("medicationTest3", 500);
+
+        var loaded = service.loadDrone(serialNumber, List.of(light.getId(), heavy.getId(), tooHeavy.getId(), light.getId())).block();
+
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getState()).isEqualTo(LOADED);
+        assertThat(loaded.getWeight()).isEqualTo(80 + 20 + 400);
+        assertThat(loaded.getMedications()).extracting(Medication::getId).containsExactly(light.getId(), heavy.getId());
+        assertThat(droneRepository.findLoadedCopies(serialNumber).collectList().block())
+                .extracting(LoadedCopy::getMedicationId, LoadedCopy::getWeight)
+                .containsExactlyInAnyOrder(tuple(light.getId(), 20),
+                        tuple(heavy.getId(), 400));
+    }
+
+    @Test
+    void shouldRefuseToLoadADroneWithALowBattery() {
+        var serialNumber = registeredDrone(DRONE_BATTERY_LIMIT - 1);
+        var medication = save("medicationTest", 20);
+
+        var refused = service.loadDrone(serialNumber, List.of(medication.getId())).block();
+
+        assertThat(refused).isNotNull();
+        assertThat(refused.getState()).isEqualTo(NEEDS_TO_BE_CHARGED);
+        assertThat(refused.getMedications()).isEmpty();
+        assertThat(droneRepository.findById(serialNumber).block()).extracting("state", "weight").containsExactly(NEEDS_TO_BE_CHARGED, 80);
+    }
+
+    @Test
+    void shouldAnswerNotFoundAndConflictLikeTheServletStack() {
+        var serialNumber = registeredDrone(100);
+
+        StepVerifier.create(service.loadDrone("unknownSerialNumber", List.of(1L)))
+                .expectError(NotFoundException.class)
+                .verify();
+        StepVerifier.create(service.deliverAll(serialNumber))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(service.deliveries("unknownSerialNumber"))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldNeverOverloadADroneWithConcurrentLoads() {
+        var serialNumber = registeredDrone(100);
+        var medication = save("medicationTest", 100);
+
+        Flux.range(0, 20)
+                .flatMap(i -> service.loadDrone(serialNumber, List.of(medication.getId())).subscribeOn(Schedulers.parallel()), 20)
+                .blockLast();
+
+        var drone = droneRepository.findById(serialNumber).block();
+        var copies = droneRepository.findLoadedCopies(serialNumber).collectList().block();
+        assertThat(drone).isNotNull();
+        assertThat(drone.getWeight()).isEqualTo(80 + 4 * 100).isLessThanOrEqualTo(DRONE_WEIGHT_LIMIT);
+        assertThat(copies).hasSize(4);
+    }
+
+    @Test
+    void shouldReleaseTheLoadedWeightOnDelivery() {
+        var serialNumber = registeredDrone(100);
+        var first = save("medicationTest1", 100);
+        var second = save("medicationTest2", 50);
+        service.loadDrone(serialNumber, List.of(first.getId(), second.getId())).block();
+        first.setWeight(300);
+        medicationService.update(first).block();
+
+        var delivered = service.deliverMedication(serialNumber, first.getId()).block();
+
+        assertThat(delivered).isNotNull();
+        assertThat(delivered.getState()).isEqualTo(DELIVERING);
+        assertThat(delivered.getWeight()).isEqualTo(80 + 50);
+        assertThat(service.deliverAll(serialNumber).block()).extracting("state", "weight").containsExactly(DELIVERED, 0);
+        assertThat(service.deliveries(serialNumber).collectList().block())
+                .extracting("medicationId", "weight")
+                .containsExactly(tuple(first.getId(), 100),
+                        tuple(second.getId(), 50));
+        assertThat(service.returnDrone(serialNumber).block()).extracting("state").isEqualTo(RETURNING);
+        assertThat(service.arriveDrone(serialNumber).block()).extracting("state").isEqualTo(IDLE);
+    }
+
+    @Test
+    void shouldLoadManyDronesInBulk() {
+        var serialNumber1 = registeredDrone(100);
+        var serialNumber2 = registeredDrone(DRONE_BATTERY_LIMIT - 1);
+        var medication = save("medicationTest", 200);
+
+        var results = service.loadDrones(List.of(
+                new LoadRequest(serialNumber1, List.of(medication.getId(), medication.getId(), medication.getId(), -1L)),
+                new LoadRequest(serialNumber2, List.of(medication.getId())),
+                new LoadRequest("unknownSerialNumber", List.of(medication.getId())))).block();
+
+        assertThat(results).extracting("status").containsExactly(LoadStatus.LOADED, LoadStatus.NEEDS_TO_BE_CHARGED, LoadStatus.NOT_FOUND);
+        assertThat(results.get(0).getLoadedMedicationIds()).containsExactly(medication.getId(), medication.getId());
+        assertThat(results.get(0).getRejectedMedicationIds()).containsExactly(medication.getId());
+        assertThat(results.get(0).getUnknownMedicationIds()).containsExactly(-1L);
+        assertThat(droneRepository.findById(serialNumber1).block()).extracting("state", "weight").containsExactly(LOADED, 80 + 400);
+        assertThat(droneRepository.findLoadedCopies(serialNumber1).collectList().block()).hasSize(2);
+        assertThat(droneRepository.findById(serialNumber2).block()).extracting("state").isEqualTo(NEEDS_TO_BE_CHARGED);
+    }
+
+    @Test
+    void shouldReturnBestLoadCandidatesFirst() {
+        registeredDrone(100);
+
+        var candidates = service.loadCandidates(90, 100, MAX_CANDIDATES).collectList().block();
+
+        assertThat(candidates).isNotEmpty()
+                .allMatch(drone -> drone.getState() == IDLE && drone.getBattery() >= 90 && drone.getWeight() <= DRONE_WEIGHT_LIMIT - 100)
+                .isSortedAccordingTo(Comparator.comparingInt(DroneSummary::getBattery).reversed().thenComparingInt(DroneSummary::getWeight));
+        StepVerifier.create(service.loadCandidates(-1, 0, 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(service.loadCandidates(0, 0, MAX_CANDIDATES + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldUpdateTheBatteryOfAnExistingDrone() {
+        var serialNumber = registeredDrone(100);
+
+        service.updateBattery(serialNumber, 40).block();
+
+        assertThat(service.droneBatteryLevel(serialNumber).block()).isEqualTo(40);
+        StepVerifier.create(service.updateBattery(serialNumber, 101))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(service.updateBattery("unknownSerialNumber", 40))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldTakeMedicationIdsFromTheSharedSequence() {
+        var first = save("medicationTest1", 10);
+        var second = save("medicationTest2", 10);
+
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(medicationRepository.findById(second.getId()).block()).isEqualTo(second);
+    }
+
+    private String registeredDrone(int battery) {
+        var serialNumber = UUID.randomUUID().toString();
+        service.registerDrone(createDrone(serialNumber, battery)).block();
+        return serialNumber;
+    }
+
+    private Medication save(String name, int weight) {
+        return medicationService.save(createMedication(0, name, weight)).block();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.musalasoft.drones.reactive.service;
+
+import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.dto.MedicationSummary;
+import com.musalasoft.drones.reactive.ReactiveDronesApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Comparator;
+
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.service.MedicationService.MAX_PAGE_SIZE;
+import static com.musalasoft.drones.service.MedicationService.STREAM_BATCH_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveDronesApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.config.name=" + ReactiveDronesApplication.CONFIG_NAME)
+public class ReactiveMedicationServiceIT {
+
+    @Autowired
+    private ReactiveMedicationService service;
+
+    @Test
+    void shouldPageTheCatalogueByIdLikeTheServletStack() {
+        var first = service.getPage(0, 2).block();
+
+        assertThat(first).isNotNull();
+        assertThat(first.getItems()).extracting(MedicationSummary::getId).containsExactly(1L, 2L);
+        assertThat(first.getNextCursor()).isEqualTo(2L);
+        var next = service.getPage(first.getNextCursor(), 2).block();
+        assertThat(next.getItems()).extracting(MedicationSummary::getId).containsExactly(3L, 4L);
+        var all = service.getAllSummaries().collectList().block();
+        var last = service.getPage(all.get(all.size() - 2).getId(), 0).block();
+        assertThat(last.getItems()).containsExactly(all.get(all.size() - 1));
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(service.getPage(0, MAX_PAGE_SIZE + 1).block().getItems()).hasSizeLessThanOrEqualTo(MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldStreamTheWholeCatalogueAsItIsRequested() {
+        Flux.range(0, STREAM_BATCH_SIZE + 1)
+                .concatMap(i -> service.save(createMedication(0, "medicationTest" + i, 10)))
+                .blockLast();
+        var all = service.getAllSummaries().collectList().block();
+
+        StepVerifier.create(service.streamAll(), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNext(all.get(0), all.get(1), all.get(2))
+                .thenCancel()
+                .verify();
+        assertThat(service.streamAll().collectList().block())
+                .isEqualTo(all)
+                .isSortedAccordingTo(Comparator.comparingLong(MedicationSummary::getId));
+    }
+
+    @Test
+    void shouldCreateUpdateAndDeleteAMedication() {
+        var created = service.save(createMedication(0, "medicationTest", 10)).block();
+        assertThat(created).isNotNull();
+        assertThat(created.getId()).isPositive();
+
+        created.setName("medicationTest2");
+        created.setWeight(20);
+        service.update(created).block();
+
+        assertThat(service.getOneById(created.getId()).block()).extracting("name", "weight").containsExactly("medicationTest2", 20);
+        service.delete(created.getId()).block();
+        StepVerifier.create(service.getOneById(created.getId()))
+                .expectError(NotFoundException.class)
+                .verify();
+        StepVerifier.create(service.delete(created.getId()))
+                .expectError(NotFoundException.class)
+                .verify();
+        StepVerifier.create(service.update(created))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+}
@@ -1,11 +1,14 @@
 package com.musalasoft.drones.schedules;
 
+import com.musalasoft.drones.monitor.BatteryMonitor;
 import com.musalasoft.drones.service.DroneService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
@@ -16,7 +19,7 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
-import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createDroneSummary;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
@@ -26,14 +29,18 @@ public class DroneTasksTest {
 
     @Mock
     private DroneService droneService;
+    @Spy
+    private BatteryMonitor batteryMonitor = new BatteryMonitor(event -> { });
+    @Spy
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
     @InjectMocks
     private DroneTasks droneTasks;
 
     @Test
     void shouldShowDronesWithLowEnergy(CapturedOutput capturedOutput) {
-        var drone1 = createDrone("serialNumberTest1", 25);
-        var drone2 = createDrone("serialNumberTest2", 10);
+        var drone1 = createDroneSummary("serialNumberTest1", 25);
+        var drone2 = createDroneSummary("serialNumberTest2", 10);
         var date = OffsetDateTime.now(Clock.system(ZoneOffset.UTC));
 
         when(droneService.dronesThatNeedEnergy()).thenReturn(List.of(drone1, drone2));
@@ -46,11 +53,35 @@ public class DroneTasksTest {
             var output = capturedOutput.getOut();
 
             assertThat(output)
-                    .contains("Starting to check drones batteries at " + date.format(DateTimeFormatter.ISO_INSTANT))
-                    .contains(drone1.getSerialNumber() + " drone needs to be charged, it has " + drone1.getBattery() + "% of battery")
-                    .contains(drone2.getSerialNumber() + " drone needs to be charged, it has " + drone2.getBattery() + "% of battery")
-                    .contains("Finish battery check at " + date.format(DateTimeFormatter.ISO_INSTANT));
+                    .contains("Battery check started at " + date.format(DateTimeFormatter.ISO_INSTANT)
+                            + ": 2 drones need to be charged, 2 of them weren't reported yet");
         }
     }
 
+    @Test
+    void shouldNotReportTheSameDronesOnEverySweep(CapturedOutput capturedOutput) {
+        var drone = createDroneSummary("serialNumberTest1", 25);
+
+        when(droneService.dronesThatNeedEnergy()).thenReturn(List.of(drone));
+
+        droneTasks.reportCurrentTime();
+        droneTasks.reportCurrentTime();
+
+        var output = capturedOutput.getOut();
+
+        assertThat(output)
+                .contains("1 drones need to be charged, 1 of them weren't reported yet")
+                .contains("1 drones need to be charged, 0 of them weren't reported yet");
+    }
+
+    @Test
+    void shouldTimeEverySweep() {
+        when(droneService.dronesThatNeedEnergy()).thenReturn(List.of());
+
+        droneTasks.reportCurrentTime();
+        droneTasks.reportCurrentTime();
+
+        assertThat(registry.get("drones.battery.sweep").timer().count()).isEqualTo(2);
+    }
+
 }
@@ -0,0 +1,180 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.charging.ChargingScheduler;
+import com.musalasoft.drones.event.BatteryThresholdCrossedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChargingServiceTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+
+    @Mock
+    private DroneService droneService;
+
+    private final AtomicLong clock = new AtomicLong();
+    private ChargingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ChargingService(droneService, new ChargingScheduler(1, 25, 100, 5), true, clock::get);
+    }
+
+    @Test
+    void shouldChargeALowDroneAndSetItBackToIdle() {
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+
+        service.tick();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        service.tick();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        service.tick();
+
+        var inOrder = inOrder(droneService);
+        inOrder.verify(droneService).startCharging(SERIAL_NUMBER);
+        inOrder.verify(droneService).updateBatteries(Map.of(SERIAL_NUMBER, 70));
+        inOrder.verify(droneService).updateBatteries(Map.of(SERIAL_NUMBER, 100));
+        inOrder.verify(droneService).finishCharging(SERIAL_NUMBER, 100);
+        assertThat(service.status().getCharging()).isEmpty();
+    }
+
+    @Test
+    void shouldWriteTheBatteriesOfATickTogether() {
+        service = new ChargingService(droneService, new ChargingScheduler(2, 25, 100, 5), true, clock::get);
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest1", 10, true));
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest2", 20, true));
+        service.tick();
+        when(droneService.updateBatteries(anyMap())).thenReturn(Set.of("serialNumberTest2"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        service.tick();
+
+        verify(droneService).updateBatteries(Map.of("serialNumberTest1", 35, "serialNumberTest2", 45));
+        verify(droneService, never()).updateBattery(anyString(), anyInt());
+        assertThat(service.status().getCharging()).extracting("serialNumber").containsExactly("serialNumberTest1");
+    }
+
+    @Test
+    void shouldStopWaitingWhenTheDroneIsChargedElsewhere() {
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 90, false));
+
+        service.tick();
+
+        verifyNoInteractions(droneService);
+    }
+
+    @Test
+    void shouldWaitForABusyDroneToBeIdleAgain() {
+        when(droneService.startCharging(SERIAL_NUMBER)).thenThrow(new IllegalStateException("busy"));
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+        service.tick();
+        assertThat(service.status().getWaiting()).isZero();
+        assertThat(service.status().getCharging()).isEmpty();
+
+        service.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, DELIVERING, IDLE));
+
+        assertThat(service.status().getNextInLine()).containsExactly(SERIAL_NUMBER);
+    }
+
+    @Test
+    void shouldFreeTheSlotOfADroneThatLeftCharging() {
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest1", 10, true));
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest2", 20, true));
+        service.tick();
+        assertThat(service.status().getCharging()).extracting("serialNumber").containsExactly("serialNumberTest1");
+
+        service.onStateChanged(new DroneStateChangedEvent("serialNumberTest1", CHARGING, DELIVERING));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        service.tick();
+
+        assertThat(service.status().getCharging()).extracting("serialNumber").containsExactly("serialNumberTest2");
+        verify(droneService).startCharging("serialNumberTest2");
+        verify(droneService, never()).updateBatteries(argThat(batteries -> batteries.containsKey("serialNumberTest1")));
+
+        service.onStateChanged(new DroneStateChangedEvent("serialNumberTest1", DELIVERING, IDLE));
+
+        assertThat(service.status().getNextInLine()).containsExactly("serialNumberTest1");
+    }
+
+    @Test
+    void shouldKeepTheSlotWhenTheDroneStartsCharging() {
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+        service.tick();
+
+        service.onStateChanged(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, CHARGING));
+
+        assertThat(service.status().getCharging()).extracting("serialNumber").containsExactly(SERIAL_NUMBER);
+    }
+
+    @Test
+    void shouldFreeTheSlotAndRetryWhenChargingFailsUnexpectedly() {
+        when(droneService.startCharging(SERIAL_NUMBER))
+                .thenThrow(new QueryTimeoutException("Timeout"))
+                .thenReturn(null);
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+
+        service.tick();
+
+        assertThat(service.status().getCharging()).isEmpty();
+        assertThat(service.status().getNextInLine()).containsExactly(SERIAL_NUMBER);
+
+        service.tick();
+
+        verify(droneService, times(2)).startCharging(SERIAL_NUMBER);
+        assertThat(service.status().getCharging()).extracting("serialNumber").containsExactly(SERIAL_NUMBER);
+    }
+
+    @Test
+    void shouldChargeDronesInDemandFirst() {
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest1", 10, true));
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent("serialNumberTest2", 20, true));
+        for (int i = 0; i < 3; i++) {
+            service.onLoadAttempted(new LoadAttemptedEvent("serialNumberTest2", LoadStatus.NEEDS_TO_BE_CHARGED, 0, 0));
+        }
+
+        service.tick();
+
+        verify(droneService).startCharging("serialNumberTest2");
+        verify(droneService, never()).startCharging("serialNumberTest1");
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        service = new ChargingService(droneService, new ChargingScheduler(1, 25, 100, 5), false, clock::get);
+
+        service.onBatteryThresholdCrossed(new BatteryThresholdCrossedEvent(SERIAL_NUMBER, 20, true));
+        service.tick();
+
+        verify(droneService, never()).updateBatteries(anyMap());
+        assertThat(service.status().getWaiting()).isZero();
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.dispatch.DispatchPlanner;
+import com.musalasoft.drones.dispatch.PackingStrategy;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.model.dto.LoadResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchServiceTest {
+
+    @Mock
+    private DroneService droneService;
+    @Mock
+    private MedicationCache medicationCache;
+    @Spy
+    private DispatchPlanner planner;
+
+    @InjectMocks
+    private DispatchService service;
+
+    @Test
+    void shouldDispatchOrdersOnlyToDronesThatCanBeLoaded() {
+        var available = createDroneSummary("serialNumberTest1", 80, 100, IDLE);
+        var discharged = createDroneSummary("serialNumberTest2", 80, 10, NEEDS_TO_BE_CHARGED);
+        var medication = createMedication(1, "medication1", 50);
+        var loadResults = List.of(loaded("serialNumberTest1", List.of(1L), List.of()));
+
+        when(medicationCache.getAllById(anyCollection())).thenReturn(List.of(medication));
+        when(droneService.availableDronesToBeLoaded()).thenReturn(List.of(available, discharged));
+        when(droneService.loadDrones(List.of(new LoadRequest("serialNumberTest1", List.of(1L))))).thenReturn(loadResults);
+
+        var result = service.dispatch(List.of(1L, 2L), PackingStrategy.BEST_FIT_DECREASING);
+
+        assertThat(result.getLoads()).isEqualTo(loadResults);
+        assertThat(result.getUnknownMedicationIds()).containsExactly(2L);
+        assertThat(result.getPlan().getUnassignedMedicationIds()).isEmpty();
+        verify(droneService).loadDrones(List.of(new LoadRequest("serialNumberTest1", List.of(1L))));
+    }
+
+    @Test
+    void shouldDispatchRepeatedOrdersAsSeparateItems() {
+        var available = createDroneSummary("serialNumberTest1", 80, 100, IDLE);
+        var medication = createMedication(1, "medication1", 50);
+
+        when(medicationCache.getAllById(anyCollection())).thenReturn(List.of(medication));
+        when(droneService.availableDronesToBeLoaded()).thenReturn(List.of(available));
+        when(droneService.loadDrones(anyList())).thenReturn(List.of(loaded("serialNumberTest1", List.of(1L, 1L), List.of())));
+
+        var result = service.dispatch(List.of(1L, 2L, 1L, 2L), PackingStrategy.FIRST_FIT_DECREASING);
+
+        assertThat(result.getPlan().getAssignments()).containsEntry("serialNumberTest1", List.of(1L, 1L));
+        assertThat(result.getPlan().getAssignedWeight()).isEqualTo(100);
+        assertThat(result.getUnknownMedicationIds()).containsExactly(2L, 2L);
+        verify(droneService).loadDrones(List.of(new LoadRequest("serialNumberTest1", List.of(1L, 1L))));
+    }
+
+    @Test
+    void shouldReportOrdersRejectedAtLoadTimeAsUnassigned() {
+        var changed = createDroneSummary("serialNumberTest1", 0, 100, IDLE);
+        var refusing = createDroneSummary("serialNumberTest2", 0, 90, IDLE);
+        var heavy = createMedication(1, "medication1", 400);
+        var light = createMedication(2, "medication2", 100);
+
+        when(medicationCache.getAllById(anyCollection())).thenReturn(List.of(heavy, light));
+        when(droneService.availableDronesToBeLoaded()).thenReturn(List.of(changed, refusing));
+        when(droneService.loadDrones(anyList())).thenReturn(List.of(
+                loaded("serialNumberTest1", List.of(1L), List.of(2L)),
+                new LoadResult("serialNumberTest2", LoadStatus.UNAVAILABLE, DELIVERING, 0, List.of(), List.of(), List.of(1L))));
+
+        var result = service.dispatch(List.of(1L, 1L, 2L), PackingStrategy.FIRST_FIT_DECREASING);
+
+        verify(droneService).loadDrones(List.of(new LoadRequest("serialNumberTest2", List.of(1L)),
+                new LoadRequest("serialNumberTest1", List.of(1L, 2L))));
+        assertThat(result.getPlan().getAssignments()).containsOnlyKeys("serialNumberTest1").containsEntry("serialNumberTest1", List.of(1L));
+        assertThat(result.getPlan().getUnassignedMedicationIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.getPlan().getAssignedWeight()).isEqualTo(400);
+        assertThat(result.getPlan().getUsedCapacity()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldNotDispatchToDronesWaitingForACharge() {
+        var discharged = createDroneSummary("serialNumberTest1", 80, 10, NEEDS_TO_BE_CHARGED);
+        var loadedDrone = createDroneSummary("serialNumberTest2", 80, 90, LOADED);
+
+        when(medicationCache.getAllById(anyCollection())).thenReturn(List.of(createMedication(1, "medication1", 50)));
+        when(droneService.availableDronesToBeLoaded()).thenReturn(List.of(discharged, loadedDrone));
+        when(droneService.loadDrones(anyList())).thenReturn(List.of(loaded("serialNumberTest2", List.of(1L), List.of())));
+
+        service.dispatch(List.of(1L), PackingStrategy.BEST_FIT_DECREASING);
+
+        verify(droneService).loadDrones(List.of(new LoadRequest("serialNumberTest2", List.of(1L))));
+    }
+
+    private static LoadResult loaded(String serialNumber, List<Long> loadedIds, List<Long> rejectedIds) {
+        return new LoadResult(serialNumber, LoadStatus.LOADED, LOADED, 0, loadedIds, rejectedIds, List.of());
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.repository.DroneRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a fleet of {@code import.drones} drones (50000 by default) from CSV at {@code import.min-per-minute}
+ * drones per minute or more (50000 by default) and logs the throughput, then imports it again to check that nothing
+ * is duplicated: {@code mvn test -Dtest=DroneImportIT -Dimport.drones=100000}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.musalasoft.drones=WARN",
+        "logging.level.com.musalasoft.drones.service.DroneImportIT=INFO"})
+public class DroneImportIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DroneImportIT.class);
+    private static final int DRONES = Integer.getInteger("import.drones", 50_000);
+    private static final int MIN_PER_MINUTE = Integer.getInteger("import.min-per-minute", 50_000);
+
+    @Autowired
+    private DroneImportService service;
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Test
+    void shouldImportAWholeFleetOnce() throws Exception {
+        var prefix = UUID.randomUUID().toString();
+        var csv = new StringBuilder("serialNumber,model,weight,battery\n");
+        for (int i = 0; i < DRONES; i++) {
+            csv.append(prefix).append('-').append(i).append(",Lightweight,0,").append(i % 101).append('\n');
+        }
+        var content = csv.toString().getBytes(StandardCharsets.UTF_8);
+        var before = droneRepository.count();
+
+        var start = System.nanoTime();
+        var report = service.importCsv(new ByteArrayInputStream(content));
+        var elapsed = System.nanoTime() - start;
+        var perMinute = report.getCreated() * 60e9 / elapsed;
+        LOGGER.info("Imported {} drones in {} ms ({} drones/minute)",
+                report.getCreated(), TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(perMinute));
+
+        assertThat(report.getCreated()).isEqualTo(DRONES);
+        assertThat(perMinute).isGreaterThanOrEqualTo(MIN_PER_MINUTE);
+        assertThat(droneRepository.count()).isEqualTo(before + DRONES);
+
+        var again = service.importCsv(new ByteArrayInputStream(content));
+
+        assertThat(again.getExisting()).isEqualTo(DRONES);
+        assertThat(droneRepository.count()).isEqualTo(before + DRONES);
+    }
+
+}
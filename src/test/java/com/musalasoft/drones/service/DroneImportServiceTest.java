@@ -0,0 +1,186 @@
+package com.musalasoft.drones.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.cache.ResourceVersions;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.Enum.ImportStatus;
+import com.musalasoft.drones.repository.DroneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DroneImportServiceTest {
+
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private FleetStateStore fleetState;
+    @Mock
+    private ApplicationEventPublisher publisher;
+    @Mock
+    private ResourceVersions versions;
+
+    private DroneImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceWithChunksOf(1000);
+    }
+
+    @Test
+    void shouldReportTheOutcomeOfEveryCsvRecord() throws Exception {
+        var csv = """
+                battery,model,serialNumber,weight
+                100,Lightweight,DRONE1,0
+                50,heavyweight,DRONE2,120
+
+                100,Lightweight,DRONE1,0
+                100,Lightweight,EXISTING,0
+                150,Lightweight,DRONE3,0
+                100,Unknown,DRONE4,0
+                100,Lightweight,DRONE5,900
+                """;
+        when(droneRepository.findExistingSerialNumbers(anyCollection())).thenReturn(Set.of("EXISTING"));
+
+        var report = service.importCsv(stream(csv));
+
+        assertThat(report.getResults())
+                .extracting("line", "serialNumber", "status")
+                .containsExactly(
+                        tuple(2L, "DRONE1", ImportStatus.CREATED),
+                        tuple(3L, "DRONE2", ImportStatus.CREATED),
+                        tuple(5L, "DRONE1", ImportStatus.DUPLICATED),
+                        tuple(6L, "EXISTING", ImportStatus.EXISTING),
+                        tuple(7L, "DRONE3", ImportStatus.INVALID),
+                        tuple(8L, null, ImportStatus.INVALID),
+                        tuple(9L, "DRONE5", ImportStatus.INVALID));
+        assertThat(report)
+                .hasFieldOrPropertyWithValue("created", 2)
+                .hasFieldOrPropertyWithValue("existing", 1)
+                .hasFieldOrPropertyWithValue("duplicated", 1)
+                .hasFieldOrPropertyWithValue("invalid", 3);
+        assertThat(report.getResults().get(4).getMessage()).isEqualTo("The battery level must be between 0 and 100.");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        assertThat(rows.getValue()).extracting(row -> row[0]).containsExactly("DRONE1", "DRONE2");
+        verify(publisher).publishEvent(new DroneStateChangedEvent("DRONE2", null, IDLE));
+    }
+
+    @Test
+    void shouldQueryAndInsertOncePerChunk() throws Exception {
+        service = serviceWithChunksOf(2);
+        var ndjson = """
+                {"serialNumber":"DRONE1","model":"Lightweight","weight":0,"battery":100}
+                {"serialNumber":"DRONE2","model":"Middleweight","weight":10,"battery":90}
+                {"serialNumber":"DRONE3","model":"Heavyweight","weight":20,"battery":80}
+                {"serialNumber":"DRONE4","model":"Cruiserweight","weight":30,"battery":70}
+                {"serialNumber":"DRONE5",
+                """;
+        when(droneRepository.findExistingSerialNumbers(anyCollection())).thenReturn(Set.of());
+
+        var report = service.importNdjson(stream(ndjson));
+
+        assertThat(report.getCreated()).isEqualTo(4);
+        assertThat(report.getInvalid()).isEqualTo(1);
+        verify(droneRepository, times(2)).findExistingSerialNumbers(anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void shouldReportTheBatteryOfEveryCreatedDrone() throws Exception {
+        when(droneRepository.findExistingSerialNumbers(anyCollection())).thenReturn(Set.of());
+
+        service.importCsv(stream("serialNumber,model,weight,battery\nDRONE1,Lightweight,0,100\nDRONE2,Lightweight,0,20\n"));
+
+        verify(publisher).publishEvent(new BatteryChangedEvent("DRONE1", 100, 100));
+        verify(publisher).publishEvent(new BatteryChangedEvent("DRONE2", 100, 20));
+    }
+
+    @Test
+    void shouldRejectAChunkThatKeepsClashingAndImportTheRest() throws Exception {
+        service = serviceWithChunksOf(2);
+        var csv = """
+                serialNumber,model,weight,battery
+                DRONE1,Lightweight,0,100
+                DRONE2,Lightweight,0,100
+                DRONE3,Lightweight,0,100
+                """;
+        when(droneRepository.findExistingSerialNumbers(anyCollection())).thenReturn(Set.of("DRONE2"), Set.of(), Set.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DuplicateKeyException("DRONE1"))
+                .thenThrow(new DuplicateKeyException("DRONE1"))
+                .thenReturn(new int[]{1});
+
+        var report = service.importCsv(stream(csv));
+
+        assertThat(report.getResults())
+                .extracting("serialNumber", "status")
+                .containsExactly(
+                        tuple("DRONE1", ImportStatus.REJECTED),
+                        tuple("DRONE2", ImportStatus.REJECTED),
+                        tuple("DRONE3", ImportStatus.CREATED));
+        assertThat(report.getRejected()).isEqualTo(2);
+        verify(fleetState, times(1)).put(any());
+        verify(publisher, never()).publishEvent(new DroneStateChangedEvent("DRONE1", null, IDLE));
+    }
+
+    @Test
+    void shouldNotInsertAnythingWhenEveryDroneExists() throws Exception {
+        when(droneRepository.findExistingSerialNumbers(anyCollection())).thenReturn(Set.of("DRONE1"));
+
+        var report = service.importCsv(stream("serialNumber,model,weight,battery\nDRONE1,Lightweight,0,100\n"));
+
+        assertThat(report.getExisting()).isEqualTo(1);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    @Test
+    void shouldRejectACsvWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> service.importCsv(stream("serialNumber,model,weight\nDRONE1,Lightweight,0\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("The CSV header must contain the columns");
+    }
+
+    private DroneImportService serviceWithChunksOf(int chunkSize) {
+        return new DroneImportService(droneRepository, jdbcTemplate, transactionManager, fleetState, publisher, new ObjectMapper(), versions, chunkSize);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads load a handful of drones at the same time through the single and the bulk paths. No drone can end
+ * up over the weight limit and its weight must always match the medications it carries (no lost updates), and
+ * battery readings that race the loads are never overwritten by them: every change starts from the previous one.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.musalasoft.drones.service=WARN"})
+public class DroneLoadingStressIT {
+    private static final int DRONES = 4;
+    private static final int THREADS = 16;
+    private static final int LOADS_PER_THREAD = 50;
+
+    @Autowired
+    private DroneService service;
+    @Autowired
+    private MedicationService medicationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventMulticaster multicaster;
+
+    @Test
+    void shouldNeverOverloadADroneUnderContention() throws Exception {
+        var serialNumbers = new ArrayList<String>();
+        for (int i = 0; i < DRONES; i++) {
+            serialNumbers.add(service.registerDrone(createDrone(UUID.randomUUID().toString(), 100)).getSerialNumber());
+            jdbcTemplate.update("update drones set weight = 0 where serial_number = ?", serialNumbers.get(i));
+        }
+        var medicationIds = new ArrayList<Long>();
+        for (int i = 0; i < 20; i++) {
+            medicationIds.add(medicationService.save(createMedication(0, "stressMedication" + i, 15 + i * 3)).getId());
+        }
+
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < THREADS; t++) {
+            var bulk = t % 2 == 0;
+            tasks.add(() -> {
+                start.await();
+                var random = ThreadLocalRandom.current();
+                for (int i = 0; i < LOADS_PER_THREAD; i++) {
+                    var serialNumber = serialNumbers.get(random.nextInt(DRONES));
+                    var ids = List.of(medicationIds.get(random.nextInt(medicationIds.size())),
+                            medicationIds.get(random.nextInt(medicationIds.size())));
+                    if (bulk) {
+                        service.loadDrones(List.of(new LoadRequest(serialNumber, ids)));
+                    } else {
+                        service.loadDrone(serialNumber, ids);
+                    }
+                }
+                return null;
+            });
+        }
+        var futures = tasks.stream().map(executor::submit).toList();
+        start.countDown();
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (String serialNumber : serialNumbers) {
+            var weight = jdbcTemplate.queryForObject("select weight from drones where serial_number = ?", Integer.class, serialNumber);
+            var carried = jdbcTemplate.queryForObject("select coalesce(sum(m.weight), 0) from medications_drones md "
+                    + "join medications m on m.id = md.medication_id where md.serial_number = ?", Integer.class, serialNumber);
+            assertThat(weight).isLessThanOrEqualTo(DRONE_WEIGHT_LIMIT).isEqualTo(carried);
+        }
+    }
+
+    @Test
+    void shouldKeepTheLatestBatteryWhileLoading() throws Exception {
+        var serialNumber = service.registerDrone(createDrone(UUID.randomUUID().toString(), 100)).getSerialNumber();
+        jdbcTemplate.update("update drones set weight = 0 where serial_number = ?", serialNumber);
+        var medicationId = medicationService.save(createMedication(0, "raceMedication", 1)).getId();
+        var changes = new CopyOnWriteArrayList<BatteryChangedEvent>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof BatteryChangedEvent change
+                    && change.getSerialNumber().equals(serialNumber)) {
+                changes.add(change);
+            }
+        };
+        multicaster.addApplicationListener(listener);
+
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var tasks = new ArrayList<Callable<Integer>>();
+        tasks.add(() -> {
+            start.await();
+            var battery = 100;
+            for (int i = 0; i < LOADS_PER_THREAD * 4; i++) {
+                battery = 30 + ThreadLocalRandom.current().nextInt(71);
+                service.updateBattery(serialNumber, battery);
+            }
+            return battery;
+        });
+        for (int t = 1; t < THREADS; t++) {
+            var bulk = t % 2 == 0;
+            tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < LOADS_PER_THREAD; i++) {
+                    if (bulk) {
+                        service.loadDrones(List.of(new LoadRequest(serialNumber, List.of(medicationId))));
+                    } else {
+                        service.loadDrone(serialNumber, List.of(medicationId));
+                    }
+                }
+                return null;
+            });
+        }
+        try {
+            var futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            assertThat(changes).hasSize(LOADS_PER_THREAD * 4);
+            for (int i = 1; i < changes.size(); i++) {
+                assertThat(changes.get(i).getPreviousBattery())
+                        .as("previous battery of change %d", i)
+                        .isEqualTo(changes.get(i - 1).getBattery());
+            }
+            assertThat(service.droneBatteryLevel(serialNumber)).isEqualTo(futures.get(0).get());
+        } finally {
+            multicaster.removeApplicationListener(listener);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.musalasoft.drones.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DroneLocksTest {
+
+    private final DroneLocks locks = new DroneLocks(8);
+
+    @Test
+    void shouldRunActionsOnTheSameDroneOneAtATime() throws Exception {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> locks.withLock("serialNumberTest", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                return running.decrementAndGet();
+            }));
+        }
+        executor.invokeAll(tasks);
+        executor.shutdown();
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotDeadlockLockingManyDronesInAnyOrder() throws Exception {
+        var serialNumbers = List.of("A", "B", "C", "D", "E", "F");
+        var reversed = new ArrayList<>(serialNumbers);
+        Collections.reverse(reversed);
+        var executor = Executors.newFixedThreadPool(4);
+        var done = new CountDownLatch(400);
+        for (int i = 0; i < 400; i++) {
+            var ordered = i % 2 == 0 ? serialNumbers : reversed;
+            executor.submit(() -> locks.withLocks(ordered, () -> {
+                done.countDown();
+                return null;
+            }));
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldReleaseTheLockWhenTheActionFails() {
+        assertThatThrownBy(() -> locks.withLock("serialNumberTest", () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(locks.withLock("serialNumberTest", () -> "locked again")).isEqualTo("locked again");
+    }
+
+    @Test
+    void shouldHoldTheLockUntilTheTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.withLock("serialNumberTest", () -> null);
+
+            assertThat(isLockedByAnotherThread("serialNumberTest")).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(isLockedByAnotherThread("serialNumberTest")).isFalse();
+    }
+
+    private boolean isLockedByAnotherThread(String serialNumber) throws InterruptedException {
+        var acquired = new CountDownLatch(1);
+        var thread = new Thread(() -> locks.withLock(serialNumber, () -> {
+            acquired.countDown();
+            return null;
+        }));
+        thread.setDaemon(true);
+        thread.start();
+        return !acquired.await(200, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.model.dto.LoadRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.model.Enum.DroneState.RETURNING;
+import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
+import static com.musalasoft.drones.service.DroneService.DRONE_WEIGHT_LIMIT;
+import static com.musalasoft.drones.service.DroneService.MAX_CANDIDATES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DroneRulesTest {
+
+    @Test
+    void shouldRequireASerialNumberToRegister() {
+        assertThatThrownBy(() -> DroneRules.requireRegistration(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> DroneRules.requireRegistration(createDrone(" ", 100))).isInstanceOf(IllegalArgumentException.class);
+        DroneRules.requireRegistration(createDrone("serialNumberTest", 100));
+    }
+
+    @Test
+    void shouldRequireAModelAWeightAndABatteryInRangeToRegister() {
+        var withoutModel = createDrone("serialNumberTest", 100);
+        withoutModel.setModel(null);
+        var tooHeavy = createDrone("serialNumberTest", 100);
+        tooHeavy.setWeight(DRONE_WEIGHT_LIMIT + 1);
+
+        assertThatThrownBy(() -> DroneRules.requireRegistration(withoutModel)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireRegistration(tooHeavy)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireRegistration(createDrone("serialNumberTest", 101))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireRegistration(createDrone("x".repeat(256), 100))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldOnlyLoadGroundedDrones() {
+        assertThat(DroneRules.canBeLoaded(IDLE, 100)).isTrue();
+        assertThat(DroneRules.canBeLoaded(LOADED, 100)).isTrue();
+        assertThat(DroneRules.canBeLoaded(NEEDS_TO_BE_CHARGED, DRONE_BATTERY_LIMIT - 1)).isTrue();
+        assertThat(DroneRules.canBeLoaded(NEEDS_TO_BE_CHARGED, DRONE_BATTERY_LIMIT)).isFalse();
+        assertThat(DroneRules.canBeLoaded(CHARGING, 100)).isFalse();
+        assertThat(DroneRules.canBeLoaded(RETURNING, 100)).isFalse();
+        assertThat(DroneRules.needsCharge(DRONE_BATTERY_LIMIT - 1)).isTrue();
+        assertThat(DroneRules.needsCharge(DRONE_BATTERY_LIMIT)).isFalse();
+    }
+
+    @Test
+    void shouldKeepTheWeightWithinTheLimit() {
+        assertThat(DroneRules.fits(DRONE_WEIGHT_LIMIT - 100, 100)).isTrue();
+        assertThat(DroneRules.fits(DRONE_WEIGHT_LIMIT - 100, 101)).isFalse();
+        assertThat(DroneRules.canBeDelivered(LOADED)).isTrue();
+        assertThat(DroneRules.canBeDelivered(DELIVERING)).isTrue();
+        assertThat(DroneRules.canBeDelivered(IDLE)).isFalse();
+    }
+
+    @Test
+    void shouldValidateBatteriesAndCandidateFilters() {
+        assertThatThrownBy(() -> DroneRules.requireBatteryLevel(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireBatteryLevel(101)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireCandidateFilters(0, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DroneRules.requireCandidateFilters(0, 0, MAX_CANDIDATES + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(DroneRules.candidateMinBattery(0)).isEqualTo(DRONE_BATTERY_LIMIT);
+        assertThat(DroneRules.candidateMinBattery(90)).isEqualTo(90);
+        assertThat(DroneRules.candidateMaxWeight(100)).isEqualTo(DRONE_WEIGHT_LIMIT - 100);
+    }
+
+    @Test
+    void shouldReadMissingMedicationIdsAsNone() {
+        assertThat(DroneRules.medicationIdsOf(new LoadRequest("serialNumberTest", null))).isEmpty();
+        assertThat(DroneRules.medicationIdsOf(new LoadRequest("serialNumberTest", List.of(1L)))).containsExactly(1L);
+    }
+
+}
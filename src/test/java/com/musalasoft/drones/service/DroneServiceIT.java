@@ -1,14 +1,30 @@
 package com.musalasoft.drones.service;
 
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.DroneSummary;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.musalasoft.drones.Utils.createDrone;
 import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERED;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
 import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
 import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
 import static com.musalasoft.drones.service.DroneService.DRONE_BATTERY_LIMIT;
@@ -22,6 +38,14 @@ public class DroneServiceIT {
     private DroneService service;
     @Autowired
     private MedicationService medicationService;
+    @Autowired
+    private MedicationCache medicationCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     void shouldRegisterANewDrone() {
@@ -38,25 +62,44 @@ public class DroneServiceIT {
     void shouldLoadTheDroneWithMedications() {
         var serialNumber = UUID.randomUUID().toString();
         var drone = createDrone(serialNumber, 100);
-        var createdDrone = service.registerDrone(drone);
+        service.registerDrone(drone);
         var medication1 = medicationService.save(createMedication(1, "medicationTest1", 20));
         var medication2 = medicationService.save(createMedication(2, "medicationTest2", 70));
         var medication3 = medicationService.save(createMedication(3, "medicationTest3", 500));
-        createdDrone.addMedication(medication1);
-        createdDrone.addMedication(medication2);
-        createdDrone.setState(LOADED);
+        var expectedDrone = new Drone(serialNumber, drone.getModel(), 80 + 20 + 70, 100, LOADED, List.of(medication1, medication2));
 
         var loadedDrone = service.loadDrone(serialNumber, List.of(1L, 2L, 3L));
 
         assertThat(loadedDrone)
                 .usingRecursiveComparison()
-                .isEqualTo(createdDrone);
+                .isEqualTo(expectedDrone);
 
         assertThat(loadedDrone.getMedications())
                 .filteredOn(m -> m.getId() == medication3.getId())
                 .isEmpty();
     }
 
+    @Test
+    void shouldLoadManyDronesInBulk() {
+        var serialNumber1 = UUID.randomUUID().toString();
+        var serialNumber2 = UUID.randomUUID().toString();
+        service.registerDrone(createDrone(serialNumber1, 100));
+        service.registerDrone(createDrone(serialNumber2, 10));
+        var medication = medicationService.save(createMedication(1, "medicationTest1", 20));
+
+        var results = service.loadDrones(List.of(
+                new LoadRequest(serialNumber1, List.of(medication.getId())),
+                new LoadRequest(serialNumber2, List.of(medication.getId()))
+        ));
+
+        assertThat(results)
+                .extracting("status")
+                .containsExactly(LoadStatus.LOADED, LoadStatus.NEEDS_TO_BE_CHARGED);
+        assertThat(service.loadedMedications(serialNumber1))
+                .extracting("id")
+                .containsExactly(medication.getId());
+    }
+
     @Test
     void shouldShowMedicationsOfADrone() {
         var serialNumber = UUID.randomUUID().toString();
@@ -111,4 +154,130 @@ public class DroneServiceIT {
                 .isNotEmpty();
     }
 
+    /**
+     * Other tests of the same context register drones too, so every candidate is requested and only the drones of
+     * this test are asserted on.
+     */
+    @Test
+    void shouldReturnBestLoadCandidatesFirst() {
+        var weaker = createDrone(UUID.randomUUID().toString(), 91);
+        var stronger = createDrone(UUID.randomUUID().toString(), 99);
+        var strongerButHeavier = createDrone(UUID.randomUUID().toString(), 99);
+        strongerButHeavier.setWeight(200);
+        service.registerDrone(weaker);
+        service.registerDrone(strongerButHeavier);
+        service.registerDrone(stronger);
+        var fixtures = Set.of(weaker.getSerialNumber(), stronger.getSerialNumber(), strongerButHeavier.getSerialNumber());
+
+        var drones = new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.update("UPDATE drones SET battery = 0 WHERE battery >= 90 AND serial_number NOT IN (?, ?, ?)",
+                    weaker.getSerialNumber(), stronger.getSerialNumber(), strongerButHeavier.getSerialNumber());
+            return service.loadCandidates(90, 100, DroneService.MAX_CANDIDATES);
+        });
+
+        assertThat(drones).isSortedAccordingTo(Comparator.comparingInt(DroneSummary::getBattery).reversed());
+        assertThat(drones)
+                .filteredOn(drone -> fixtures.contains(drone.getSerialNumber()))
+                .extracting("serialNumber")
+                .containsExactly(stronger.getSerialNumber(), strongerButHeavier.getSerialNumber(), weaker.getSerialNumber());
+    }
+
+    @Test
+    void shouldIndexTheDroneAccessPaths() {
+        var indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'DRONES'", String.class);
+
+        assertThat(indexes)
+                .map(String::toLowerCase)
+                .contains("idx_drones_weight", "idx_drones_battery", "idx_drones_state_battery_weight");
+    }
+
+    @Test
+    void shouldNotQueryTheCatalogueLoadingADroneWithAWarmCache() {
+        var medicationIds = new ArrayList<Long>();
+        for (int i = 0; i < 10; i++) {
+            medicationIds.add(medicationService.save(createMedication(0, "cachedMedication" + i, 10)).getId());
+        }
+        var warmDrone = service.registerDrone(createDrone(UUID.randomUUID().toString(), 100)).getSerialNumber();
+        var drone = service.registerDrone(createDrone(UUID.randomUUID().toString(), 100)).getSerialNumber();
+        service.loadDrone(warmDrone, medicationIds);
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        var loadedDrone = service.loadDrone(drone, medicationIds);
+
+        statistics.setStatisticsEnabled(false);
+        assertThat(loadedDrone.getMedications()).hasSize(10);
+        assertThat(statistics.getEntityStatistics(Medication.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Medication.class.getName()).getFetchCount()).isZero();
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("Medication"));
+    }
+
+    @Test
+    void shouldArchiveDeliveriesAndReleaseTheCapacity() {
+        var serialNumber = UUID.randomUUID().toString();
+        service.registerDrone(createDrone(serialNumber, 100));
+        var light = medicationService.save(createMedication(0, "deliveredMedication1", 20)).getId();
+        var heavy = medicationService.save(createMedication(0, "deliveredMedication2", 380)).getId();
+        service.loadDrone(serialNumber, List.of(light, heavy));
+        service.loadDrone(serialNumber, List.of(light));
+        assertThat(service.availableDronesToBeLoaded()).extracting("serialNumber").doesNotContain(serialNumber);
+
+        var delivering = service.deliverMedication(serialNumber, light);
+
+        assertThat(delivering.getState()).isEqualTo(DELIVERING);
+        assertThat(delivering.getWeight()).isEqualTo(480);
+        assertThat(service.loadedMedications(serialNumber)).extracting("id").containsExactlyInAnyOrder(light, heavy);
+        assertThat(service.availableDronesToBeLoaded()).extracting("serialNumber").contains(serialNumber);
+
+        var delivered = service.deliverAll(serialNumber);
+
+        assertThat(delivered.getState()).isEqualTo(DELIVERED);
+        assertThat(delivered.getWeight()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM medications_drones WHERE serial_number = ?", Integer.class, serialNumber))
+                .isZero();
+        assertThat(service.deliveries(serialNumber)).extracting("medicationId").containsExactlyInAnyOrder(light, light, heavy);
+
+        service.returnDrone(serialNumber);
+        assertThat(service.arriveDrone(serialNumber).getState()).isEqualTo(IDLE);
+    }
+
+    @Test
+    void shouldReleaseTheWeightAMedicationHadWhenItWasLoaded() {
+        var serialNumber = UUID.randomUUID().toString();
+        var drone = createDrone(serialNumber, 100);
+        drone.setWeight(0);
+        service.registerDrone(drone);
+        var medication = medicationService.save(createMedication(0, "editedMedication", 100));
+        service.loadDrones(List.of(new LoadRequest(serialNumber, List.of(medication.getId(), medication.getId()))));
+
+        medication.setWeight(300);
+        medicationService.update(medication);
+        var delivering = service.deliverMedication(serialNumber, medication.getId());
+
+        assertThat(delivering.getWeight()).isEqualTo(100);
+        assertThat(service.deliveries(serialNumber)).extracting("weight").containsExactly(100);
+        assertThat(service.deliverMedication(serialNumber, medication.getId()).getWeight()).isZero();
+    }
+
+    @Test
+    void shouldStoreAndReleaseTheWeightTheLoadWasCheckedWith() {
+        var serialNumber = UUID.randomUUID().toString();
+        var drone = createDrone(serialNumber, 100);
+        drone.setWeight(0);
+        service.registerDrone(drone);
+        var medication = medicationService.save(createMedication(0, "staleMedication", 450));
+        assertThat(medicationCache.get(medication.getId())).hasValueSatisfying(cached -> assertThat(cached.getWeight()).isEqualTo(450));
+        jdbcTemplate.update("UPDATE medications SET weight = 100 WHERE id = ?", medication.getId());
+
+        var loaded = service.loadDrone(serialNumber, List.of(medication.getId()));
+
+        assertThat(loaded.getWeight()).isEqualTo(450);
+        assertThat(jdbcTemplate.queryForObject("SELECT weight FROM medications_drones WHERE serial_number = ?", Integer.class, serialNumber))
+                .isEqualTo(450);
+        assertThat(service.deliverMedication(serialNumber, medication.getId()).getWeight()).isZero();
+    }
+
 }
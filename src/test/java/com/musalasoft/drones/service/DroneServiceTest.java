@@ -1,27 +1,71 @@
 package com.musalasoft.drones.service;
 
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.event.DroneStateChangedEvent;
+import com.musalasoft.drones.event.LoadAttemptedEvent;
 import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.Delivery;
 import com.musalasoft.drones.model.Drone;
 import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.dto.LoadRequest;
+import com.musalasoft.drones.repository.DeliveryRepository;
 import com.musalasoft.drones.repository.DroneRepository;
-import com.musalasoft.drones.repository.MedicationRepository;
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.cache.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static com.musalasoft.drones.Utils.createLoadedMedication;
 import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERED;
+import static com.musalasoft.drones.model.Enum.DroneState.DELIVERING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
 import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADING;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static com.musalasoft.drones.model.Enum.DroneState.RETURNING;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,10 +76,32 @@ class DroneServiceTest {
     @Mock
     private DroneRepository droneRepository;
     @Mock
-    private MedicationRepository medicationRepository;
+    private DeliveryRepository deliveryRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private MedicationCache medicationCache;
+    @Mock
+    private FleetStateStore fleetState;
+    @Mock
+    private ApplicationEventPublisher publisher;
+    @Mock
+    private ResourceVersions versions;
+    @Spy
+    private DroneLocks locks = new DroneLocks(4);
 
     @InjectMocks
     private DroneService service;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> loads;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batteryArgs;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenAnswer(invocation -> rowsWritten(invocation.<List<Object[]>>getArgument(1).size()));
+    }
 
     @Test
     void shouldRegisterADrone() {
@@ -96,10 +162,9 @@ class DroneServiceTest {
         var medication2 = createMedication(2, "medication2", 70);
         var totalWeight = drone.getWeight() + medication1.getWeight() + medication2.getWeight();
 
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
-        when(medicationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(medication1, medication2));
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L, 2L))).thenReturn(List.of(medication1, medication2));
         drone.setState(LOADED);
-        when(droneRepository.save(drone)).thenReturn(drone);
 
         var loadedDrone = service.loadDrone(SERIAL_NUMBER, List.of(1L, 2L));
 
@@ -109,12 +174,83 @@ class DroneServiceTest {
                 .hasFieldOrPropertyWithValue("medications", List.of(medication1, medication2));
     }
 
+    @Test
+    void shouldLoadARepeatedMedicationOnceInASingleDrone() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+        var medication = createMedication(1, "medication1", 40);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L, 1L))).thenReturn(List.of(medication));
+
+        var loadedDrone = service.loadDrone(SERIAL_NUMBER, List.of(1L, 1L));
+
+        assertThat(loadedDrone)
+                .hasFieldOrPropertyWithValue("weight", 120)
+                .hasFieldOrPropertyWithValue("medications", List.of(medication));
+        verify(publisher).publishEvent(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 1, 0));
+    }
+
+    @Test
+    void shouldFlushTheLoadOnCommitAndPublishEveryTransition() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+        var medication = createMedication(1, "medication1", 50);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L))).thenReturn(List.of(medication));
+
+        service.loadDrone(SERIAL_NUMBER, List.of(1L));
+
+        verify(droneRepository, never()).save(any(Drone.class));
+        verify(fleetState, times(1)).put(drone);
+        var inOrder = inOrder(publisher);
+        inOrder.verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, IDLE, LOADING));
+        inOrder.verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, LOADING, LOADED));
+        inOrder.verify(publisher).publishEvent(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 1, 0));
+    }
+
+    @Test
+    void shouldWriteEveryLoadedCopyWithTheWeightAddedToTheDrone() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+        var medication1 = createMedication(1, "medication1", 50);
+        var medication2 = createMedication(2, "medication2", 70);
+        var tooHeavy = createMedication(3, "medication3", 400);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(medication1, medication2, tooHeavy));
+
+        var loadedDrone = service.loadDrone(SERIAL_NUMBER, List.of(1L, 2L, 3L));
+
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.startsWith("INSERT INTO medications_drones")), loads.capture(), any(int[].class));
+        assertThat(loads.getValue()).containsExactly(new Object[]{SERIAL_NUMBER, 1L, 50}, new Object[]{SERIAL_NUMBER, 2L, 70});
+        assertThat(loadedDrone.getWeight()).isEqualTo(200);
+        assertThat(loadedDrone.getMedications()).containsExactly(medication1, medication2);
+        assertThat(drone.getMedications()).isEmpty();
+    }
+
+    @Test
+    void shouldFailTheLoadWhenALoadedCopyIsNotWritten() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+        var medication = createMedication(1, "medication1", 50);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L))).thenReturn(List.of(medication));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenReturn(new int[]{0});
+
+        assertThatThrownBy(() -> service.loadDrone(SERIAL_NUMBER, List.of(1L)))
+                .isInstanceOf(JdbcUpdateAffectedIncorrectNumberOfRowsException.class);
+        verify(fleetState, never()).put(any());
+    }
+
     @Test
     void shouldNotLoadMedicationsInTheDroneWhenBatteryIsLessThan25() {
         var drone = createDrone(SERIAL_NUMBER, 100);
         drone.setBattery(15);
 
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
         drone.setState(LOADED);
         when(droneRepository.save(drone)).thenReturn(drone);
 
@@ -126,6 +262,25 @@ class DroneServiceTest {
                 .hasFieldOrPropertyWithValue("medications", List.of());
     }
 
+    @Test
+    void shouldCheckTheBatteryOfTheFleetStateWhenLoading() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.contains(SERIAL_NUMBER)).thenReturn(true);
+        when(fleetState.battery(SERIAL_NUMBER)).thenReturn(OptionalInt.of(15));
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.save(drone)).thenReturn(drone);
+
+        var refused = service.loadDrone(SERIAL_NUMBER, List.of(1L));
+
+        assertThat(refused)
+                .hasFieldOrPropertyWithValue("battery", 15)
+                .hasFieldOrPropertyWithValue("state", NEEDS_TO_BE_CHARGED);
+        verifyNoInteractions(medicationCache);
+    }
+
     @Test
     void shouldNotLoadMedicationsInTheDroneWhenMedicationWeighIsHigherThanAvailable() {
         var drone = createDrone(SERIAL_NUMBER, 100);
@@ -133,10 +288,9 @@ class DroneServiceTest {
         var medication1 = createMedication(1, "medication1", 50);
         var medication2 = createMedication(2, "medication2", 70);
 
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
-        when(medicationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(medication1, medication2));
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(medicationCache.getAllById(List.of(1L, 2L))).thenReturn(List.of(medication1, medication2));
         drone.setState(LOADED);
-        when(droneRepository.save(drone)).thenReturn(drone);
 
         var loadedDrone = service.loadDrone(SERIAL_NUMBER, List.of(1L, 2L));
 
@@ -146,14 +300,150 @@ class DroneServiceTest {
                 .hasFieldOrPropertyWithValue("medications", List.of());
     }
 
+    @Test
+    void shouldLoadManyDronesInBulk() {
+        var drone1 = createDrone("serialNumberTest1", 100);
+        var drone2 = createDrone("serialNumberTest2", 100);
+        drone1.setState(IDLE);
+        drone2.setState(IDLE);
+        drone2.setWeight(470);
+        var medication1 = createMedication(1, "medication1", 50);
+        var medication2 = createMedication(2, "medication2", 70);
+
+        when(droneRepository.findWithMedicationsBySerialNumberIn(Set.of("serialNumberTest1", "serialNumberTest2"))).thenReturn(List.of(drone1, drone2));
+        when(medicationCache.getAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(medication1, medication2));
+
+        var results = service.loadDrones(List.of(
+                new LoadRequest("serialNumberTest1", List.of(1L, 2L)),
+                new LoadRequest("serialNumberTest2", List.of(2L, 3L))
+        ));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0))
+                .hasFieldOrPropertyWithValue("status", LoadStatus.LOADED)
+                .hasFieldOrPropertyWithValue("state", DroneState.LOADED)
+                .hasFieldOrPropertyWithValue("weight", 200)
+                .hasFieldOrPropertyWithValue("loadedMedicationIds", List.of(1L, 2L))
+                .hasFieldOrPropertyWithValue("rejectedMedicationIds", List.of());
+        assertThat(results.get(1))
+                .hasFieldOrPropertyWithValue("status", LoadStatus.LOADED)
+                .hasFieldOrPropertyWithValue("weight", 470)
+                .hasFieldOrPropertyWithValue("rejectedMedicationIds", List.of(2L))
+                .hasFieldOrPropertyWithValue("unknownMedicationIds", List.of(3L));
+        verify(droneRepository, times(1)).saveAll(List.of(drone1, drone2));
+        verify(droneRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldLoadEveryCopyOfARepeatedMedicationInBulk() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+        drone.setWeight(400);
+        var medication = createMedication(1, "medication1", 40);
+
+        when(droneRepository.findWithMedicationsBySerialNumberIn(Set.of(SERIAL_NUMBER))).thenReturn(List.of(drone));
+        when(medicationCache.getAllById(Set.of(1L))).thenReturn(List.of(medication));
+
+        var results = service.loadDrones(List.of(new LoadRequest(SERIAL_NUMBER, List.of(1L, 1L, 1L))));
+
+        assertThat(results.get(0))
+                .hasFieldOrPropertyWithValue("weight", 480)
+                .hasFieldOrPropertyWithValue("loadedMedicationIds", List.of(1L, 1L))
+                .hasFieldOrPropertyWithValue("rejectedMedicationIds", List.of(1L));
+        verify(jdbcTemplate).batchUpdate(anyString(), loads.capture(), any(int[].class));
+        assertThat(loads.getValue()).containsExactly(new Object[]{SERIAL_NUMBER, 1L, 40}, new Object[]{SERIAL_NUMBER, 1L, 40});
+        verify(publisher).publishEvent(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.LOADED, 2, 1));
+    }
+
+    @Test
+    void shouldReportMissingAndDischargedDronesInBulk() {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(IDLE);
+
+        when(droneRepository.findWithMedicationsBySerialNumberIn(anyCollection())).thenReturn(List.of(drone));
+        when(medicationCache.getAllById(anyCollection())).thenReturn(List.of());
+
+        var results = service.loadDrones(List.of(
+                new LoadRequest(SERIAL_NUMBER, List.of(1L)),
+                new LoadRequest("unknownSerialNumber", List.of(1L))
+        ));
+
+        assertThat(results)
+                .extracting("status")
+                .containsExactly(LoadStatus.NEEDS_TO_BE_CHARGED, LoadStatus.NOT_FOUND);
+        assertThat(drone.getState()).isEqualTo(DroneState.NEEDS_TO_BE_CHARGED);
+        verify(droneRepository).saveAll(List.of(drone));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DroneState.class, names = {"LOADING", "DELIVERING", "DELIVERED", "RETURNING", "CHARGING"})
+    void shouldRefuseToLoadADroneThatIsNotIdleOrLoaded(DroneState state) {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(state);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThatThrownBy(() -> service.loadDrone(SERIAL_NUMBER, List.of(1L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The Drone " + SERIAL_NUMBER + " can't go from " + state + " to LOADING");
+        assertThat(drone.getState()).isEqualTo(state);
+        verify(droneRepository, never()).save(any());
+        verifyNoInteractions(medicationCache, publisher);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DroneState.class, names = {"LOADING", "DELIVERING", "DELIVERED", "RETURNING", "CHARGING"})
+    void shouldReportDronesThatAreNotIdleOrLoadedAsUnavailableInBulk(DroneState state) {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(state);
+
+        when(droneRepository.findWithMedicationsBySerialNumberIn(Set.of(SERIAL_NUMBER))).thenReturn(List.of(drone));
+
+        var results = service.loadDrones(List.of(new LoadRequest(SERIAL_NUMBER, List.of(1L))));
+
+        assertThat(results).singleElement()
+                .hasFieldOrPropertyWithValue("status", LoadStatus.UNAVAILABLE)
+                .hasFieldOrPropertyWithValue("state", state)
+                .hasFieldOrPropertyWithValue("loadedMedicationIds", List.of());
+        assertThat(drone.getState()).isEqualTo(state);
+        verify(publisher).publishEvent(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.UNAVAILABLE, 0, 0));
+        verify(publisher, never()).publishEvent(any(DroneStateChangedEvent.class));
+    }
+
+    @Test
+    void shouldRefuseToLoadAChargedDroneThatStillWaitsForItsCharge() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(NEEDS_TO_BE_CHARGED);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThatThrownBy(() -> service.loadDrone(SERIAL_NUMBER, List.of(1L)))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(medicationCache);
+    }
+
+    @Test
+    void shouldRefuseADischargedDroneAgainWithoutAnotherTransition() {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(NEEDS_TO_BE_CHARGED);
+
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        var refused = service.loadDrone(SERIAL_NUMBER, List.of(1L));
+
+        assertThat(refused).hasFieldOrPropertyWithValue("state", NEEDS_TO_BE_CHARGED);
+        verify(publisher).publishEvent(new LoadAttemptedEvent(SERIAL_NUMBER, LoadStatus.NEEDS_TO_BE_CHARGED, 0, 0));
+        verify(publisher, never()).publishEvent(any(DroneStateChangedEvent.class));
+        verify(droneRepository, never()).save(any());
+    }
+
     @Test
     void shouldReturnLoadedMedicationsOfADrone() {
         var drone = createDrone(SERIAL_NUMBER, 100);
         var medication1 = createMedication(1, "medication1", 50);
         var medication2 = createMedication(2, "medication2", 70);
-        drone.addMedication(medication1);
-        drone.addMedication(medication2);
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        drone.setMedications(List.of(medication1, medication2));
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
 
         var medications = service.loadedMedications(SERIAL_NUMBER);
 
@@ -164,7 +454,7 @@ class DroneServiceTest {
 
     @Test
     void shouldThrowAnExceptionWhenDroneDoesNotExistLoadingMedications() {
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.empty());
+        when(droneRepository.findWithMedicationsBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.loadedMedications(SERIAL_NUMBER))
                 .isInstanceOf(NotFoundException.class)
@@ -173,7 +463,7 @@ class DroneServiceTest {
 
     @Test
     void shouldReturnAvailableDronesToBeLoaded() {
-        var drone = createDrone(SERIAL_NUMBER, 100);
+        var drone = createDroneSummary(SERIAL_NUMBER, 100);
         when(droneRepository.findByWeightIsLessThan(anyInt())).thenReturn(List.of(drone));
 
         var drones = service.availableDronesToBeLoaded();
@@ -183,10 +473,29 @@ class DroneServiceTest {
                 .hasSameElementsAs(List.of(drone));
     }
 
+    @Test
+    void shouldReturnLoadCandidatesWithinTheLimits() {
+        var drone = createDroneSummary(SERIAL_NUMBER, 100);
+        when(droneRepository.findByStateAndBatteryGreaterThanEqualAndWeightLessThanEqualOrderByBatteryDescWeightAsc(
+                IDLE, 25, 400, PageRequest.of(0, 5))).thenReturn(List.of(drone));
+
+        var drones = service.loadCandidates(10, 100, 5);
+
+        assertThat(drones).containsExactly(drone);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"-1, 1, 20", "0, -1, 20", "0, 1, 0", "0, 1, 1001"})
+    void shouldRejectLoadCandidatesOutOfTheLimits(int minBattery, int minCapacity, int limit) {
+        assertThatThrownBy(() -> service.loadCandidates(minBattery, minCapacity, limit))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(droneRepository);
+    }
+
     @Test
     void shouldReturnDroneBatteryPercentage() {
         var drone = createDrone(SERIAL_NUMBER, 100);
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findBatteryBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(drone.getBattery()));
 
         var batteryLevel = service.droneBatteryLevel(SERIAL_NUMBER);
 
@@ -196,7 +505,7 @@ class DroneServiceTest {
 
     @Test
     void shouldThrowAnExceptionWhenDroneDoesNotExistCheckingTheBatteryLevel() {
-        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.empty());
+        when(droneRepository.findBatteryBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.droneBatteryLevel(SERIAL_NUMBER))
                 .isInstanceOf(NotFoundException.class)
@@ -205,7 +514,7 @@ class DroneServiceTest {
 
     @Test
     void shouldReturnDronesThatNeedsToBeCharged() {
-        var drone = createDrone(SERIAL_NUMBER, 15);
+        var drone = createDroneSummary(SERIAL_NUMBER, 15);
         when(droneRepository.findByBatteryLessThanEqual(anyInt())).thenReturn(List.of(drone));
 
         var drones = service.dronesThatNeedEnergy();
@@ -215,4 +524,257 @@ class DroneServiceTest {
                 .hasSameElementsAs(List.of(drone));
     }
 
+    @Test
+    void shouldReturnDroneBatteryPercentageFromTheFleetState() {
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.battery(SERIAL_NUMBER)).thenReturn(OptionalInt.of(64));
+
+        var batteryLevel = service.droneBatteryLevel(SERIAL_NUMBER);
+
+        assertThat(batteryLevel).isEqualTo(64);
+        verifyNoInteractions(droneRepository);
+    }
+
+    @Test
+    void shouldThrowAnExceptionWhenDroneIsNotInTheFleetState() {
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.contains(SERIAL_NUMBER)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.loadedMedications(SERIAL_NUMBER))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("The Drone " + SERIAL_NUMBER + " doesn't exist!");
+        verifyNoInteractions(droneRepository);
+    }
+
+    @Test
+    void shouldReturnDronesThatNeedsToBeChargedFromTheFleetState() {
+        var drone = createDroneSummary(SERIAL_NUMBER, 15);
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.dronesWithBatteryAtMost(anyInt())).thenReturn(List.of(drone));
+
+        var drones = service.dronesThatNeedEnergy();
+
+        assertThat(drones).containsExactly(drone);
+        verifyNoInteractions(droneRepository);
+    }
+
+    @Test
+    void shouldUpdateTheBatteryAndPublishTheChange() {
+        when(droneRepository.findBatteryBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(40));
+        when(droneRepository.updateBattery(SERIAL_NUMBER, 20)).thenReturn(1);
+
+        service.updateBattery(SERIAL_NUMBER, 20);
+
+        verify(locks).withLock(eq(SERIAL_NUMBER), any());
+        verify(publisher).publishEvent(new BatteryChangedEvent(SERIAL_NUMBER, 40, 20));
+        verify(versions).droneChanged(SERIAL_NUMBER);
+    }
+
+    @Test
+    void shouldUpdateTheBatteryInTheFleetState() {
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.battery(SERIAL_NUMBER)).thenReturn(OptionalInt.of(40));
+        when(fleetState.updateBattery(SERIAL_NUMBER, 20)).thenReturn(true);
+
+        service.updateBattery(SERIAL_NUMBER, 20);
+
+        verify(publisher).publishEvent(new BatteryChangedEvent(SERIAL_NUMBER, 40, 20));
+        verifyNoInteractions(droneRepository);
+    }
+
+    @Test
+    void shouldUpdateManyBatteriesInOneBatch() {
+        when(droneRepository.findSummariesBySerialNumberIn(Set.of("serialNumberTest1", "serialNumberTest2", "unknownSerialNumber")))
+                .thenReturn(List.of(createDroneSummary("serialNumberTest1", 80, 10, CHARGING), createDroneSummary("serialNumberTest2", 80, 20, CHARGING)));
+        var batteries = new LinkedHashMap<String, Integer>();
+        batteries.put("serialNumberTest1", 35);
+        batteries.put("serialNumberTest2", 45);
+        batteries.put("unknownSerialNumber", 50);
+
+        var unknown = service.updateBatteries(batteries);
+
+        assertThat(unknown).containsExactly("unknownSerialNumber");
+        verify(jdbcTemplate).batchUpdate(eq(FleetStateStore.UPDATE_BATTERY_SQL), batteryArgs.capture(), any(int[].class));
+        assertThat(batteryArgs.getValue()).containsExactly(new Object[]{35, "serialNumberTest1"}, new Object[]{45, "serialNumberTest2"});
+        verify(publisher).publishEvent(new BatteryChangedEvent("serialNumberTest1", 10, 35));
+        verify(publisher).publishEvent(new BatteryChangedEvent("serialNumberTest2", 20, 45));
+        verify(droneRepository, never()).updateBattery(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldRejectBatteryLevelsOutOfRange() {
+        assertThatThrownBy(() -> service.updateBattery(SERIAL_NUMBER, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(droneRepository, publisher);
+    }
+
+    @Test
+    void shouldThrowAnExceptionWhenDroneDoesNotExistUpdatingTheBattery() {
+        when(droneRepository.findBatteryBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.updateBattery(SERIAL_NUMBER, 50))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(publisher, versions);
+    }
+
+    @Test
+    void shouldDeliverOneCopyOfAMedicationAndReleaseItsWeight() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setWeight(200);
+        drone.setState(LOADED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findLoadedMedications(SERIAL_NUMBER)).thenReturn(List.of(
+                createLoadedMedication(1, 50), createLoadedMedication(1, 50), createLoadedMedication(2, 100)));
+
+        var delivered = service.deliverMedication(SERIAL_NUMBER, 1L);
+
+        assertThat(delivered)
+                .hasFieldOrPropertyWithValue("weight", 150)
+                .hasFieldOrPropertyWithValue("state", DELIVERING);
+        verify(droneRepository).unloadMedication(SERIAL_NUMBER, 1L);
+        verify(droneRepository, times(1)).loadMedication(SERIAL_NUMBER, 1L, 50);
+        verify(deliveryRepository).save(argThat(delivery -> delivery.getMedicationId() == 1L && delivery.getWeight() == 50));
+        verify(droneRepository, never()).save(any(Drone.class));
+        verify(fleetState).put(drone);
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, LOADED, DELIVERING));
+        verify(versions, atLeastOnce()).droneChanged(SERIAL_NUMBER);
+    }
+
+    @Test
+    void shouldBeDeliveredWithTheLastMedication() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setWeight(60);
+        drone.setState(DELIVERING);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findLoadedMedications(SERIAL_NUMBER)).thenReturn(List.of(createLoadedMedication(1, 50)));
+
+        var delivered = service.deliverMedication(SERIAL_NUMBER, 1L);
+
+        assertThat(delivered)
+                .hasFieldOrPropertyWithValue("weight", 0)
+                .hasFieldOrPropertyWithValue("state", DELIVERED);
+        verify(droneRepository, never()).loadMedication(anyString(), anyLong(), anyInt());
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, DELIVERING, DELIVERED));
+    }
+
+    @Test
+    void shouldNotDeliverAMedicationThatIsNotLoaded() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(LOADED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findLoadedMedications(SERIAL_NUMBER)).thenReturn(List.of(createLoadedMedication(2, 50)));
+
+        assertThatThrownBy(() -> service.deliverMedication(SERIAL_NUMBER, 1L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("The medication 1 isn't loaded to the drone " + SERIAL_NUMBER);
+        verify(droneRepository, never()).unloadMedication(anyString(), anyLong());
+        verifyNoInteractions(deliveryRepository, publisher);
+    }
+
+    @Test
+    void shouldNotDeliverFromADroneThatIsNotLoaded() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(IDLE);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThatThrownBy(() -> service.deliverAll(SERIAL_NUMBER))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The Drone " + SERIAL_NUMBER + " can't go from IDLE to DELIVERING");
+        verify(droneRepository, never()).unloadAll(anyString());
+        verifyNoInteractions(deliveryRepository, publisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDeliverEverythingTheDroneCarries() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setWeight(230);
+        drone.setState(LOADED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+        when(droneRepository.findLoadedMedications(SERIAL_NUMBER)).thenReturn(List.of(
+                createLoadedMedication(1, 50), createLoadedMedication(2, 70), createLoadedMedication(2, 110)));
+
+        var delivered = service.deliverAll(SERIAL_NUMBER);
+
+        assertThat(delivered)
+                .hasFieldOrPropertyWithValue("weight", 0)
+                .hasFieldOrPropertyWithValue("state", DELIVERED);
+        verify(droneRepository).unloadAll(SERIAL_NUMBER);
+        verify(deliveryRepository).saveAll(argThat(deliveries -> ((List<Delivery>) deliveries).stream()
+                .map(delivery -> delivery.getMedicationId() + ":" + delivery.getWeight()).toList()
+                .equals(List.of("1:50", "2:70", "2:110"))));
+        verifyNoInteractions(medicationCache);
+        verify(fleetState).put(drone);
+        var inOrder = inOrder(publisher);
+        inOrder.verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, LOADED, DELIVERING));
+        inOrder.verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, DELIVERING, DELIVERED));
+    }
+
+    @Test
+    void shouldReturnAndArriveAfterDelivering() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(DELIVERED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThat(service.returnDrone(SERIAL_NUMBER)).hasFieldOrPropertyWithValue("state", RETURNING);
+        assertThat(service.arriveDrone(SERIAL_NUMBER)).hasFieldOrPropertyWithValue("state", IDLE);
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, DELIVERED, RETURNING));
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, RETURNING, IDLE));
+        verify(fleetState, times(2)).put(drone);
+    }
+
+    @Test
+    void shouldNotReturnADroneThatIsNotDelivered() {
+        var drone = createDrone(SERIAL_NUMBER, 100);
+        drone.setState(LOADED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThatThrownBy(() -> service.returnDrone(SERIAL_NUMBER))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(drone.getState()).isEqualTo(LOADED);
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldChargeADroneWaitingForIt() {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(NEEDS_TO_BE_CHARGED);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThat(service.startCharging(SERIAL_NUMBER)).hasFieldOrPropertyWithValue("state", CHARGING);
+        assertThat(service.finishCharging(SERIAL_NUMBER, 100))
+                .hasFieldOrPropertyWithValue("battery", 100)
+                .hasFieldOrPropertyWithValue("state", IDLE);
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, NEEDS_TO_BE_CHARGED, CHARGING));
+        verify(publisher).publishEvent(new DroneStateChangedEvent(SERIAL_NUMBER, CHARGING, IDLE));
+        verify(fleetState, times(2)).put(drone);
+    }
+
+    @Test
+    void shouldNotChargeAFlyingDrone() {
+        var drone = createDrone(SERIAL_NUMBER, 10);
+        drone.setState(DELIVERING);
+
+        when(droneRepository.findById(SERIAL_NUMBER)).thenReturn(Optional.of(drone));
+
+        assertThatThrownBy(() -> service.startCharging(SERIAL_NUMBER))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The Drone " + SERIAL_NUMBER + " can't go from DELIVERING to CHARGING");
+        verifyNoInteractions(publisher);
+    }
+
+    private static int[] rowsWritten(int rows) {
+        var counts = new int[rows];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.musalasoft.drones.service;
+
+import com.musalasoft.drones.model.Enum.LoadStatus;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.LoadedCopy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.musalasoft.drones.Utils.createDrone;
+import static com.musalasoft.drones.Utils.createMedication;
+import static com.musalasoft.drones.model.Enum.DroneState.CHARGING;
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneState.LOADED;
+import static com.musalasoft.drones.model.Enum.DroneState.NEEDS_TO_BE_CHARGED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadPlannerTest {
+
+    private final Map<Long, Medication> medications = Map.of(
+            1L, createMedication(1, "medicationTest1", 200),
+            2L, createMedication(2, "medicationTest2", 300));
+
+    @Test
+    void shouldLoadEveryOrderThatFitsWithoutChangingTheDrone() {
+        var drone = createDrone("serialNumberTest", 100);
+
+        var plan = LoadPlanner.plan(drone, List.of(1L, 2L, 1L, 3L), medications);
+
+        assertThat(plan.getResult()).extracting("status", "state", "weight").containsExactly(LoadStatus.LOADED, LOADED, 80 + 200 + 200);
+        assertThat(plan.getResult().getLoadedMedicationIds()).containsExactly(1L, 1L);
+        assertThat(plan.getResult().getRejectedMedicationIds()).containsExactly(2L);
+        assertThat(plan.getResult().getUnknownMedicationIds()).containsExactly(3L);
+        assertThat(plan.getLoads()).containsExactly(new LoadedCopy("serialNumberTest", 1L, 200), new LoadedCopy("serialNumberTest", 1L, 200));
+        assertThat(plan.getAdded()).extracting(Medication::getId).containsExactly(1L, 1L);
+        assertThat(drone).extracting("state", "weight").containsExactly(IDLE, 80);
+    }
+
+    @Test
+    void shouldRefuseDronesThatCantBeLoaded() {
+        var lowBattery = LoadPlanner.plan(createDrone("serialNumberTest", 10), List.of(1L), medications);
+        var charging = createDrone("serialNumberTest", 100);
+        charging.setState(CHARGING);
+
+        assertThat(lowBattery.getResult()).extracting("status", "state").containsExactly(LoadStatus.NEEDS_TO_BE_CHARGED, NEEDS_TO_BE_CHARGED);
+        assertThat(lowBattery.getLoads()).isEmpty();
+        assertThat(LoadPlanner.plan(charging, List.of(1L), medications).getResult())
+                .extracting("status", "state", "unknownMedicationIds").containsExactly(LoadStatus.UNAVAILABLE, CHARGING, List.of(1L));
+        assertThat(LoadPlanner.refusal(createDrone("serialNumberTest", 100), List.of(1L))).isEmpty();
+    }
+
+}
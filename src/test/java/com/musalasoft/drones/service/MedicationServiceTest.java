@@ -1,12 +1,17 @@
 package com.musalasoft.drones.service;
 
+import com.musalasoft.drones.cache.MedicationCache;
+import com.musalasoft.drones.cache.ResourceVersions;
 import com.musalasoft.drones.exception.NotFoundException;
+import com.musalasoft.drones.model.dto.MedicationSummary;
 import com.musalasoft.drones.repository.MedicationRepository;
+import com.musalasoft.drones.storage.ImageStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +21,10 @@ import static com.musalasoft.drones.Utils.createMedication;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +32,12 @@ public class MedicationServiceTest {
 
     @Mock
     private MedicationRepository repository;
+    @Mock
+    private ImageStore imageStore;
+    @Mock
+    private MedicationCache cache;
+    @Mock
+    private ResourceVersions versions;
 
     @InjectMocks
     private MedicationService service;
@@ -53,11 +67,75 @@ public class MedicationServiceTest {
                 .isEmpty();
     }
 
+    @Test
+    void shouldGetAPageOfSummariesWithTheNextCursor() {
+        var summaries = List.of(summary(4), summary(7), summary(9));
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(3L, PageRequest.of(0, 3))).thenReturn(summaries);
+
+        var page = service.getPage(3L, 2);
+
+        assertThat(page.getItems()).containsExactly(summary(4), summary(7));
+        assertThat(page.getNextCursor()).isEqualTo(7L);
+    }
+
+    @Test
+    void shouldGetTheLastPageWithoutCursor() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(3L, PageRequest.of(0, 3))).thenReturn(List.of(summary(4)));
+
+        var page = service.getPage(3L, 2);
+
+        assertThat(page.getItems()).containsExactly(summary(4));
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldStreamTheWholeCatalogueInPages() {
+        var firstPage = new ArrayList<MedicationSummary>();
+        for (long id = 1; id <= 501; id++) {
+            firstPage.add(summary(id));
+        }
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(firstPage);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(500L), any())).thenReturn(List.of(summary(501)));
+
+        var streamed = new ArrayList<MedicationSummary>();
+        service.streamAll(streamed::add);
+
+        assertThat(streamed)
+                .hasSize(501)
+                .endsWith(summary(501));
+    }
+
+    @Test
+    void shouldUpdateTheImageKeepingOnlyItsId() {
+        var medication = createMedication(1, "medication1", 50);
+        var image = new byte[]{1, 2, 3};
+
+        when(cache.get(medication.getId())).thenReturn(Optional.of(medication));
+        when(imageStore.store(image)).thenReturn("imageId");
+        when(repository.save(medication)).thenReturn(medication);
+
+        var updatedMedication = service.updateImage(medication.getId(), image);
+
+        assertThat(updatedMedication.getImageId()).isEqualTo("imageId");
+        verify(cache).invalidate(medication.getId());
+    }
+
+    @Test
+    void shouldGetImageThrownAnExceptionWhenImageDoesNotExist() {
+        when(imageStore.find("imageId")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getImage("imageId"))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("The Image imageId doesn't exist!");
+    }
+
     @Test
     void shouldGetOneById() {
         var expectedMedication = createMedication(1, "medication1", 50);
 
-        when(repository.findById(expectedMedication.getId())).thenReturn(Optional.of(expectedMedication));
+        when(cache.get(expectedMedication.getId())).thenReturn(Optional.of(expectedMedication));
 
         var medication = service.getOneById(expectedMedication.getId());
 
@@ -70,7 +148,7 @@ public class MedicationServiceTest {
     void shouldGetOneByIdThrownAnExceptionWhenMedicationDoesNotExist() {
         var id = 1L;
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(cache.get(id)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getOneById(id))
                 .isInstanceOf(NotFoundException.class)
@@ -89,6 +167,8 @@ public class MedicationServiceTest {
         assertThat(medication)
                 .usingRecursiveComparison()
                 .isEqualTo(expectedMedication);
+        verify(cache).invalidate(expectedMedication.getId());
+        verify(versions).medicationChanged(expectedMedication.getId());
     }
 
     @Test
@@ -113,6 +193,7 @@ public class MedicationServiceTest {
         assertThat(medication)
                 .usingRecursiveComparison()
                 .isEqualTo(expectedMedication);
+        verify(cache).invalidate(expectedMedication.getId());
     }
 
     @Test
@@ -124,6 +205,7 @@ public class MedicationServiceTest {
 
         assertThatNoException()
                 .isThrownBy(() -> service.delete(expectedMedication.getId()));
+        verify(cache).invalidate(expectedMedication.getId());
     }
 
     @Test
@@ -137,4 +219,8 @@ public class MedicationServiceTest {
                 .hasMessage("The Medication with Id " + id + " doesn't exist!");
     }
 
+    private static MedicationSummary summary(long id) {
+        return new MedicationSummary(id, "medication" + id, 50, "code" + id, null);
+    }
+
 }
@@ -0,0 +1,155 @@
+package com.musalasoft.drones.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.model.Drone;
+import com.musalasoft.drones.model.Enum.DroneState;
+import com.musalasoft.drones.model.Enum.DroneType;
+import com.musalasoft.drones.model.Medication;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FleetSimulatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldIssueTheSameCallsForTheSameSeed() {
+        var first = new RecordingTarget();
+        var second = new RecordingTarget();
+
+        var firstReport = new FleetSimulator(settings(42), first, objectMapper).run();
+        var secondReport = new FleetSimulator(settings(42), second, objectMapper).run();
+
+        assertThat(first.calls).isNotEmpty().isEqualTo(second.calls);
+        assertThat(firstReport.getDigest()).isEqualTo(secondReport.getDigest());
+        assertThat(firstReport.getOperations()).isEqualTo(secondReport.getOperations());
+    }
+
+    @Test
+    void shouldIssueOtherCallsForAnotherSeed() {
+        var first = new RecordingTarget();
+        var second = new RecordingTarget();
+
+        var firstReport = new FleetSimulator(settings(42), first, objectMapper).run();
+        var secondReport = new FleetSimulator(settings(43), second, objectMapper).run();
+
+        assertThat(first.calls).isNotEqualTo(second.calls);
+        assertThat(firstReport.getDigest()).isNotEqualTo(secondReport.getDigest());
+    }
+
+    @Test
+    void shouldCreateTheFleetAndTheCatalogueAndFlyTheLoadedDrones() {
+        var target = new RecordingTarget();
+
+        var report = new FleetSimulator(settings(7), target, objectMapper).run();
+
+        assertThat(target.imported).isEqualTo(50);
+        assertThat(target.calls).filteredOn(call -> call.startsWith("saveMedication")).hasSize(10);
+        assertThat(count(report, FleetSimulator.Operation.LOAD)).isPositive();
+        assertThat(count(report, FleetSimulator.Operation.DELIVER)).isPositive();
+        assertThat(count(report, FleetSimulator.Operation.ARRIVE)).isPositive();
+        assertThat(count(report, FleetSimulator.Operation.TELEMETRY)).isPositive();
+        assertThat(report.getOperationReports()).allSatisfy(operation -> assertThat(operation.getErrors()).isZero());
+    }
+
+    @Test
+    void shouldCountTheFailedCallsAndKeepGoing() {
+        var target = new RecordingTarget();
+        target.failLoads = true;
+
+        var report = new FleetSimulator(settings(7), target, objectMapper).run();
+
+        var loads = report.getOperationReports().stream()
+                .filter(operation -> FleetSimulator.Operation.LOAD.name().equals(operation.getOperation()))
+                .findFirst().orElseThrow();
+        assertThat(loads.getErrors()).isPositive();
+        assertThat(count(report, FleetSimulator.Operation.DELIVER)).isZero();
+        assertThat(count(report, FleetSimulator.Operation.TELEMETRY)).isPositive();
+    }
+
+    @Test
+    void shouldStopWhenInterrupted() {
+        var target = new RecordingTarget();
+
+        Thread.currentThread().interrupt();
+        SimulationReport report;
+        try {
+            report = new FleetSimulator(settings(7), target, objectMapper).run();
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertThat(target.imported).isEqualTo(50);
+        assertThat(count(report, FleetSimulator.Operation.LOAD)).isZero();
+        assertThat(count(report, FleetSimulator.Operation.TELEMETRY)).isZero();
+    }
+
+    private static SimulationSettings settings(long seed) {
+        return new SimulationSettings(seed, 50, 10, 5, 20, 5, 120, 0);
+    }
+
+    private static long count(SimulationReport report, FleetSimulator.Operation operation) {
+        return report.getOperationReports().stream()
+                .filter(operationReport -> operation.name().equals(operationReport.getOperation()))
+                .mapToLong(OperationReport::getCount)
+                .sum();
+    }
+
+    private static final class RecordingTarget implements SimulationTarget {
+        private final List<String> calls = new ArrayList<>();
+        private int imported;
+        private long nextId = 1;
+        private boolean failLoads;
+
+        @Override
+        public void importFleet(byte[] ndjson) {
+            imported += (int) new String(ndjson, StandardCharsets.UTF_8).lines().count();
+            calls.add("importFleet " + ndjson.length);
+        }
+
+        @Override
+        public Medication saveMedication(Medication medication) {
+            calls.add("saveMedication " + medication.getCode());
+            return new Medication(nextId++, medication.getName(), medication.getWeight(), medication.getCode(), null);
+        }
+
+        @Override
+        public Drone loadDrone(String serialNumber, List<Long> medicationIds) {
+            calls.add("loadDrone " + serialNumber + " " + medicationIds);
+            if (failLoads) {
+                throw new IllegalStateException("The Drone " + serialNumber + " can't be loaded");
+            }
+            var medications = medicationIds.stream()
+                    .map(id -> new Medication(id, "SIMULATED", 10, "SIM", null))
+                    .toList();
+            return new Drone(serialNumber, DroneType.Lightweight, 10, 100, DroneState.LOADED, new ArrayList<>(medications));
+        }
+
+        @Override
+        public void deliverAll(String serialNumber) {
+            calls.add("deliverAll " + serialNumber);
+        }
+
+        @Override
+        public void returnDrone(String serialNumber) {
+            calls.add("returnDrone " + serialNumber);
+        }
+
+        @Override
+        public void arriveDrone(String serialNumber) {
+            calls.add("arriveDrone " + serialNumber);
+        }
+
+        @Override
+        public void sendTelemetry(List<TelemetryReading> readings) {
+            calls.add("sendTelemetry " + readings);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.musalasoft.drones.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldStoreIdenticalImagesOnce() throws IOException {
+        var store = new ImageStore(directory);
+        var image = new byte[]{1, 2, 3};
+
+        var id1 = store.store(image);
+        var id2 = store.store(image.clone());
+
+        assertThat(id1)
+                .isEqualTo(id2)
+                .isEqualTo("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+        assertThat(store.find(id1)).isPresent();
+        assertThat(store.find(id1).get().getContentAsByteArray()).isEqualTo(image);
+    }
+
+    @Test
+    void shouldNotFindUnknownOrInvalidIds() {
+        var store = new ImageStore(directory);
+
+        assertThat(store.find("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81")).isEmpty();
+        assertThat(store.find("../../etc/passwd")).isEmpty();
+        assertThat(store.find(null)).isEmpty();
+    }
+
+}
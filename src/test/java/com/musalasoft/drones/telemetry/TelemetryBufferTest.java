@@ -0,0 +1,206 @@
+package com.musalasoft.drones.telemetry;
+
+import com.musalasoft.drones.cache.ResourceVersions;
+import com.musalasoft.drones.event.BatteryChangedEvent;
+import com.musalasoft.drones.fleet.FleetStateStore;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import com.musalasoft.drones.repository.DroneRepository;
+import com.musalasoft.drones.service.DroneLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static com.musalasoft.drones.Utils.createDroneSummary;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryBufferTest {
+    private static final String SERIAL_NUMBER = "serialNumberTest";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private FleetStateStore fleetState;
+    @Spy
+    private DroneLocks locks = new DroneLocks(4);
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher publisher;
+    @Mock
+    private ResourceVersions versions;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgs;
+
+    @InjectMocks
+    private TelemetryBuffer buffer;
+
+    @Test
+    void shouldKeepOnlyTheLatestValueOfEachFieldPerDrone() {
+        storedBattery(90);
+        buffer.record(List.of(
+                new TelemetryReading(SERIAL_NUMBER, 80, 1.0, 2.0, null),
+                new TelemetryReading(SERIAL_NUMBER, 70, null, null, null),
+                new TelemetryReading(SERIAL_NUMBER, null, 3.0, 4.0, null)));
+
+        buffer.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), batchArgs.capture(), any(int[].class));
+        assertThat(batchArgs.getValue()).singleElement().isEqualTo(new Object[]{70, SERIAL_NUMBER});
+        assertThat(buffer.latest(SERIAL_NUMBER))
+                .contains(new TelemetryReading(SERIAL_NUMBER, 70, 3.0, 4.0, null));
+        assertThat(buffer.pendingDrones()).isZero();
+    }
+
+    @Test
+    void shouldWriteThePendingReadingsOnCloseWithoutPublishing() {
+        storedBattery(90);
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 10, null, null, null)));
+
+        buffer.close();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+        verifyNoInteractions(publisher);
+        assertThat(buffer.pendingDrones()).isZero();
+    }
+
+    @Test
+    void shouldPreferTheNewestTimestamp() {
+        storedBattery(90);
+        buffer.record(List.of(
+                new TelemetryReading(SERIAL_NUMBER, 60, null, null, 200L),
+                new TelemetryReading(SERIAL_NUMBER, 80, null, null, 100L)));
+
+        buffer.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), batchArgs.capture(), any(int[].class));
+        assertThat(batchArgs.getValue()).singleElement().isEqualTo(new Object[]{60, SERIAL_NUMBER});
+    }
+
+    @Test
+    void shouldRejectInvalidReadings() {
+        var accepted = buffer.record(List.of(
+                new TelemetryReading(null, 50, null, null, null),
+                new TelemetryReading(SERIAL_NUMBER, 101, null, null, null),
+                new TelemetryReading(SERIAL_NUMBER, null, 10.0, null, null),
+                new TelemetryReading(SERIAL_NUMBER, null, 95.0, 10.0, null),
+                new TelemetryReading(SERIAL_NUMBER, 50, null, null, null)));
+
+        assertThat(accepted).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPublishTheFirstReadingAgainstTheStoredBattery() {
+        storedBattery(50);
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, null, null, null)));
+        buffer.flush();
+
+        verify(publisher).publishEvent(new BatteryChangedEvent(SERIAL_NUMBER, 50, 40));
+        verify(versions).droneChanged(SERIAL_NUMBER);
+        verify(locks).withLocks(eq(List.of(SERIAL_NUMBER)), any());
+    }
+
+    @Test
+    void shouldOnlyKeepThePositionWhenTheBatteryDidNotChange() {
+        storedBattery(40);
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, 1.0, 1.0, null)));
+        buffer.flush();
+
+        assertThat(buffer.latest(SERIAL_NUMBER)).contains(new TelemetryReading(SERIAL_NUMBER, 40, 1.0, 1.0, null));
+        verifyNoInteractions(jdbcTemplate, publisher, versions);
+    }
+
+    @Test
+    void shouldDiscardReadingsOfUnknownDrones() {
+        when(droneRepository.findSummariesBySerialNumberIn(List.of(SERIAL_NUMBER))).thenReturn(List.of());
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, 1.0, 1.0, null)));
+        buffer.flush();
+
+        assertThat(buffer.latest(SERIAL_NUMBER)).isEmpty();
+        verify(publisher, never()).publishEvent(any(Object.class));
+        verifyNoInteractions(versions, jdbcTemplate);
+    }
+
+    @Test
+    void shouldRetryTheReadingsOfAFailedFlush() {
+        storedBattery(90);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new QueryTimeoutException("Timeout"))
+                .thenReturn(new int[]{1});
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, 1.0, 2.0, null)));
+        buffer.flush();
+        assertThat(buffer.pendingDrones()).isOne();
+        verify(publisher, never()).publishEvent(any(Object.class));
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, null, 3.0, 4.0, null)));
+        buffer.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batchArgs.capture(), any(int[].class));
+        assertThat(batchArgs.getValue()).singleElement().isEqualTo(new Object[]{40, SERIAL_NUMBER});
+        assertThat(buffer.latest(SERIAL_NUMBER)).contains(new TelemetryReading(SERIAL_NUMBER, 40, 3.0, 4.0, null));
+        verify(publisher).publishEvent(new BatteryChangedEvent(SERIAL_NUMBER, 90, 40));
+        assertThat(buffer.pendingDrones()).isZero();
+    }
+
+    @Test
+    void shouldCountTheReadingsLostOnAFailedClose() {
+        storedBattery(90);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenThrow(new QueryTimeoutException("Timeout"));
+        var registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, null, null, null)));
+        buffer.close();
+
+        assertThat(buffer.pendingDrones()).isZero();
+        assertThat(registry.get("drones.telemetry.dropped").tag("reason", "write-failed").functionCounter().count()).isOne();
+    }
+
+    @Test
+    void shouldWriteIntoTheFleetStateWhenItIsReady() {
+        when(fleetState.isReady()).thenReturn(true);
+        when(fleetState.battery(SERIAL_NUMBER)).thenReturn(OptionalInt.of(50));
+
+        buffer.record(List.of(new TelemetryReading(SERIAL_NUMBER, 40, null, null, null)));
+        buffer.flush();
+
+        verify(fleetState).updateBattery(SERIAL_NUMBER, 40);
+        verify(versions).droneChanged(SERIAL_NUMBER);
+        verify(publisher).publishEvent(new BatteryChangedEvent(SERIAL_NUMBER, 50, 40));
+        verifyNoInteractions(jdbcTemplate, droneRepository);
+    }
+
+    private void storedBattery(int battery) {
+        when(droneRepository.findSummariesBySerialNumberIn(List.of(SERIAL_NUMBER)))
+                .thenReturn(List.of(createDroneSummary(SERIAL_NUMBER, battery)));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.musalasoft.drones.telemetry;
+
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TelemetryCodecTest {
+
+    @Test
+    void shouldDecodeWhatWasEncoded() throws IOException {
+        var readings = List.of(
+                new TelemetryReading("EWO567", 80, 40.4168, -3.7038, 1700000000000L),
+                new TelemetryReading("POR212", 0, null, null, null),
+                new TelemetryReading("MVO285", null, null, null, 1700000000001L));
+        var out = new ByteArrayOutputStream();
+
+        TelemetryCodec.encode(readings, out);
+
+        assertThat(TelemetryCodec.decode(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(readings);
+    }
+
+    @Test
+    void shouldRejectTheFormerStateFlag() {
+        var bytes = new byte[]{0, 0, 0, 1, 0, 1, 'A', 4, 99};
+
+        assertThatThrownBy(() -> TelemetryCodec.decode(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
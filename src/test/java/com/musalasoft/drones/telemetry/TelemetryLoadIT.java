@@ -0,0 +1,131 @@
+package com.musalasoft.drones.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musalasoft.drones.model.dto.TelemetryReading;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.musalasoft.drones.model.Enum.DroneState.IDLE;
+import static com.musalasoft.drones.model.Enum.DroneType.Lightweight;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness of the telemetry endpoint: {@code telemetry.load.threads} clients post batches of
+ * {@code telemetry.load.batch} random readings (half JSON, half binary) for {@code telemetry.load.seconds} and the
+ * ingested readings per second are logged. Run it with {@code mvn test -Dtest=TelemetryLoadIT}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "drones.telemetry.flush-interval=200")
+public class TelemetryLoadIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryLoadIT.class);
+    private static final int DRONES = Integer.getInteger("telemetry.load.drones", 1000);
+    private static final int THREADS = Integer.getInteger("telemetry.load.threads", 8);
+    private static final int BATCH = Integer.getInteger("telemetry.load.batch", 1000);
+    private static final int SECONDS = Integer.getInteger("telemetry.load.seconds", 10);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TelemetryBuffer buffer;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void shouldIngestTelemetryUnderLoad() throws Exception {
+        var serialNumbers = new ArrayList<String>(DRONES);
+        var rows = new ArrayList<Object[]>(DRONES);
+        for (int i = 0; i < DRONES; i++) {
+            var serialNumber = "LOAD" + i;
+            serialNumbers.add(serialNumber);
+            rows.add(new Object[]{serialNumber, Lightweight.ordinal(), 0, 100, IDLE.ordinal()});
+        }
+        jdbcTemplate.batchUpdate("insert into drones (serial_number, model, weight, battery, state) values (?, ?, ?, ?, ?)", rows);
+
+        var deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var clients = new ArrayList<Callable<Long>>();
+        for (int t = 0; t < THREADS; t++) {
+            var binary = t % 2 == 0;
+            clients.add(() -> {
+                var sent = 0L;
+                while (System.nanoTime() < deadline) {
+                    var response = post(randomReadings(serialNumbers), binary);
+                    assertThat(response.statusCode()).isEqualTo(202);
+                    sent += BATCH;
+                }
+                return sent;
+            });
+        }
+        var start = System.nanoTime();
+        var total = 0L;
+        for (var result : executor.invokeAll(clients)) {
+            total += result.get();
+        }
+        var elapsed = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        LOGGER.info("Ingested {} telemetry readings in {}s: {} readings/s with {} clients and batches of {}",
+                total, String.format("%.1f", elapsed), Math.round(total / elapsed), THREADS, BATCH);
+
+        var last = new ArrayList<TelemetryReading>(DRONES);
+        for (int i = 0; i < DRONES; i++) {
+            last.add(new TelemetryReading(serialNumbers.get(i), i % 101, null, null, null));
+        }
+        assertThat(post(last, false).statusCode()).isEqualTo(202);
+        buffer.flush();
+
+        var batteries = jdbcTemplate.queryForList("select battery from drones where serial_number like 'LOAD%' order by cast(substring(serial_number, 5) as int)", Integer.class);
+        assertThat(batteries).hasSize(DRONES);
+        for (int i = 0; i < DRONES; i++) {
+            assertThat(batteries.get(i)).isEqualTo(i % 101);
+        }
+    }
+
+    private List<TelemetryReading> randomReadings(List<String> serialNumbers) {
+        var random = ThreadLocalRandom.current();
+        var readings = new ArrayList<TelemetryReading>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            readings.add(new TelemetryReading(serialNumbers.get(random.nextInt(serialNumbers.size())),
+                    random.nextInt(101), random.nextDouble(-90, 90), random.nextDouble(-180, 180), null));
+        }
+        return readings;
+    }
+
+    private HttpResponse<Void> post(List<TelemetryReading> readings, boolean binary) throws Exception {
+        byte[] body;
+        String contentType;
+        if (binary) {
+            var out = new ByteArrayOutputStream();
+            TelemetryCodec.encode(readings, out);
+            body = out.toByteArray();
+            contentType = TelemetryCodec.MEDIA_TYPE;
+        } else {
+            body = objectMapper.writeValueAsBytes(readings);
+            contentType = "application/json";
+        }
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/telemetry"))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+}